@@ -0,0 +1,298 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Universe of bodies attracting each other, advanced by successive updates. Subclasses define how an update
+ * integrates the motion of the bodies: {@link UniverseModel} integrates every pair of bodies in the plane,
+ * {@link UniverseModel3D} in space and {@link HierarchicalUniverseModel} integrates tightly bound pairs apart.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public abstract class AbstractUniverseModel {
+
+	/**
+	 * gravitational constant in m<sup>3</sup> kg<sup>-1</sup> s<sup>-2</sup>
+	 */
+	public static final double G = 6.6743E-11;
+
+	private final List<Body> bodies;
+	private final List<UpdateListener> updateListeners;
+
+	private double time;
+	private boolean updateListenersMuted;
+	private boolean replaying;
+
+	/**
+	 * @since 0.0.0
+	 */
+	protected AbstractUniverseModel() {
+
+		bodies = new ArrayList<>();
+		updateListeners = new ArrayList<>();
+
+		time = 0;
+		updateListenersMuted = false;
+		replaying = false;
+	}
+
+	/**
+	 * Adds a body to this universe.
+	 *
+	 * @param body body to add
+	 * @since 0.0.0
+	 */
+	public void addBody(Body body) {
+		bodies.add(body);
+	}
+
+	/**
+	 * Adds a body that revolves around another body. Set its position at apoapsis and gives it the velocity needed
+	 * to maintain the given elliptic orbit.
+	 *
+	 * @param orbit orbit
+	 * @since 0.0.0
+	 */
+	public void addOrbitingBody(EllipticOrbit orbit) {
+
+		var primaryBody = orbit.primaryBody();
+		var secondaryBody = orbit.secondaryBody();
+		var apoapsis = orbit.apoapsis();
+
+		var primaryPosition = primaryBody.getPosition();
+		var secondaryPosition = primaryPosition.plus(new Vector2(apoapsis, 0));
+		secondaryBody.setPosition(secondaryPosition);
+
+		var primaryVelocity = primaryBody.getVelocity();
+		var secondaryVelocity = primaryVelocity.plus(orbit.getVelocityAtApoapsis());
+		secondaryBody.setVelocity(secondaryVelocity);
+
+		addBody(secondaryBody);
+	}
+
+	/**
+	 * Adds many bodies revolving around a same primary body. Their positions and velocities are computed in parallel
+	 * from their orbital elements.
+	 *
+	 * @param primaryBody primary body
+	 * @param secondaryBodies secondary bodies, one per orbit
+	 * @param orbits orbital elements of the secondary bodies
+	 * @since 0.0.0
+	 */
+	public void addOrbitingBodies(Body primaryBody, Body[] secondaryBodies, OrbitalElements orbits) {
+
+		orbits.place(primaryBody, secondaryBodies);
+
+		for (var secondaryBody : secondaryBodies) {
+			addBody(secondaryBody);
+		}
+	}
+
+	/**
+	 * Advances this universe by the given amount of time, split into updates no longer than the given maximum.
+	 *
+	 * @param duration amount of time to advance, in seconds
+	 * @param maximumDeltaTime maximum duration of an update, in seconds
+	 * @return number of updates
+	 * @since 0.0.0
+	 */
+	public int advance(double duration, double maximumDeltaTime) {
+
+		var deltaTime = 0.0;
+		var stepCount = 0;
+
+		while (deltaTime + maximumDeltaTime < duration) {
+
+			update(maximumDeltaTime);
+			deltaTime += maximumDeltaTime;
+			stepCount++;
+		}
+
+		update(duration - deltaTime);
+		stepCount++;
+
+		return stepCount;
+	}
+
+	/**
+	 * Computes the next state of this universe after the given amount of time. Implementations must notify the update
+	 * listeners at the end of each update.
+	 *
+	 * @param deltaTime time elapsed since last update, in seconds
+	 * @since 0.0.0
+	 */
+	public abstract void update(double deltaTime);
+
+	/**
+	 * Notifies the update listeners that an update is complete, unless they are muted.
+	 *
+	 * @since 0.0.0
+	 */
+	protected void notifyUpdateListeners() {
+
+		if (!updateListenersMuted) {
+
+			for (var listener : updateListeners) {
+				listener.universeUpdated(this);
+			}
+		}
+	}
+
+	/**
+	 * Registers a listener, notified at the end of each update.
+	 *
+	 * @param listener update listener to register
+	 * @since 0.0.0
+	 */
+	public void addUpdateListener(UpdateListener listener) {
+		updateListeners.add(listener);
+	}
+
+	/**
+	 * @param listener update listener to unregister
+	 * @since 0.0.0
+	 */
+	public void removeUpdateListener(UpdateListener listener) {
+		updateListeners.remove(listener);
+	}
+
+	/**
+	 * Mutes or unmutes the update listeners, while replaying past updates for example.
+	 *
+	 * @param muted whether the update listeners are not notified
+	 * @since 0.0.0
+	 */
+	public void setUpdateListenersMuted(boolean muted) {
+		updateListenersMuted = muted;
+	}
+
+	/**
+	 * @return whether past updates are being replayed
+	 * @since 0.0.0
+	 */
+	public boolean isReplaying() {
+		return replaying;
+	}
+
+	/**
+	 * Marks the following updates as replays of past updates, whose events and diagnostics were already reported.
+	 *
+	 * @param replaying whether past updates are being replayed
+	 * @since 0.0.0
+	 */
+	public void setReplaying(boolean replaying) {
+		this.replaying = replaying;
+	}
+
+	/**
+	 * @return number of doubles per body in the saved states
+	 * @since 0.0.0
+	 */
+	public int getComponentCount() {
+		return 4;
+	}
+
+	/**
+	 * @return number of doubles needed to save the state of this universe: the states of all bodies, followed by the
+	 * integration state of subclasses that have one
+	 * @since 0.0.0
+	 */
+	public int getStateLength() {
+		return bodies.size() * getComponentCount();
+	}
+
+	/**
+	 * Saves the position and velocity of all bodies.
+	 *
+	 * @param states array in which to save the states
+	 * @param offset index of the first double to write
+	 * @since 0.0.0
+	 */
+	public void saveState(double[] states, int offset) {
+
+		for (var body : bodies) {
+
+			var position = body.getPosition();
+			var velocity = body.getVelocity();
+
+			states[offset++] = position.getX();
+			states[offset++] = position.getY();
+			states[offset++] = velocity.getX();
+			states[offset++] = velocity.getY();
+		}
+	}
+
+	/**
+	 * Saves the position and velocity of all bodies, as {@link #saveState(double[], int)} does, directly into a
+	 * buffer. The integration state of subclasses is not saved: {@link #getComponentCount()} doubles are written per
+	 * body.
+	 *
+	 * @param states buffer in which to save the states, from its position
+	 * @since 0.0.0
+	 */
+	public void saveState(DoubleBuffer states) {
+
+		for (var body : bodies) {
+
+			var position = body.getPosition();
+			var velocity = body.getVelocity();
+
+			states.put(position.getX());
+			states.put(position.getY());
+			states.put(velocity.getX());
+			states.put(velocity.getY());
+		}
+	}
+
+	/**
+	 * Restores the position and velocity of all bodies, as saved by {@link #saveState(double[], int)}.
+	 *
+	 * @param states array from which to restore the states
+	 * @param offset index of the first double to read
+	 * @since 0.0.0
+	 */
+	public void restoreState(double[] states, int offset) {
+
+		for (var body : bodies) {
+
+			body.setPosition(new Vector2(states[offset], states[offset + 1]));
+			body.setVelocity(new Vector2(states[offset + 2], states[offset + 3]));
+			offset += 4;
+		}
+	}
+
+	/**
+	 * @return simulation time elapsed since the creation of this universe, in seconds
+	 * @since 0.0.0
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * Sets the simulation time, when bodies are restored to a past or future state.
+	 *
+	 * @param time simulation time, in seconds
+	 * @since 0.0.0
+	 */
+	public void setTime(double time) {
+		this.time = time;
+	}
+
+	/**
+	 * @return number of pair interactions computed during the last update
+	 * @since 0.0.0
+	 */
+	public abstract long getInteractionCount();
+
+	/**
+	 * @return bodies in this universe, in the same order they were added
+	 * @since 0.0.0
+	 */
+	public List<Body> getBodies() {
+		return bodies;
+	}
+}
@@ -0,0 +1,92 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.util.List;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.exp;
+import static java.lang.Math.sqrt;
+
+/**
+ * Drag exerted by the atmosphere of a body on the bodies passing through it. The atmosphere is static relatively to
+ * its body and its density decreases exponentially with altitude:
+ * <pre>
+ * ρ = ρ0 exp(-h / H)
+ * F = -1/2 ρ Cd A |v| v</pre>
+ * where {@code v} is the velocity relatively to the atmosphere and {@code A} the cross-section of the dragged body.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class AtmosphericDragTerm implements BodyForceTerm {
+
+	/**
+	 * altitude above which drag is neglected, in scale heights
+	 */
+	private static final double MAXIMUM_ALTITUDE = 30;
+
+	private final Body planet;
+	private final double surfaceDensity;
+	private final double scaleHeight;
+	private final double dragCoefficient;
+
+	private int planetIndex;
+
+	/**
+	 * @param planet body with an atmosphere
+	 * @param surfaceDensity density of the atmosphere at the surface, in kg/m<sup>3</sup> (1.225 for the earth)
+	 * @param scaleHeight altitude over which density decreases by a factor e, in meters (8500 for the earth)
+	 * @param dragCoefficient drag coefficient of the dragged bodies (about 2.2 for satellites)
+	 * @since 0.0.0
+	 */
+	public AtmosphericDragTerm(Body planet, double surfaceDensity, double scaleHeight, double dragCoefficient) {
+
+		this.planet = planet;
+		this.surfaceDensity = surfaceDensity;
+		this.scaleHeight = scaleHeight;
+		this.dragCoefficient = dragCoefficient;
+
+		planetIndex = -1;
+	}
+
+	@Override
+	public void prepare(List<Body> bodies) {
+		planetIndex = bodies.indexOf(planet);
+	}
+
+	@Override
+	public void addForces(Body body, int index, double[] forcesX, double[] forcesY) {
+
+		if (planetIndex == -1 || index == planetIndex) {
+			return;
+		}
+
+		var planetPosition = planet.getPosition();
+		var position = body.getPosition();
+		var deltaX = position.getX() - planetPosition.getX();
+		var deltaY = position.getY() - planetPosition.getY();
+		var altitude = sqrt(deltaX * deltaX + deltaY * deltaY) - planet.getRadius();
+
+		if (altitude > MAXIMUM_ALTITUDE * scaleHeight) {
+			return;
+		}
+
+		var planetVelocity = planet.getVelocity();
+		var velocity = body.getVelocity();
+		var deltaVelocityX = velocity.getX() - planetVelocity.getX();
+		var deltaVelocityY = velocity.getY() - planetVelocity.getY();
+		var speed = sqrt(deltaVelocityX * deltaVelocityX + deltaVelocityY * deltaVelocityY);
+
+		var density = surfaceDensity * exp(-altitude / scaleHeight);
+		var radius = body.getRadius();
+		var crossSection = PI * radius * radius;
+		var factor = -0.5 * density * dragCoefficient * crossSection * speed;
+
+		var forceX = factor * deltaVelocityX;
+		var forceY = factor * deltaVelocityY;
+
+		forcesX[index] += forceX;
+		forcesY[index] += forceY;
+		forcesX[planetIndex] -= forceX;
+		forcesY[planetIndex] -= forceY;
+	}
+}
@@ -0,0 +1,21 @@
+package com.github.achaaab.gravity_simulator;
+
+/**
+ * force term evaluated once per body, in the same pass as Newtonian gravity
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public interface BodyForceTerm extends ForceTerm {
+
+	/**
+	 * Adds the forces exerted by this term on a body, and the reaction forces if any.
+	 *
+	 * @param body body
+	 * @param index index of the body in the force arrays
+	 * @param forcesX resulting forces on x axis, in newtons
+	 * @param forcesY resulting forces on y axis, in newtons
+	 * @since 0.0.0
+	 */
+	void addForces(Body body, int index, double[] forcesX, double[] forcesY);
+}
@@ -0,0 +1,40 @@
+package com.github.achaaab.gravity_simulator;
+
+/**
+ * access to the states of bodies, either current or interpolated at some time during an update
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public interface BodyStates {
+
+	/**
+	 * current states of the bodies
+	 */
+	BodyStates CURRENT = new BodyStates() {
+
+		@Override
+		public Vector2 getPosition(Body body) {
+			return body.getPosition();
+		}
+
+		@Override
+		public Vector2 getVelocity(Body body) {
+			return body.getVelocity();
+		}
+	};
+
+	/**
+	 * @param body body
+	 * @return position of the body, in meters on x axis and meters on y axis
+	 * @since 0.0.0
+	 */
+	Vector2 getPosition(Body body);
+
+	/**
+	 * @param body body
+	 * @return velocity of the body, in meters per second on x axis and meters per second on y axis
+	 * @since 0.0.0
+	 */
+	Vector2 getVelocity(Body body);
+}
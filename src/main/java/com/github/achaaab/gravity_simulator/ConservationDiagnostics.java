@@ -0,0 +1,297 @@
+package com.github.achaaab.gravity_simulator;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.hypot;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Time series of the conserved quantities of a universe: total energy, linear momentum and angular momentum.
+ * These quantities are accumulated by {@link UniverseModel} during its force computation, so that monitoring them
+ * does not need another pass over the pairs of bodies. {@link UniverseModel3D} and {@link HierarchicalUniverseModel}
+ * do not feed diagnostics. Samples are kept in fixed-size primitive ring buffers.
+ * <p>
+ * Drifts are measured relatively to the first recorded sample:
+ * <ul>
+ *     <li>energy drift is {@code |E - E0| / |E0|}</li>
+ *     <li>momentum drift is {@code |P - P0|}, divided by the sum of the momentum magnitudes of the bodies</li>
+ *     <li>angular momentum drift is {@code |L - L0|}, divided by the sum of the angular momentum magnitudes
+ *     of the bodies</li>
+ * </ul>
+ * The universe is flagged as drifting as soon as one of these drifts exceeds the threshold.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class ConservationDiagnostics {
+
+	private final int capacity;
+	private final double driftThreshold;
+
+	private final double[] times;
+	private final double[] kineticEnergies;
+	private final double[] potentialEnergies;
+	private final double[] momentumsX;
+	private final double[] momentumsY;
+	private final double[] angularMomentums;
+	private final double[] momentumScales;
+	private final double[] angularMomentumScales;
+
+	private int nextIndex;
+	private int sampleCount;
+	private boolean drifting;
+	private double driftTime;
+
+	private double initialEnergy;
+	private double initialMomentumX;
+	private double initialMomentumY;
+	private double initialAngularMomentum;
+
+	/**
+	 * @param capacity maximum number of samples to keep, older samples are overwritten
+	 * @param driftThreshold relative drift above which the universe is flagged as drifting
+	 * @throws IllegalArgumentException if the capacity is not positive
+	 * @since 0.0.0
+	 */
+	public ConservationDiagnostics(int capacity, double driftThreshold) {
+
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+
+		this.capacity = capacity;
+		this.driftThreshold = driftThreshold;
+
+		times = new double[capacity];
+		kineticEnergies = new double[capacity];
+		potentialEnergies = new double[capacity];
+		momentumsX = new double[capacity];
+		momentumsY = new double[capacity];
+		angularMomentums = new double[capacity];
+		momentumScales = new double[capacity];
+		angularMomentumScales = new double[capacity];
+
+		reset();
+	}
+
+	/**
+	 * Forgets all samples. The next recorded sample becomes the reference for drifts.
+	 *
+	 * @since 0.0.0
+	 */
+	public final void reset() {
+
+		nextIndex = 0;
+		sampleCount = 0;
+		drifting = false;
+		driftTime = Double.NaN;
+	}
+
+	/**
+	 * Records the conserved quantities of a universe at a given time.
+	 *
+	 * @param time simulation time, in seconds
+	 * @param kineticEnergy total kinetic energy, in joules
+	 * @param potentialEnergy total gravitational potential energy, in joules
+	 * @param momentumX total linear momentum on x axis, in kilograms meters per second
+	 * @param momentumY total linear momentum on y axis, in kilograms meters per second
+	 * @param angularMomentum total angular momentum around the origin, in kilograms square meters per second
+	 * @param momentumScale sum of the momentum magnitudes of the bodies, in kilograms meters per second
+	 * @param angularMomentumScale sum of the angular momentum magnitudes of the bodies,
+	 * in kilograms square meters per second
+	 * @since 0.0.0
+	 */
+	public void record(double time, double kineticEnergy, double potentialEnergy,
+			double momentumX, double momentumY, double angularMomentum,
+			double momentumScale, double angularMomentumScale) {
+
+		if (sampleCount == 0) {
+
+			initialEnergy = kineticEnergy + potentialEnergy;
+			initialMomentumX = momentumX;
+			initialMomentumY = momentumY;
+			initialAngularMomentum = angularMomentum;
+		}
+
+		times[nextIndex] = time;
+		kineticEnergies[nextIndex] = kineticEnergy;
+		potentialEnergies[nextIndex] = potentialEnergy;
+		momentumsX[nextIndex] = momentumX;
+		momentumsY[nextIndex] = momentumY;
+		angularMomentums[nextIndex] = angularMomentum;
+		momentumScales[nextIndex] = momentumScale;
+		angularMomentumScales[nextIndex] = angularMomentumScale;
+
+		nextIndex = (nextIndex + 1) % capacity;
+		sampleCount = min(sampleCount + 1, capacity);
+
+		if (!drifting && getMaximumDrift(sampleCount - 1) > driftThreshold) {
+
+			drifting = true;
+			driftTime = time;
+		}
+	}
+
+	/**
+	 * @return number of kept samples
+	 * @since 0.0.0
+	 */
+	public int getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return simulation time of the sample, in seconds
+	 * @since 0.0.0
+	 */
+	public double getTime(int index) {
+		return times[getBufferIndex(index)];
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return total kinetic energy, in joules
+	 * @since 0.0.0
+	 */
+	public double getKineticEnergy(int index) {
+		return kineticEnergies[getBufferIndex(index)];
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return total gravitational potential energy, in joules
+	 * @since 0.0.0
+	 */
+	public double getPotentialEnergy(int index) {
+		return potentialEnergies[getBufferIndex(index)];
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return total energy, in joules
+	 * @since 0.0.0
+	 */
+	public double getTotalEnergy(int index) {
+
+		var bufferIndex = getBufferIndex(index);
+		return kineticEnergies[bufferIndex] + potentialEnergies[bufferIndex];
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return total linear momentum, in kilograms meters per second on x axis and y axis
+	 * @since 0.0.0
+	 */
+	public Vector2 getMomentum(int index) {
+
+		var bufferIndex = getBufferIndex(index);
+		return new Vector2(momentumsX[bufferIndex], momentumsY[bufferIndex]);
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return total angular momentum around the origin, in kilograms square meters per second
+	 * @since 0.0.0
+	 */
+	public double getAngularMomentum(int index) {
+		return angularMomentums[getBufferIndex(index)];
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return relative drift of the total energy since the first sample
+	 * @since 0.0.0
+	 */
+	public double getEnergyDrift(int index) {
+		return abs(getTotalEnergy(index) - initialEnergy) / abs(initialEnergy);
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return relative drift of the linear momentum since the first sample
+	 * @since 0.0.0
+	 */
+	public double getMomentumDrift(int index) {
+
+		var bufferIndex = getBufferIndex(index);
+
+		var deltaMomentum = hypot(
+				momentumsX[bufferIndex] - initialMomentumX,
+				momentumsY[bufferIndex] - initialMomentumY);
+
+		return deltaMomentum / momentumScales[bufferIndex];
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return relative drift of the angular momentum since the first sample
+	 * @since 0.0.0
+	 */
+	public double getAngularMomentumDrift(int index) {
+
+		var bufferIndex = getBufferIndex(index);
+		var deltaAngularMomentum = abs(angularMomentums[bufferIndex] - initialAngularMomentum);
+		return deltaAngularMomentum / angularMomentumScales[bufferIndex];
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return maximum of the energy, momentum and angular momentum drifts,
+	 * drifts that cannot be measured (because their scale is zero) are ignored
+	 * @since 0.0.0
+	 */
+	public double getMaximumDrift(int index) {
+
+		var maximumDrift = 0.0;
+
+		var energyDrift = getEnergyDrift(index);
+		var momentumDrift = getMomentumDrift(index);
+		var angularMomentumDrift = getAngularMomentumDrift(index);
+
+		if (Double.isFinite(energyDrift)) {
+			maximumDrift = max(maximumDrift, energyDrift);
+		}
+
+		if (Double.isFinite(momentumDrift)) {
+			maximumDrift = max(maximumDrift, momentumDrift);
+		}
+
+		if (Double.isFinite(angularMomentumDrift)) {
+			maximumDrift = max(maximumDrift, angularMomentumDrift);
+		}
+
+		return maximumDrift;
+	}
+
+	/**
+	 * @return {@code true} if a drift exceeded the threshold since the first sample
+	 * @since 0.0.0
+	 */
+	public boolean isDrifting() {
+		return drifting;
+	}
+
+	/**
+	 * @return simulation time at which a drift first exceeded the threshold, in seconds,
+	 * {@link Double#NaN} if the universe is not drifting
+	 * @since 0.0.0
+	 */
+	public double getDriftTime() {
+		return driftTime;
+	}
+
+	/**
+	 * @param index index of the sample, 0 being the oldest kept sample
+	 * @return index of the sample in the ring buffers
+	 * @since 0.0.0
+	 */
+	private int getBufferIndex(int index) {
+
+		if (index < 0 || index >= sampleCount) {
+			throw new IndexOutOfBoundsException(index);
+		}
+
+		return (nextIndex - sampleCount + index + capacity) % capacity;
+	}
+}
@@ -4,13 +4,17 @@ import static com.github.achaaab.gravity_simulator.UniverseModel.G;
 import static java.lang.Math.sqrt;
 
 /**
- * simplified elliptic orbit
+ * simplified elliptic orbit, whose apoapsis lies on the line of nodes
  *
  * @param primaryBody primary body
  * @param secondaryBody secondary body
  * @param apoapsis apsis of the secondary body where it is the farthest from the primary body, in meters
  * @param periapsis apsis of the secondary body where it is the nearest of the primary body, in meters
  * @param prograde {@code true} if the orbit is prograde, {@code false} if the orbit is retrograde
+ * @param inclination angle between the orbital plane and the reference plane (x, y), in radians,
+ * ignored in 2-dimensional universes
+ * @param longitudeOfAscendingNode angle between the x axis and the line of nodes, in radians,
+ * ignored in 2-dimensional universes
  * @author Jonathan Guéhenneux
  * @since 0.0.0
  */
@@ -20,7 +24,23 @@ public record EllipticOrbit(
 		Body secondaryBody,
 		double apoapsis,
 		double periapsis,
-		boolean prograde) {
+		boolean prograde,
+		double inclination,
+		double longitudeOfAscendingNode) {
+
+	/**
+	 * Creates an orbit in the reference plane.
+	 *
+	 * @param primaryBody primary body
+	 * @param secondaryBody secondary body
+	 * @param apoapsis apsis of the secondary body where it is the farthest from the primary body, in meters
+	 * @param periapsis apsis of the secondary body where it is the nearest of the primary body, in meters
+	 * @param prograde {@code true} if the orbit is prograde, {@code false} if the orbit is retrograde
+	 * @since 0.0.0
+	 */
+	public EllipticOrbit(Body primaryBody, Body secondaryBody, double apoapsis, double periapsis, boolean prograde) {
+		this(primaryBody, secondaryBody, apoapsis, periapsis, prograde, 0, 0);
+	}
 
 	/**
 	 * @return velocity of the secondary body at its apoapsis,
@@ -35,4 +55,34 @@ public record EllipticOrbit(
 		var magnitude = sqrt(standardGravitationalParameter * (2 / apoapsis - 1 / semiMajorAxis));
 		return new Vector2(0, prograde ? -magnitude : magnitude);
 	}
+
+	/**
+	 * @return position of the secondary body at its apoapsis, relatively to the primary body, in meters
+	 * @since 0.0.0
+	 */
+	public Vector3 getPositionAtApoapsis3D() {
+		return orient(new Vector3(apoapsis, 0, 0));
+	}
+
+	/**
+	 * @return velocity of the secondary body at its apoapsis, relatively to the primary body,
+	 * in meters per second
+	 * @since 0.0.0
+	 */
+	public Vector3 getVelocityAtApoapsis3D() {
+
+		var velocity = getVelocityAtApoapsis();
+		return orient(new Vector3(velocity.getX(), velocity.getY(), 0));
+	}
+
+	/**
+	 * Rotates a vector from the reference plane to the orbital plane.
+	 *
+	 * @param vector vector in the reference plane
+	 * @return vector in the orbital plane
+	 * @since 0.0.0
+	 */
+	private Vector3 orient(Vector3 vector) {
+		return vector.rotateX(inclination).rotateZ(longitudeOfAscendingNode);
+	}
 }
@@ -0,0 +1,173 @@
+package com.github.achaaab.gravity_simulator;
+
+import static java.lang.Math.abs;
+
+/**
+ * Detects the zero crossings of an event function across universe updates. The function is evaluated at both ends
+ * of each update. When its sign changes, the crossing is located inside the update by root finding on the states
+ * interpolated by a {@link StepInterpolator}, so that event times are precise even with large time steps.
+ * An update containing an even number of crossings shows no sign change: time steps must remain small compared to
+ * the time between two crossings.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class EventDetector {
+
+	/**
+	 * default tolerance on event times, in seconds
+	 */
+	public static final double DEFAULT_TIME_TOLERANCE = 1.0E-3;
+
+	/**
+	 * maximum number of root finding iterations
+	 */
+	private static final int MAXIMUM_ITERATION_COUNT = 100;
+
+	/**
+	 * direction of the zero crossings to detect
+	 *
+	 * @author Jonathan Guéhenneux
+	 * @since 0.0.0
+	 */
+	public enum Crossing {
+
+		/**
+		 * from negative to positive
+		 */
+		INCREASING,
+
+		/**
+		 * from positive to negative
+		 */
+		DECREASING,
+
+		/**
+		 * in both directions
+		 */
+		ANY
+	}
+
+	private final EventFunction function;
+	private final Crossing crossing;
+	private final double timeTolerance;
+	private final SimulationEventListener listener;
+
+	/**
+	 * Creates a detector of all the crossings of a function, with the default tolerance.
+	 *
+	 * @param function event function
+	 * @param listener listener to notify when an event occurs
+	 * @since 0.0.0
+	 */
+	public EventDetector(EventFunction function, SimulationEventListener listener) {
+		this(function, Crossing.ANY, DEFAULT_TIME_TOLERANCE, listener);
+	}
+
+	/**
+	 * @param function event function
+	 * @param crossing direction of the crossings to detect
+	 * @param timeTolerance tolerance on event times, in seconds
+	 * @param listener listener to notify when an event occurs
+	 * @since 0.0.0
+	 */
+	public EventDetector(EventFunction function, Crossing crossing, double timeTolerance,
+			SimulationEventListener listener) {
+
+		this.function = function;
+		this.crossing = crossing;
+		this.timeTolerance = timeTolerance;
+		this.listener = listener;
+	}
+
+	/**
+	 * @return event function
+	 * @since 0.0.0
+	 */
+	public EventFunction getFunction() {
+		return function;
+	}
+
+	/**
+	 * @return listener to notify when an event occurs
+	 * @since 0.0.0
+	 */
+	public SimulationEventListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * @param startValue value of the function at the start of an update
+	 * @param endValue value of the function at the end of the update
+	 * @return whether the function crosses zero during the update, in the detected direction
+	 * @since 0.0.0
+	 */
+	public boolean isCrossing(double startValue, double endValue) {
+
+		var increasing = startValue < 0 && endValue >= 0;
+		var decreasing = startValue > 0 && endValue <= 0;
+
+		return switch (crossing) {
+			case INCREASING -> increasing;
+			case DECREASING -> decreasing;
+			case ANY -> increasing || decreasing;
+		};
+	}
+
+	/**
+	 * Locates a zero crossing of the function during an update, using the Illinois variant of the regula falsi.
+	 *
+	 * @param interpolator interpolator of the update, its time is left at the located event time
+	 * @param startValue value of the function at the start of the update
+	 * @param endValue value of the function at the end of the update
+	 * @return time of the zero crossing, in seconds
+	 * @since 0.0.0
+	 */
+	public double locate(StepInterpolator interpolator, double startValue, double endValue) {
+
+		var time0 = interpolator.getStartTime();
+		var time1 = interpolator.getEndTime();
+		var value0 = startValue;
+		var value1 = endValue;
+		var side = 0;
+
+		var time = time1;
+
+		for (var iteration = 0; iteration < MAXIMUM_ITERATION_COUNT && abs(time1 - time0) > timeTolerance; iteration++) {
+
+			time = (time0 * value1 - time1 * value0) / (value1 - value0);
+			interpolator.setTime(time);
+			var value = function.evaluate(interpolator);
+
+			if (value == 0) {
+
+				break;
+
+			} else if (value * value1 > 0) {
+
+				time1 = time;
+				value1 = value;
+
+				if (side == -1) {
+					value0 /= 2;
+				}
+
+				side = -1;
+
+			} else {
+
+				time0 = time;
+				value0 = value;
+
+				if (side == 1) {
+					value1 /= 2;
+				}
+
+				side = 1;
+			}
+		}
+
+		interpolator.setTime(time);
+		return time;
+	}
+}
@@ -0,0 +1,77 @@
+package com.github.achaaab.gravity_simulator;
+
+/**
+ * Continuous function of the states of bodies. An event occurs when the function crosses zero.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+@FunctionalInterface
+public interface EventFunction {
+
+	/**
+	 * Creates a function crossing zero when the distance between two bodies crosses a threshold.
+	 * The function is negative when the bodies are closer than the threshold.
+	 *
+	 * @param body0 first body
+	 * @param body1 second body
+	 * @param threshold distance threshold, in meters
+	 * @return distance event function
+	 * @since 0.0.0
+	 */
+	static EventFunction distance(Body body0, Body body1, double threshold) {
+
+		return states -> states.getPosition(body1).minus(states.getPosition(body0)).magnitude() - threshold;
+	}
+
+	/**
+	 * Creates a function crossing zero when the radial velocity of a body relatively to a reference body changes
+	 * its sign: increasing at periapsis, decreasing at apoapsis.
+	 *
+	 * @param body body
+	 * @param reference reference body, usually the primary body
+	 * @return radial velocity event function
+	 * @since 0.0.0
+	 */
+	static EventFunction radialVelocity(Body body, Body reference) {
+
+		return states -> {
+
+			var deltaPosition = states.getPosition(body).minus(states.getPosition(reference));
+			var deltaVelocity = states.getVelocity(body).minus(states.getVelocity(reference));
+
+			return deltaPosition.getX() * deltaVelocity.getX() + deltaPosition.getY() * deltaVelocity.getY();
+		};
+	}
+
+	/**
+	 * Creates a function crossing zero when two bodies are aligned with a center body, either on the same side
+	 * (conjunction) or on opposite sides (opposition). The function is the sine of the angle between both bodies,
+	 * seen from the center.
+	 *
+	 * @param center center body
+	 * @param body0 first body
+	 * @param body1 second body
+	 * @return alignment event function
+	 * @since 0.0.0
+	 */
+	static EventFunction alignment(Body center, Body body0, Body body1) {
+
+		return states -> {
+
+			var centerPosition = states.getPosition(center);
+			var delta0 = states.getPosition(body0).minus(centerPosition);
+			var delta1 = states.getPosition(body1).minus(centerPosition);
+			var crossProduct = delta0.getX() * delta1.getY() - delta0.getY() * delta1.getX();
+
+			return crossProduct / (delta0.magnitude() * delta1.magnitude());
+		};
+	}
+
+	/**
+	 * @param states states of the bodies
+	 * @return value of this function
+	 * @since 0.0.0
+	 */
+	double evaluate(BodyStates states);
+}
@@ -0,0 +1,92 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Force terms combined into the single gravity pass of {@link UniverseModel}. The pipeline is built once, at setup:
+ * disabled terms are left out and enabled terms are sorted into arrays of pairwise and per-body terms, so that
+ * the gravity loop only iterates over what is actually enabled.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class ForcePipeline {
+
+	/**
+	 * pipeline without any term, only Newtonian gravity is computed
+	 */
+	public static final ForcePipeline NEWTONIAN = new ForcePipeline(List.of());
+
+	private final ForceTerm[] terms;
+	private final PairForceTerm[] pairTerms;
+	private final BodyForceTerm[] bodyTerms;
+
+	/**
+	 * @param terms force terms to combine, disabled terms are ignored
+	 * @since 0.0.0
+	 */
+	public ForcePipeline(List<? extends ForceTerm> terms) {
+
+		var enabledTerms = new ArrayList<ForceTerm>();
+		var enabledPairTerms = new ArrayList<PairForceTerm>();
+		var enabledBodyTerms = new ArrayList<BodyForceTerm>();
+
+		for (var term : terms) {
+
+			if (term.isEnabled()) {
+
+				enabledTerms.add(term);
+
+				if (term instanceof PairForceTerm pairTerm) {
+					enabledPairTerms.add(pairTerm);
+				}
+
+				if (term instanceof BodyForceTerm bodyTerm) {
+					enabledBodyTerms.add(bodyTerm);
+				}
+			}
+		}
+
+		this.terms = enabledTerms.toArray(ForceTerm[]::new);
+		pairTerms = enabledPairTerms.toArray(PairForceTerm[]::new);
+		bodyTerms = enabledBodyTerms.toArray(BodyForceTerm[]::new);
+	}
+
+	/**
+	 * Prepares all the terms for an update.
+	 *
+	 * @param bodies bodies of the universe
+	 * @since 0.0.0
+	 */
+	public void prepare(List<Body> bodies) {
+
+		for (var term : terms) {
+			term.prepare(bodies);
+		}
+	}
+
+	/**
+	 * @return enabled pairwise terms
+	 * @since 0.0.0
+	 */
+	public PairForceTerm[] getPairTerms() {
+		return pairTerms;
+	}
+
+	/**
+	 * @return enabled per-body terms
+	 * @since 0.0.0
+	 */
+	public BodyForceTerm[] getBodyTerms() {
+		return bodyTerms;
+	}
+
+	/**
+	 * @return whether this pipeline contains no enabled term
+	 * @since 0.0.0
+	 */
+	public boolean isEmpty() {
+		return terms.length == 0;
+	}
+}
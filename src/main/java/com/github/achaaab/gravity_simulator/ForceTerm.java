@@ -0,0 +1,35 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.util.List;
+
+/**
+ * Force added to the Newtonian gravity computed by {@link UniverseModel}. Terms are either pairwise
+ * ({@link PairForceTerm}), evaluated for each pair of bodies inside the gravity loop, or per-body
+ * ({@link BodyForceTerm}), evaluated once per body in the same pass.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ * @see ForcePipeline
+ */
+public interface ForceTerm {
+
+	/**
+	 * Disabled terms are left out of the pipeline when it is built, so they cost nothing during updates.
+	 *
+	 * @return whether this term is enabled
+	 * @since 0.0.0
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * Called once per update, before any force is computed.
+	 *
+	 * @param bodies bodies of the universe, in the order of the force arrays
+	 * @since 0.0.0
+	 */
+	default void prepare(List<Body> bodies) {
+
+	}
+}
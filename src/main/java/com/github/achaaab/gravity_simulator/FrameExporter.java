@@ -0,0 +1,129 @@
+package com.github.achaaab.gravity_simulator;
+
+import javafx.application.Platform;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Exports an animation of a universe as fast as possible, instead of 60 frames per second. The simulation runs on the
+ * calling thread. Each frame is drawn by an offscreen {@link UniverseView}, which does not need to be shown in a
+ * stage, and copied to a pixel buffer, on the JavaFX application thread. Frames are then encoded by a
+ * {@link PngSequenceWriter}, in parallel with the simulation of the next frames.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class FrameExporter {
+
+	private final AbstractUniverseModel model;
+	private final UniverseView view;
+	private final Trails trails;
+
+	/**
+	 * @param model universe to export
+	 * @param view view drawing the frames, with its scale and anchor already set
+	 * @param trails trails of the bodies, {@code null} to draw no trail
+	 * @since 0.0.0
+	 */
+	public FrameExporter(AbstractUniverseModel model, UniverseView view, Trails trails) {
+
+		this.model = model;
+		this.view = view;
+		this.trails = trails;
+
+		view.setBodies(model.getBodies());
+		view.setTrails(trails);
+	}
+
+	/**
+	 * Exports frames. Must not be called from the JavaFX application thread, which must be running.
+	 *
+	 * @param writer writer of the frames, of the same size as the view
+	 * @param frameCount number of frames to export, the first one being the current state
+	 * @param frameDuration simulated time between 2 frames, in seconds
+	 * @param maximumDeltaTime maximum duration of an update, in seconds
+	 * @return number of updates
+	 * @throws IOException if a frame could not be written
+	 * @throws InterruptedException if interrupted while waiting for the JavaFX application thread or for the writer
+	 * @since 0.0.0
+	 */
+	public long export(PngSequenceWriter writer, int frameCount, double frameDuration, double maximumDeltaTime)
+			throws IOException, InterruptedException {
+
+		var width = (int) view.getWidth();
+		var height = (int) view.getHeight();
+		var image = new WritableImage(width, height);
+		var pixelFormat = PixelFormat.getIntArgbInstance();
+		var stepCount = 0L;
+
+		for (var frame = 0; frame < frameCount; frame++) {
+
+			if (frame > 0) {
+				stepCount += model.advance(frameDuration, maximumDeltaTime);
+			}
+
+			if (trails != null) {
+				trails.sample(model.getBodies(), view.getScale());
+			}
+
+			var pixels = writer.acquireBuffer();
+			var submitted = false;
+
+			try {
+
+				runAndWait(() -> {
+
+					view.draw();
+					view.snapshot(null, image);
+					image.getPixelReader().getPixels(0, 0, width, height, pixelFormat, pixels, 0, width);
+				});
+
+				writer.submit(pixels);
+				submitted = true;
+
+			} finally {
+
+				if (!submitted) {
+					writer.releaseBuffer(pixels);
+				}
+			}
+		}
+
+		return stepCount;
+	}
+
+	/**
+	 * Runs a task on the JavaFX application thread and waits for its completion.
+	 *
+	 * @param task task to run
+	 * @throws InterruptedException if interrupted while waiting
+	 * @since 0.0.0
+	 */
+	private static void runAndWait(Runnable task) throws InterruptedException {
+
+		var completion = new CompletableFuture<Void>();
+
+		Platform.runLater(() -> {
+
+			try {
+
+				task.run();
+				completion.complete(null);
+
+			} catch (RuntimeException exception) {
+
+				completion.completeExceptionally(exception);
+			}
+		});
+
+		try {
+			completion.get();
+		} catch (ExecutionException executionException) {
+			throw new IllegalStateException("frame could not be drawn", executionException.getCause());
+		}
+	}
+}
@@ -0,0 +1,621 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.util.ArrayList;
+
+import static com.github.achaaab.gravity_simulator.SimulationPhaseEvent.FORCES;
+import static com.github.achaaab.gravity_simulator.SimulationPhaseEvent.INTEGRATION;
+import static java.lang.Math.PI;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+import static java.util.Arrays.fill;
+import static java.util.Comparator.comparingDouble;
+
+/**
+ * Universe in which tightly bound pairs of bodies, like the earth and the moon, are integrated apart from the rest of
+ * the system. Each pair appears to the other bodies as a single composite body, at its center of mass, moving with the
+ * step of the update. The internal motion of the pair is integrated in the frame of its center of mass, with as many
+ * sub-steps as needed to follow its orbit. The other bodies act on it through their tidal acceleration, linearized
+ * around the center of mass and evaluated once per update. The step of the updates then only has to follow the outer
+ * orbits.
+ * <p>
+ * A pair is formed when:
+ * <ul>
+ *     <li>its bodies are bound, each one being the partner of the other with the shortest orbital period</li>
+ *     <li>its orbit would take fewer than {@value #MINIMUM_STEPS_PER_ORBIT} updates, of the longest duration since
+ *     the previous detection (so that the shorter last update of {@link #advance(double, double)} does not count)</li>
+ *     <li>at apoapsis, the tidal acceleration of every other body is less than {@value #MAXIMUM_TIDAL_RATIO} of
+ *     the attraction between the two bodies (a Hill sphere criterion)</li>
+ * </ul>
+ * Both thresholds are multiplied by {@value #HYSTERESIS_FACTOR} for a pair that is already formed, so that pairs
+ * close to the thresholds do not flicker. Pairs are detected every {@value #DETECTION_INTERVAL} updates, shortest
+ * periods first, each body belonging to at most one pair. Larger groups are not detected. The sub-steps of a pair are
+ * limited to {@value #MAXIMUM_SUB_STEP_COUNT} per update, a tighter orbit being followed less accurately rather than
+ * stalling the simulation. Unlike {@link UniverseModel}, this universe has no force terms, conservation diagnostics
+ * or event detectors.
+ * <p>
+ * Pairs only form when the updates are long enough: with the Earth and the Moon, updates of about 10 hours or more.
+ * <p>
+ * The saved states include the state of the detection (updates before the next detection, longest update since the
+ * previous one and formed pairs), so that restored states are updated exactly as they were.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class HierarchicalUniverseModel extends AbstractUniverseModel {
+
+	/**
+	 * maximum number of updates per orbit for a pair to be integrated apart
+	 */
+	public static final int MINIMUM_STEPS_PER_ORBIT = 64;
+
+	/**
+	 * number of sub-steps per orbit of a pair
+	 */
+	public static final int SUB_STEPS_PER_ORBIT = 1_024;
+
+	/**
+	 * maximum ratio between the tidal acceleration of another body and the attraction inside a pair
+	 */
+	public static final double MAXIMUM_TIDAL_RATIO = 0.1;
+
+	/**
+	 * factor applied to the thresholds of a pair that is already formed
+	 */
+	public static final double HYSTERESIS_FACTOR = 2;
+
+	/**
+	 * maximum number of sub-steps of a pair per update
+	 */
+	public static final int MAXIMUM_SUB_STEP_COUNT = 1 << 16;
+
+	/**
+	 * number of updates between two detections of pairs
+	 */
+	public static final int DETECTION_INTERVAL = 16;
+
+	private static final int NONE = -1;
+
+	private long interactionCount;
+	private int updatesBeforeDetection;
+	private double maximumDeltaTime;
+	private int[] partners;
+
+	private int compositeCount;
+	private int[] firstIndices;
+	private int[] secondIndices;
+	private double[] masses;
+	private double[] positionsX;
+	private double[] positionsY;
+	private double[] accelerationsX;
+	private double[] accelerationsY;
+	private double[] tidesXX;
+	private double[] tidesXY;
+	private double[] tidesYY;
+
+	/**
+	 * @since 0.0.0
+	 */
+	public HierarchicalUniverseModel() {
+
+		interactionCount = 0;
+		updatesBeforeDetection = 0;
+		maximumDeltaTime = 0;
+		partners = new int[0];
+
+		allocate(0);
+	}
+
+	@Override
+	public void update(double deltaTime) {
+
+		var bodies = getBodies();
+		var bodyCount = bodies.size();
+
+		maximumDeltaTime = max(maximumDeltaTime, deltaTime);
+
+		if (partners.length != bodyCount || updatesBeforeDetection == 0) {
+
+			detectPairs(maximumDeltaTime);
+			updatesBeforeDetection = DETECTION_INTERVAL;
+			maximumDeltaTime = 0;
+		}
+
+		updatesBeforeDetection--;
+
+		compose();
+
+		interactionCount = (long) compositeCount * (compositeCount - 1) / 2;
+
+		var forcesEvent = new SimulationPhaseEvent(FORCES, compositeCount, interactionCount);
+		forcesEvent.begin();
+
+		computeAccelerations();
+
+		forcesEvent.commit();
+
+		var integrationEvent = new SimulationPhaseEvent(INTEGRATION, bodyCount, 0);
+		integrationEvent.begin();
+
+		for (var composite = 0; composite < compositeCount; composite++) {
+
+			var acceleration = new Vector2(accelerationsX[composite], accelerationsY[composite]);
+			var first = bodies.get(firstIndices[composite]);
+
+			if (secondIndices[composite] == NONE) {
+
+				first.setVelocity(first.getVelocity().plus(acceleration.times(deltaTime)));
+				first.update(deltaTime);
+
+			} else {
+
+				interactionCount += updatePair(composite, first, bodies.get(secondIndices[composite]),
+						acceleration, deltaTime);
+			}
+		}
+
+		setTime(getTime() + deltaTime);
+
+		integrationEvent.commit();
+
+		notifyUpdateListeners();
+	}
+
+	/**
+	 * Integrates a pair: its center of mass with the acceleration of the other bodies, its internal motion with
+	 * sub-steps.
+	 *
+	 * @param composite index of the composite body
+	 * @param first first body of the pair
+	 * @param second second body of the pair
+	 * @param acceleration acceleration of the center of mass, in meters per squared second
+	 * @param deltaTime duration of the update, in seconds
+	 * @return number of sub-steps
+	 * @since 0.0.0
+	 */
+	private int updatePair(int composite, Body first, Body second, Vector2 acceleration, double deltaTime) {
+
+		var firstMass = first.getMass();
+		var secondMass = second.getMass();
+		var mass = masses[composite];
+		var gravitationalParameter = G * mass;
+
+		var centerVelocity = first.getVelocity().times(firstMass).plus(second.getVelocity().times(secondMass))
+				.divide(mass)
+				.plus(acceleration.times(deltaTime));
+
+		var centerPosition = new Vector2(positionsX[composite], positionsY[composite])
+				.plus(centerVelocity.times(deltaTime));
+
+		var relativePosition = second.getPosition().minus(first.getPosition());
+		var relativeVelocity = second.getVelocity().minus(first.getVelocity());
+
+		var x = relativePosition.getX();
+		var y = relativePosition.getY();
+		var vx = relativeVelocity.getX();
+		var vy = relativeVelocity.getY();
+
+		var tideXX = tidesXX[composite];
+		var tideXY = tidesXY[composite];
+		var tideYY = tidesYY[composite];
+
+		var period = getPeriod(gravitationalParameter, sqrt(x * x + y * y), vx * vx + vy * vy);
+		var subStepCount = Double.isNaN(period) ? 1 :
+				(int) min(ceil(deltaTime * SUB_STEPS_PER_ORBIT / period), MAXIMUM_SUB_STEP_COUNT);
+		var subStep = deltaTime / subStepCount;
+
+		for (var step = 0; step < subStepCount; step++) {
+
+			var squaredDistance = x * x + y * y;
+			var factor = gravitationalParameter / (squaredDistance * sqrt(squaredDistance));
+
+			vx += (tideXX * x + tideXY * y - factor * x) * subStep;
+			vy += (tideXY * x + tideYY * y - factor * y) * subStep;
+			x += vx * subStep;
+			y += vy * subStep;
+		}
+
+		relativePosition = new Vector2(x, y);
+		relativeVelocity = new Vector2(vx, vy);
+
+		var firstFraction = secondMass / mass;
+		var secondFraction = firstMass / mass;
+
+		first.setPosition(centerPosition.minus(relativePosition.times(firstFraction)));
+		first.setVelocity(centerVelocity.minus(relativeVelocity.times(firstFraction)));
+		second.setPosition(centerPosition.plus(relativePosition.times(secondFraction)));
+		second.setVelocity(centerVelocity.plus(relativeVelocity.times(secondFraction)));
+
+		return subStepCount;
+	}
+
+	/**
+	 * Replaces each pair with a composite body, at its center of mass.
+	 *
+	 * @since 0.0.0
+	 */
+	private void compose() {
+
+		var bodies = getBodies();
+		var bodyCount = bodies.size();
+
+		if (masses.length < bodyCount) {
+			allocate(bodyCount);
+		}
+
+		compositeCount = 0;
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			var partner = partners[index];
+
+			if (partner == NONE || partner > index) {
+
+				var body = bodies.get(index);
+				var mass = body.getMass();
+				var position = body.getPosition();
+
+				if (partner == NONE) {
+
+					masses[compositeCount] = mass;
+					positionsX[compositeCount] = position.getX();
+					positionsY[compositeCount] = position.getY();
+
+				} else {
+
+					var partnerBody = bodies.get(partner);
+					var partnerMass = partnerBody.getMass();
+					var partnerPosition = partnerBody.getPosition();
+					var totalMass = mass + partnerMass;
+
+					masses[compositeCount] = totalMass;
+					positionsX[compositeCount] = (mass * position.getX() + partnerMass * partnerPosition.getX()) /
+							totalMass;
+					positionsY[compositeCount] = (mass * position.getY() + partnerMass * partnerPosition.getY()) /
+							totalMass;
+				}
+
+				firstIndices[compositeCount] = index;
+				secondIndices[compositeCount] = partner;
+				compositeCount++;
+			}
+		}
+	}
+
+	/**
+	 * Computes the acceleration of each composite body, and the tidal tensor of the other bodies at the center of
+	 * each pair. Each pair of composite bodies is visited once.
+	 *
+	 * @since 0.0.0
+	 */
+	private void computeAccelerations() {
+
+		fill(accelerationsX, 0, compositeCount, 0.0);
+		fill(accelerationsY, 0, compositeCount, 0.0);
+		fill(tidesXX, 0, compositeCount, 0.0);
+		fill(tidesXY, 0, compositeCount, 0.0);
+		fill(tidesYY, 0, compositeCount, 0.0);
+
+		for (var composite0 = 0; composite0 < compositeCount; composite0++) {
+
+			var mass0 = masses[composite0];
+			var x0 = positionsX[composite0];
+			var y0 = positionsY[composite0];
+			var pair0 = secondIndices[composite0] != NONE;
+
+			for (var composite1 = composite0 + 1; composite1 < compositeCount; composite1++) {
+
+				var mass1 = masses[composite1];
+				var deltaX = positionsX[composite1] - x0;
+				var deltaY = positionsY[composite1] - y0;
+				var squaredDistance = deltaX * deltaX + deltaY * deltaY;
+				var factor = G / (squaredDistance * sqrt(squaredDistance));
+
+				accelerationsX[composite0] += factor * mass1 * deltaX;
+				accelerationsY[composite0] += factor * mass1 * deltaY;
+				accelerationsX[composite1] -= factor * mass0 * deltaX;
+				accelerationsY[composite1] -= factor * mass0 * deltaY;
+
+				// gradient of the acceleration: G m (3 u u - I) / d³, u being the unit vector between centers
+				var tideXX = 3 * deltaX * deltaX / squaredDistance - 1;
+				var tideXY = 3 * deltaX * deltaY / squaredDistance;
+				var tideYY = 3 * deltaY * deltaY / squaredDistance - 1;
+
+				if (pair0) {
+
+					tidesXX[composite0] += factor * mass1 * tideXX;
+					tidesXY[composite0] += factor * mass1 * tideXY;
+					tidesYY[composite0] += factor * mass1 * tideYY;
+				}
+
+				if (secondIndices[composite1] != NONE) {
+
+					tidesXX[composite1] += factor * mass0 * tideXX;
+					tidesXY[composite1] += factor * mass0 * tideXY;
+					tidesYY[composite1] += factor * mass0 * tideYY;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Detects the pairs to integrate apart. Each body is first matched with the bound body of shortest orbital period.
+	 * Mutual matches are then checked against other bodies and formed, shortest periods first. Pairs that are already
+	 * formed are checked against relaxed thresholds.
+	 *
+	 * @param deltaTime longest duration of the updates since the previous detection, in seconds
+	 * @since 0.0.0
+	 */
+	private void detectPairs(double deltaTime) {
+
+		var bodies = getBodies();
+		var bodyCount = bodies.size();
+
+		var previousPartners = partners;
+		partners = new int[bodyCount];
+		fill(partners, NONE);
+
+		var candidates = new int[bodyCount];
+		var periods = new double[bodyCount];
+		var apoapsides = new double[bodyCount];
+
+		fill(candidates, NONE);
+		fill(periods, Double.POSITIVE_INFINITY);
+
+		for (var index0 = 0; index0 < bodyCount; index0++) {
+
+			var body0 = bodies.get(index0);
+			var position0 = body0.getPosition();
+			var velocity0 = body0.getVelocity();
+
+			for (var index1 = index0 + 1; index1 < bodyCount; index1++) {
+
+				var body1 = bodies.get(index1);
+				var relativePosition = body1.getPosition().minus(position0);
+				var relativeVelocity = body1.getVelocity().minus(velocity0);
+				var gravitationalParameter = G * (body0.getMass() + body1.getMass());
+
+				var distance = relativePosition.magnitude();
+				var squaredSpeed = relativeVelocity.squaredMagnitude();
+				var period = getPeriod(gravitationalParameter, distance, squaredSpeed);
+
+				if (period < periods[index0] || period < periods[index1]) {
+
+					var apoapsis = getApoapsis(gravitationalParameter, relativePosition, relativeVelocity);
+
+					if (period < periods[index0]) {
+
+						candidates[index0] = index1;
+						periods[index0] = period;
+						apoapsides[index0] = apoapsis;
+					}
+
+					if (period < periods[index1]) {
+
+						candidates[index1] = index0;
+						periods[index1] = period;
+						apoapsides[index1] = apoapsis;
+					}
+				}
+			}
+		}
+
+		var pairs = new ArrayList<Integer>();
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			var candidate = candidates[index];
+
+			var formed = previousPartners.length == bodyCount && previousPartners[index] == candidate;
+			var factor = formed ? HYSTERESIS_FACTOR : 1;
+
+			if (candidate > index && candidates[candidate] == index &&
+					periods[index] < deltaTime * MINIMUM_STEPS_PER_ORBIT * factor &&
+					isIsolated(index, candidate, apoapsides[index], MAXIMUM_TIDAL_RATIO * factor)) {
+
+				pairs.add(index);
+			}
+		}
+
+		pairs.sort(comparingDouble(index -> periods[index]));
+
+		for (var index : pairs) {
+
+			var candidate = candidates[index];
+
+			if (partners[index] == NONE && partners[candidate] == NONE) {
+
+				partners[index] = candidate;
+				partners[candidate] = index;
+			}
+		}
+	}
+
+	/**
+	 * @param index0 index of the first body of a pair
+	 * @param index1 index of the second body of the pair
+	 * @param apoapsis distance between the bodies at apoapsis, in meters
+	 * @param maximumTidalRatio maximum ratio between the tidal acceleration of another body and the attraction
+	 * between the two bodies
+	 * @return whether the tidal acceleration of every other body is small enough, at apoapsis
+	 * @since 0.0.0
+	 */
+	private boolean isIsolated(int index0, int index1, double apoapsis, double maximumTidalRatio) {
+
+		var bodies = getBodies();
+		var body0 = bodies.get(index0);
+		var body1 = bodies.get(index1);
+		var mass0 = body0.getMass();
+		var mass1 = body1.getMass();
+		var mass = mass0 + mass1;
+
+		var center = body0.getPosition().times(mass0).plus(body1.getPosition().times(mass1)).divide(mass);
+		var attraction = mass / (apoapsis * apoapsis);
+		var isolated = true;
+
+		for (var index = 0; isolated && index < bodies.size(); index++) {
+
+			if (index != index0 && index != index1) {
+
+				var body = bodies.get(index);
+				var distance = body.getPosition().minus(center).magnitude();
+				var tide = 2 * body.getMass() * apoapsis / (distance * distance * distance);
+				isolated = tide < maximumTidalRatio * attraction;
+			}
+		}
+
+		return isolated;
+	}
+
+	/**
+	 * @param gravitationalParameter gravitational parameter of a pair, in m<sup>3</sup> s<sup>-2</sup>
+	 * @param distance distance between the bodies, in meters
+	 * @param squaredSpeed squared relative speed, in m<sup>2</sup> s<sup>-2</sup>
+	 * @return orbital period of the pair, in seconds, {@link Double#NaN} if the pair is not bound
+	 * @since 0.0.0
+	 */
+	private static double getPeriod(double gravitationalParameter, double distance, double squaredSpeed) {
+
+		var energy = squaredSpeed / 2 - gravitationalParameter / distance;
+
+		if (energy < 0) {
+
+			var semiMajorAxis = -gravitationalParameter / (2 * energy);
+			return 2 * PI * sqrt(semiMajorAxis * semiMajorAxis * semiMajorAxis / gravitationalParameter);
+
+		} else {
+
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * @param gravitationalParameter gravitational parameter of a bound pair, in m<sup>3</sup> s<sup>-2</sup>
+	 * @param relativePosition relative position of the bodies, in meters
+	 * @param relativeVelocity relative velocity of the bodies, in meters per second
+	 * @return distance between the bodies at apoapsis, in meters
+	 * @since 0.0.0
+	 */
+	private static double getApoapsis(double gravitationalParameter, Vector2 relativePosition,
+			Vector2 relativeVelocity) {
+
+		var distance = relativePosition.magnitude();
+		var energy = relativeVelocity.squaredMagnitude() / 2 - gravitationalParameter / distance;
+		var semiMajorAxis = -gravitationalParameter / (2 * energy);
+
+		var angularMomentum = relativePosition.getX() * relativeVelocity.getY() -
+				relativePosition.getY() * relativeVelocity.getX();
+
+		var squaredEccentricity = 1 - angularMomentum * angularMomentum / (gravitationalParameter * semiMajorAxis);
+		return semiMajorAxis * (1 + sqrt(max(0, squaredEccentricity)));
+	}
+
+	/**
+	 * Allocates the arrays of the composite bodies.
+	 *
+	 * @param capacity maximum number of composite bodies
+	 * @since 0.0.0
+	 */
+	private void allocate(int capacity) {
+
+		firstIndices = new int[capacity];
+		secondIndices = new int[capacity];
+		masses = new double[capacity];
+		positionsX = new double[capacity];
+		positionsY = new double[capacity];
+		accelerationsX = new double[capacity];
+		accelerationsY = new double[capacity];
+		tidesXX = new double[capacity];
+		tidesXY = new double[capacity];
+		tidesYY = new double[capacity];
+	}
+
+	/**
+	 * @param body body of this universe
+	 * @return body with which the given body forms a pair, {@code null} if it is integrated alone
+	 * @since 0.0.0
+	 */
+	public Body getPartner(Body body) {
+
+		var bodies = getBodies();
+		var index = bodies.indexOf(body);
+
+		return index < partners.length && index != NONE && partners[index] != NONE ?
+				bodies.get(partners[index]) :
+				null;
+	}
+
+	/**
+	 * @return number of doubles needed to save the states of the bodies and the state of the detection
+	 * @since 0.0.0
+	 */
+	@Override
+	public int getStateLength() {
+		return super.getStateLength() + 2 + getBodies().size();
+	}
+
+	/**
+	 * Saves the states of the bodies, then the state of the detection: updates before the next detection, longest
+	 * update since the previous one and partner of each body.
+	 *
+	 * @param states array in which to save the states
+	 * @param offset index of the first double to write
+	 * @since 0.0.0
+	 */
+	@Override
+	public void saveState(double[] states, int offset) {
+
+		super.saveState(states, offset);
+		offset += super.getStateLength();
+
+		var bodyCount = getBodies().size();
+
+		// pairs detected for other bodies are detected again at the next update, as they would be
+		var detected = partners.length == bodyCount;
+
+		states[offset++] = detected ? updatesBeforeDetection : 0;
+		states[offset++] = maximumDeltaTime;
+
+		for (var index = 0; index < bodyCount; index++) {
+			states[offset++] = detected ? partners[index] : NONE;
+		}
+	}
+
+	/**
+	 * Restores the states of the bodies and the state of the detection, as saved by
+	 * {@link #saveState(double[], int)}.
+	 *
+	 * @param states array from which to restore the states
+	 * @param offset index of the first double to read
+	 * @since 0.0.0
+	 */
+	@Override
+	public void restoreState(double[] states, int offset) {
+
+		super.restoreState(states, offset);
+		offset += super.getStateLength();
+
+		var bodyCount = getBodies().size();
+
+		updatesBeforeDetection = (int) states[offset++];
+		maximumDeltaTime = states[offset++];
+
+		if (partners.length != bodyCount) {
+			partners = new int[bodyCount];
+		}
+
+		for (var index = 0; index < bodyCount; index++) {
+			partners[index] = (int) states[offset++];
+		}
+	}
+
+	/**
+	 * @return number of interactions computed during the last update: pairs of composite bodies, plus sub-steps
+	 * @since 0.0.0
+	 */
+	@Override
+	public long getInteractionCount() {
+		return interactionCount;
+	}
+}
@@ -0,0 +1,277 @@
+package com.github.achaaab.gravity_simulator;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Advances a universe and records periodic keyframes, so that it can be rewound to any past time. Each keyframe is
+ * the simulation time, the duration and maximum update duration of the following advances, plus the state of the
+ * universe, as saved by {@link AbstractUniverseModel#saveState(double[], int)}, in a single preallocated array.
+ * Keyframes are kept in a ring buffer sized from a memory budget: when it is full, the oldest keyframe is overwritten.
+ * <p>
+ * A keyframe is recorded before an advance whose durations differ from the ones of the last keyframe, so that all the
+ * advances between two keyframes are the same. Rewinding restores the nearest preceding keyframe and replays these
+ * advances up to the requested time: the universe goes through the exact same updates as it did, and reaches the
+ * exact same states. Update listeners are muted during the replay, event detectors and diagnostics are suspended.
+ * <p>
+ * Keyframes are only valid for a fixed set of bodies: they are discarded if the state length changes.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class KeyframeRecorder {
+
+	/**
+	 * relative tolerance on the time of the advances, for rounding errors
+	 */
+	private static final double TIME_TOLERANCE = 1.0E-9;
+
+	private final AbstractUniverseModel model;
+	private final double keyframeInterval;
+	private final long memoryBudget;
+
+	private int stateLength;
+	private int capacity;
+	private double[] times;
+	private double[] durations;
+	private double[] maximumDeltaTimes;
+	private double[] states;
+
+	private int firstIndex;
+	private int keyframeCount;
+	private boolean keyframeNeeded;
+
+	/**
+	 * @param model universe to record
+	 * @param keyframeInterval minimum simulation time between 2 keyframes, in seconds
+	 * @param memoryBudget maximum size of the keyframes, in bytes
+	 * @since 0.0.0
+	 */
+	public KeyframeRecorder(AbstractUniverseModel model, double keyframeInterval, long memoryBudget) {
+
+		this.model = model;
+		this.keyframeInterval = keyframeInterval;
+		this.memoryBudget = memoryBudget;
+
+		stateLength = -1;
+		capacity = 0;
+		times = new double[0];
+		durations = new double[0];
+		maximumDeltaTimes = new double[0];
+		states = new double[0];
+		keyframeNeeded = true;
+	}
+
+	/**
+	 * Advances the universe, as {@link UniverseModel#advance(double, double)} does, recording a keyframe before
+	 * if the last one is older than the keyframe interval or was followed by other durations.
+	 *
+	 * @param duration amount of time to advance, in seconds
+	 * @param maximumDeltaTime maximum duration of an update, in seconds
+	 * @return number of updates
+	 * @since 0.0.0
+	 */
+	public int advance(double duration, double maximumDeltaTime) {
+
+		record(duration, maximumDeltaTime);
+		return model.advance(duration, maximumDeltaTime);
+	}
+
+	/**
+	 * Records a keyframe if needed before an advance.
+	 *
+	 * @param duration duration of the advance, in seconds
+	 * @param maximumDeltaTime maximum duration of an update, in seconds
+	 * @return whether a keyframe was recorded
+	 * @since 0.0.0
+	 */
+	private boolean record(double duration, double maximumDeltaTime) {
+
+		var modelStateLength = model.getStateLength();
+
+		if (modelStateLength != stateLength) {
+			allocate(modelStateLength);
+		}
+
+		var time = model.getTime();
+
+		if (!keyframeNeeded && keyframeCount > 0) {
+
+			var lastIndex = (firstIndex + keyframeCount - 1) % capacity;
+
+			if (time < times[lastIndex] + keyframeInterval &&
+					duration == durations[lastIndex] &&
+					maximumDeltaTime == maximumDeltaTimes[lastIndex]) {
+
+				return false;
+			}
+		}
+
+		if (keyframeCount == capacity) {
+
+			firstIndex = (firstIndex + 1) % capacity;
+			keyframeCount--;
+		}
+
+		var index = (firstIndex + keyframeCount) % capacity;
+		model.saveState(states, index * stateLength);
+
+		times[index] = time;
+		durations[index] = duration;
+		maximumDeltaTimes[index] = maximumDeltaTime;
+		keyframeCount++;
+		keyframeNeeded = false;
+
+		return true;
+	}
+
+	/**
+	 * Rewinds the universe to a past time. Restores the latest keyframe preceding the given time, then replays the
+	 * recorded advances up to the given time. If the given time is not at the end of an advance, the replay ends with a
+	 * shorter advance. Keyframes following the restored one are discarded, since the universe now diverges from the
+	 * recorded history.
+	 *
+	 * @param time simulation time to rewind to, in seconds, clamped to the oldest keyframe
+	 * @return number of updates needed to replay the gap, 0 if there is no keyframe
+	 * @since 0.0.0
+	 */
+	public int rewind(double time) {
+
+		if (keyframeCount == 0 || model.getStateLength() != stateLength) {
+			return 0;
+		}
+
+		var keyframe = max(0, findKeyframe(time));
+		var index = (firstIndex + keyframe) % capacity;
+		restore(index);
+		keyframeCount = keyframe + 1;
+
+		var duration = durations[index];
+		var maximumDeltaTime = maximumDeltaTimes[index];
+		var tolerance = duration * TIME_TOLERANCE;
+		var stepCount = 0;
+
+		model.setUpdateListenersMuted(true);
+		model.setReplaying(true);
+
+		try {
+
+			while (duration > 0 && model.getTime() + duration <= time + tolerance) {
+				stepCount += model.advance(duration, maximumDeltaTime);
+			}
+
+			var remainingDuration = time - model.getTime();
+
+			if (remainingDuration > tolerance) {
+
+				stepCount += model.advance(remainingDuration, maximumDeltaTime);
+
+				// the next advances do not follow the ones of the restored keyframe
+				keyframeNeeded = true;
+			}
+
+		} finally {
+
+			model.setUpdateListenersMuted(false);
+			model.setReplaying(false);
+		}
+
+		return stepCount;
+	}
+
+	/**
+	 * @return number of kept keyframes
+	 * @since 0.0.0
+	 */
+	public int getKeyframeCount() {
+		return keyframeCount;
+	}
+
+	/**
+	 * @return maximum number of keyframes fitting in the memory budget, for the current state length
+	 * @since 0.0.0
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return simulation time of the oldest kept keyframe, in seconds, {@link Double#NaN} if there is no keyframe
+	 * @since 0.0.0
+	 */
+	public double getOldestTime() {
+		return keyframeCount == 0 ? Double.NaN : getKeyframeTime(0);
+	}
+
+	/**
+	 * @param keyframe index of the keyframe, 0 being the oldest kept keyframe
+	 * @return simulation time of the keyframe, in seconds
+	 * @since 0.0.0
+	 */
+	public double getKeyframeTime(int keyframe) {
+		return times[(firstIndex + keyframe) % capacity];
+	}
+
+	/**
+	 * Restores the bodies and the time of the universe from a keyframe.
+	 *
+	 * @param index index of the keyframe in the ring buffer
+	 * @since 0.0.0
+	 */
+	private void restore(int index) {
+
+		model.restoreState(states, index * stateLength);
+
+		model.setTime(times[index]);
+	}
+
+	/**
+	 * Finds the latest keyframe preceding a time, by binary search.
+	 *
+	 * @param time simulation time, in seconds
+	 * @return index of the latest keyframe whose time is lower or equal to the given time,
+	 * -1 if all keyframes are later
+	 * @since 0.0.0
+	 */
+	private int findKeyframe(double time) {
+
+		var low = 0;
+		var high = keyframeCount - 1;
+
+		while (low <= high) {
+
+			var middle = (low + high) >>> 1;
+
+			if (getKeyframeTime(middle) <= time) {
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+
+		return high;
+	}
+
+	/**
+	 * Allocates the ring buffer for a state length, discarding all keyframes.
+	 *
+	 * @param stateLength number of doubles per keyframe, excluding time and durations
+	 * @since 0.0.0
+	 */
+	private void allocate(int stateLength) {
+
+		this.stateLength = stateLength;
+
+		var keyframeSize = (stateLength + 3) * (long) Double.BYTES;
+		var maximumCapacity = (Integer.MAX_VALUE - 8) / max(1, stateLength);
+		capacity = (int) max(1, min(maximumCapacity, memoryBudget / keyframeSize));
+
+		times = new double[capacity];
+		durations = new double[capacity];
+		maximumDeltaTimes = new double[capacity];
+		states = new double[capacity * stateLength];
+
+		firstIndex = 0;
+		keyframeCount = 0;
+	}
+}
@@ -0,0 +1,70 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.util.List;
+
+import static com.github.achaaab.gravity_simulator.UniverseModel.G;
+import static java.lang.Math.sqrt;
+
+/**
+ * Gravity perturbation due to the oblateness of a body, given by its J<sub>2</sub> coefficient. The equatorial plane
+ * of the oblate body is the plane of the simulation, so the perturbation is radial and adds to the Newtonian
+ * attraction:
+ * <pre>
+ * a = -3/2 J2 GM R² / r⁴</pre>
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class OblatenessTerm implements BodyForceTerm {
+
+	private final Body oblateBody;
+	private final double j2;
+
+	private int oblateIndex;
+
+	/**
+	 * @param oblateBody oblate body, its radius is used as equatorial radius
+	 * @param j2 second zonal harmonic coefficient of the oblate body (1.0826E-3 for the earth)
+	 * @since 0.0.0
+	 */
+	public OblatenessTerm(Body oblateBody, double j2) {
+
+		this.oblateBody = oblateBody;
+		this.j2 = j2;
+
+		oblateIndex = -1;
+	}
+
+	@Override
+	public void prepare(List<Body> bodies) {
+		oblateIndex = bodies.indexOf(oblateBody);
+	}
+
+	@Override
+	public void addForces(Body body, int index, double[] forcesX, double[] forcesY) {
+
+		if (oblateIndex == -1 || index == oblateIndex) {
+			return;
+		}
+
+		var oblatePosition = oblateBody.getPosition();
+		var position = body.getPosition();
+		var deltaX = position.getX() - oblatePosition.getX();
+		var deltaY = position.getY() - oblatePosition.getY();
+
+		var squaredDistance = deltaX * deltaX + deltaY * deltaY;
+		var distance = sqrt(squaredDistance);
+		var radius = oblateBody.getRadius();
+
+		var factor = -1.5 * j2 * G * oblateBody.getMass() * body.getMass() * radius * radius /
+				(squaredDistance * squaredDistance * distance);
+
+		var forceX = factor * deltaX;
+		var forceY = factor * deltaY;
+
+		forcesX[index] += forceX;
+		forcesY[index] += forceY;
+		forcesX[oblateIndex] -= forceX;
+		forcesY[oblateIndex] -= forceY;
+	}
+}
@@ -0,0 +1,206 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.util.stream.IntStream;
+
+import static com.github.achaaab.gravity_simulator.UniverseModel.G;
+import static java.lang.Math.PI;
+import static java.lang.Math.abs;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+import static java.lang.Math.sqrt;
+
+/**
+ * Orbital elements of many bodies orbiting a same primary body, stored as one array per element.
+ * Angles are measured from the x axis towards the y axis. Prograde orbits revolve in the same direction as
+ * prograde {@link EllipticOrbit}s: with an argument of periapsis of π and a mean anomaly of π, a body is placed
+ * at its apoapsis on the +x axis, exactly as {@link UniverseModel#addOrbitingBody(EllipticOrbit)} would place it.
+ *
+ * @param semiMajorAxes semi-major axes, in meters
+ * @param eccentricities eccentricities, in [0, 1[
+ * @param argumentsOfPeriapsis angles between the x axis and the periapsis, in radians
+ * @param meanAnomalies mean anomalies at the initial time, in radians
+ * @param prograde {@code true} for prograde orbits, {@code false} for retrograde orbits
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public record OrbitalElements(
+
+		double[] semiMajorAxes,
+		double[] eccentricities,
+		double[] argumentsOfPeriapsis,
+		double[] meanAnomalies,
+		boolean[] prograde) {
+
+	/**
+	 * maximum number of Newton iterations when solving Kepler's equation
+	 */
+	private static final int MAXIMUM_ITERATION_COUNT = 64;
+
+	/**
+	 * tolerance on the eccentric anomaly when solving Kepler's equation, in radians
+	 */
+	private static final double TOLERANCE = 1.0E-14;
+
+	/**
+	 * @throws IllegalArgumentException if the arrays do not have the same length, if a semi-major axis is not positive
+	 * and finite, if an eccentricity is not in [0, 1[ or if an angle is not finite
+	 * @since 0.0.0
+	 */
+	public OrbitalElements {
+
+		var size = semiMajorAxes.length;
+
+		if (eccentricities.length != size ||
+				argumentsOfPeriapsis.length != size ||
+				meanAnomalies.length != size ||
+				prograde.length != size) {
+
+			throw new IllegalArgumentException("all orbital elements must have the same length");
+		}
+
+		for (var index = 0; index < size; index++) {
+
+			var semiMajorAxis = semiMajorAxes[index];
+			var eccentricity = eccentricities[index];
+
+			if (!(semiMajorAxis > 0) || semiMajorAxis == Double.POSITIVE_INFINITY) {
+				throw new IllegalArgumentException("invalid semi-major axis of orbit " + index + ": " + semiMajorAxis);
+			}
+
+			if (!(eccentricity >= 0 && eccentricity < 1)) {
+				throw new IllegalArgumentException("invalid eccentricity of orbit " + index + ": " + eccentricity);
+			}
+
+			if (!Double.isFinite(argumentsOfPeriapsis[index]) || !Double.isFinite(meanAnomalies[index])) {
+				throw new IllegalArgumentException("invalid angle of orbit " + index);
+			}
+		}
+	}
+
+	/**
+	 * @return number of orbits
+	 * @since 0.0.0
+	 */
+	public int size() {
+		return semiMajorAxes.length;
+	}
+
+	/**
+	 * Places the secondary bodies on their orbits around the primary body, in parallel. Positions and velocities
+	 * are relative to the current position and velocity of the primary body.
+	 *
+	 * @param primaryBody primary body
+	 * @param secondaryBodies secondary bodies, one per orbit
+	 * @throws IllegalArgumentException if there is not exactly one secondary body per orbit
+	 * @since 0.0.0
+	 */
+	public void place(Body primaryBody, Body[] secondaryBodies) {
+		place(primaryBody.getMass(), primaryBody.getPosition(), primaryBody.getVelocity(), secondaryBodies);
+	}
+
+	/**
+	 * Places the secondary bodies on their orbits around a primary body at rest at the origin, in parallel. Positions
+	 * and velocities are then relative to the primary body.
+	 *
+	 * @param primaryMass mass of the primary body, in kilograms
+	 * @param secondaryBodies secondary bodies, one per orbit
+	 * @throws IllegalArgumentException if there is not exactly one secondary body per orbit
+	 * @since 0.0.0
+	 */
+	public void place(double primaryMass, Body[] secondaryBodies) {
+		place(primaryMass, new Vector2(), new Vector2(), secondaryBodies);
+	}
+
+	/**
+	 * Places the secondary bodies on their orbits around a primary body, in parallel.
+	 *
+	 * @param primaryMass mass of the primary body, in kilograms
+	 * @param primaryPosition position of the primary body, in meters
+	 * @param primaryVelocity velocity of the primary body, in meters per second
+	 * @param secondaryBodies secondary bodies, one per orbit
+	 * @throws IllegalArgumentException if there is not exactly one secondary body per orbit
+	 * @since 0.0.0
+	 */
+	private void place(double primaryMass, Vector2 primaryPosition, Vector2 primaryVelocity, Body[] secondaryBodies) {
+
+		var size = size();
+
+		if (secondaryBodies.length != size) {
+			throw new IllegalArgumentException("expected " + size + " secondary bodies");
+		}
+
+		var standardGravitationalParameter = G * primaryMass;
+		var primaryX = primaryPosition.getX();
+		var primaryY = primaryPosition.getY();
+		var primaryVelocityX = primaryVelocity.getX();
+		var primaryVelocityY = primaryVelocity.getY();
+
+		IntStream.range(0, size).parallel().forEach(index -> {
+
+			var semiMajorAxis = semiMajorAxes[index];
+			var eccentricity = eccentricities[index];
+			var direction = prograde[index] ? -1 : 1;
+
+			var eccentricAnomaly = solveKeplerEquation(meanAnomalies[index], eccentricity);
+			var cosE = cos(eccentricAnomaly);
+			var sinE = sin(eccentricAnomaly);
+			var ratio = sqrt(1 - eccentricity * eccentricity);
+
+			// position and velocity in the perifocal frame, with periapsis on the x axis
+			var distance = semiMajorAxis * (1 - eccentricity * cosE);
+			var factor = sqrt(standardGravitationalParameter * semiMajorAxis) / distance;
+			var x = semiMajorAxis * (cosE - eccentricity);
+			var y = direction * semiMajorAxis * ratio * sinE;
+			var velocityX = -factor * sinE;
+			var velocityY = direction * factor * ratio * cosE;
+
+			// rotation by the argument of periapsis
+			var argumentOfPeriapsis = argumentsOfPeriapsis[index];
+			var cosW = cos(argumentOfPeriapsis);
+			var sinW = sin(argumentOfPeriapsis);
+
+			var secondaryBody = secondaryBodies[index];
+
+			secondaryBody.setPosition(new Vector2(
+					primaryX + x * cosW - y * sinW,
+					primaryY + x * sinW + y * cosW));
+
+			secondaryBody.setVelocity(new Vector2(
+					primaryVelocityX + velocityX * cosW - velocityY * sinW,
+					primaryVelocityY + velocityX * sinW + velocityY * cosW));
+		});
+	}
+
+	/**
+	 * Solves Kepler's equation {@code M = E - e sin(E)} with Newton's method.
+	 *
+	 * @param meanAnomaly mean anomaly M, in radians
+	 * @param eccentricity eccentricity e, in [0, 1[
+	 * @return eccentric anomaly E, in radians
+	 * @since 0.0.0
+	 */
+	public static double solveKeplerEquation(double meanAnomaly, double eccentricity) {
+
+		var reducedMeanAnomaly = meanAnomaly % (2 * PI);
+
+		if (reducedMeanAnomaly < 0) {
+			reducedMeanAnomaly += 2 * PI;
+		}
+
+		// starting at π converges for any eccentricity, starting at M is faster for low eccentricities
+		var eccentricAnomaly = eccentricity < 0.8 ? reducedMeanAnomaly : PI;
+
+		for (var iteration = 0; iteration < MAXIMUM_ITERATION_COUNT; iteration++) {
+
+			var error = eccentricAnomaly - eccentricity * sin(eccentricAnomaly) - reducedMeanAnomaly;
+			var correction = error / (1 - eccentricity * cos(eccentricAnomaly));
+			eccentricAnomaly -= correction;
+
+			if (abs(correction) < TOLERANCE) {
+				break;
+			}
+		}
+
+		return eccentricAnomaly;
+	}
+}
@@ -0,0 +1,28 @@
+package com.github.achaaab.gravity_simulator;
+
+/**
+ * force term evaluated for each pair of bodies, in the same loop as Newtonian gravity
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public interface PairForceTerm extends ForceTerm {
+
+	/**
+	 * Adds the forces exerted by this term between 2 bodies.
+	 *
+	 * @param body0 first body
+	 * @param body1 second body
+	 * @param index0 index of the first body in the force arrays
+	 * @param index1 index of the second body in the force arrays
+	 * @param deltaX position of the second body relatively to the first one on x axis, in meters
+	 * @param deltaY position of the second body relatively to the first one on y axis, in meters
+	 * @param distance distance between the bodies, in meters
+	 * @param forcesX resulting forces on x axis, in newtons
+	 * @param forcesY resulting forces on y axis, in newtons
+	 * @since 0.0.0
+	 */
+	void addForces(Body body0, Body body1, int index0, int index1,
+			double deltaX, double deltaY, double distance,
+			double[] forcesX, double[] forcesY);
+}
@@ -0,0 +1,222 @@
+package com.github.achaaab.gravity_simulator;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.sort;
+
+/**
+ * Monitors the recent frames of a simulation: steps per second, interactions per second, frame time percentiles
+ * and dropped frames. Frames are kept in fixed-size primitive ring buffers so that monitoring does not allocate.
+ * When disabled, recording a frame is a single volatile read, without locking.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class PerformanceMonitor implements PerformanceMonitorMBean {
+
+	/**
+	 * JMX object name under which monitors are registered
+	 */
+	public static final String OBJECT_NAME = "com.github.achaaab.gravity_simulator:type=PerformanceMonitor";
+
+	/**
+	 * number of recent frames on which statistics are computed
+	 */
+	private static final int WINDOW_SIZE = 600;
+
+	private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+	private static final double NANOSECONDS_PER_SECOND = 1_000_000_000.0;
+
+	private final long frameBudget;
+	private final long[] frameEnds;
+	private final long[] frameTimes;
+	private final int[] stepCounts;
+	private final long[] interactionCounts;
+	private final long[] sortedFrameTimes;
+
+	private volatile boolean enabled;
+	private int frameIndex;
+	private int windowFrameCount;
+	private long frameCount;
+	private long droppedFrameCount;
+
+	/**
+	 * Creates a disabled performance monitor.
+	 *
+	 * @param frameBudget maximum duration of a frame, in nanoseconds, frames taking longer are counted as dropped
+	 * @since 0.0.0
+	 */
+	public PerformanceMonitor(long frameBudget) {
+
+		this.frameBudget = frameBudget;
+
+		frameEnds = new long[WINDOW_SIZE];
+		frameTimes = new long[WINDOW_SIZE];
+		stepCounts = new int[WINDOW_SIZE];
+		interactionCounts = new long[WINDOW_SIZE];
+		sortedFrameTimes = new long[WINDOW_SIZE];
+
+		enabled = false;
+	}
+
+	/**
+	 * Registers this monitor in the platform MBean server.
+	 *
+	 * @throws JMException if this monitor could not be registered
+	 * @since 0.0.0
+	 */
+	public void register() throws JMException {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+	}
+
+	/**
+	 * Records a frame. Does nothing if this monitor is disabled.
+	 *
+	 * @param frameEnd time at which the frame ended, as given by {@link System#nanoTime()}
+	 * @param frameTime duration of the frame, in nanoseconds
+	 * @param stepCount number of universe updates during the frame
+	 * @param interactionCount number of pair interactions computed during the frame
+	 * @since 0.0.0
+	 */
+	public void recordFrame(long frameEnd, long frameTime, int stepCount, long interactionCount) {
+
+		if (enabled) {
+			record(frameEnd, frameTime, stepCount, interactionCount);
+		}
+	}
+
+	/**
+	 * Records a frame in the ring buffers.
+	 *
+	 * @param frameEnd time at which the frame ended, as given by {@link System#nanoTime()}
+	 * @param frameTime duration of the frame, in nanoseconds
+	 * @param stepCount number of universe updates during the frame
+	 * @param interactionCount number of pair interactions computed during the frame
+	 * @since 0.0.0
+	 */
+	private synchronized void record(long frameEnd, long frameTime, int stepCount, long interactionCount) {
+
+		frameEnds[frameIndex] = frameEnd;
+		frameTimes[frameIndex] = frameTime;
+		stepCounts[frameIndex] = stepCount;
+		interactionCounts[frameIndex] = interactionCount;
+
+		frameIndex = (frameIndex + 1) % WINDOW_SIZE;
+		windowFrameCount = min(windowFrameCount + 1, WINDOW_SIZE);
+		frameCount++;
+
+		if (frameTime > frameBudget) {
+			droppedFrameCount++;
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public synchronized double getStepsPerSecond() {
+
+		var stepCount = 0L;
+
+		for (var index = 0; index < windowFrameCount; index++) {
+			stepCount += stepCounts[index];
+		}
+
+		return stepCount / getWindowDuration();
+	}
+
+	@Override
+	public synchronized double getInteractionsPerSecond() {
+
+		var interactionCount = 0L;
+
+		for (var index = 0; index < windowFrameCount; index++) {
+			interactionCount += interactionCounts[index];
+		}
+
+		return interactionCount / getWindowDuration();
+	}
+
+	@Override
+	public double getFrameTimeMedian() {
+		return getFrameTimePercentile(50);
+	}
+
+	@Override
+	public double getFrameTime95thPercentile() {
+		return getFrameTimePercentile(95);
+	}
+
+	@Override
+	public double getFrameTime99thPercentile() {
+		return getFrameTimePercentile(99);
+	}
+
+	@Override
+	public synchronized long getFrameCount() {
+		return frameCount;
+	}
+
+	@Override
+	public synchronized long getDroppedFrameCount() {
+		return droppedFrameCount;
+	}
+
+	@Override
+	public synchronized void reset() {
+
+		frameIndex = 0;
+		windowFrameCount = 0;
+		frameCount = 0;
+		droppedFrameCount = 0;
+	}
+
+	/**
+	 * Computes a percentile of the recent frame times, using the nearest-rank method.
+	 *
+	 * @param percentile percentile to compute, in [0, 100]
+	 * @return frame time percentile in milliseconds, {@link Double#NaN} if no frame was recorded
+	 * @since 0.0.0
+	 */
+	public synchronized double getFrameTimePercentile(double percentile) {
+
+		if (windowFrameCount == 0) {
+			return Double.NaN;
+		}
+
+		System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, windowFrameCount);
+		sort(sortedFrameTimes, 0, windowFrameCount);
+
+		var rank = max(1, (int) ceil(percentile / 100 * windowFrameCount));
+		return sortedFrameTimes[rank - 1] / NANOSECONDS_PER_MILLISECOND;
+	}
+
+	/**
+	 * @return wall-clock duration covered by the recent frames, in seconds
+	 * @since 0.0.0
+	 */
+	private double getWindowDuration() {
+
+		if (windowFrameCount == 0) {
+			return Double.NaN;
+		}
+
+		var lastIndex = (frameIndex - 1 + WINDOW_SIZE) % WINDOW_SIZE;
+		var firstIndex = (frameIndex - windowFrameCount + WINDOW_SIZE) % WINDOW_SIZE;
+		var firstFrameStart = frameEnds[firstIndex] - frameTimes[firstIndex];
+
+		return (frameEnds[lastIndex] - firstFrameStart) / NANOSECONDS_PER_SECOND;
+	}
+}
@@ -0,0 +1,71 @@
+package com.github.achaaab.gravity_simulator;
+
+/**
+ * JMX management interface of {@link PerformanceMonitor}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public interface PerformanceMonitorMBean {
+
+	/**
+	 * @return {@code true} if frames are currently monitored
+	 * @since 0.0.0
+	 */
+	boolean isEnabled();
+
+	/**
+	 * @param enabled {@code true} to monitor frames, {@code false} to stop monitoring them
+	 * @since 0.0.0
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return number of universe updates per second, over the recent frames
+	 * @since 0.0.0
+	 */
+	double getStepsPerSecond();
+
+	/**
+	 * @return number of pair interactions computed per second, over the recent frames
+	 * @since 0.0.0
+	 */
+	double getInteractionsPerSecond();
+
+	/**
+	 * @return median frame time over the recent frames, in milliseconds
+	 * @since 0.0.0
+	 */
+	double getFrameTimeMedian();
+
+	/**
+	 * @return 95th percentile of frame time over the recent frames, in milliseconds
+	 * @since 0.0.0
+	 */
+	double getFrameTime95thPercentile();
+
+	/**
+	 * @return 99th percentile of frame time over the recent frames, in milliseconds
+	 * @since 0.0.0
+	 */
+	double getFrameTime99thPercentile();
+
+	/**
+	 * @return number of monitored frames
+	 * @since 0.0.0
+	 */
+	long getFrameCount();
+
+	/**
+	 * @return number of monitored frames that took longer than the frame budget
+	 * @since 0.0.0
+	 */
+	long getDroppedFrameCount();
+
+	/**
+	 * Forgets all monitored frames.
+	 *
+	 * @since 0.0.0
+	 */
+	void reset();
+}
@@ -0,0 +1,299 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.util.List;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.floor;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.fill;
+
+/**
+ * Screen-space index of the drawn bodies, to find the body under the mouse pointer. The screen is divided in square
+ * cells, each cell holding a doubly linked list of the bodies drawn in it. Lists are stored in primitive arrays
+ * (one head per cell, one next and one previous index per body), so the index does not allocate once sized.
+ * Updates are incremental: only the bodies that moved to another cell are unlinked and relinked. Bodies drawn outside
+ * the screen are not indexed.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class PickingIndex {
+
+	private static final int NONE = -1;
+
+	private final double cellSize;
+
+	private double width;
+	private double height;
+	private int columnCount;
+	private int rowCount;
+	private int[] heads;
+
+	private int bodyCount;
+	private double[] screenX;
+	private double[] screenY;
+	private int[] cells;
+	private int[] nexts;
+	private int[] previouses;
+
+	private int relinkCount;
+	private int visitedCount;
+
+	/**
+	 * @param cellSize size of a cell, in pixels, about the picking radius
+	 * @since 0.0.0
+	 */
+	public PickingIndex(double cellSize) {
+
+		this.cellSize = cellSize;
+
+		width = 0;
+		height = 0;
+		columnCount = 0;
+		rowCount = 0;
+		heads = new int[0];
+
+		allocate(0);
+	}
+
+	/**
+	 * Updates the screen positions of the bodies, with the same transformation as the view:
+	 * {@code screen = origin + position * scale}.
+	 *
+	 * @param bodies drawn bodies, always in the same order
+	 * @param width width of the screen, in pixels
+	 * @param height height of the screen, in pixels
+	 * @param originX screen abscissa of the universe origin, in pixels
+	 * @param originY screen ordinate of the universe origin, in pixels
+	 * @param scale display scale, in pixels per meter
+	 * @since 0.0.0
+	 */
+	public void update(List<Body> bodies, double width, double height, double originX, double originY, double scale) {
+
+		if (width != this.width || height != this.height) {
+			resize(width, height);
+		}
+
+		var size = bodies.size();
+
+		if (size != bodyCount) {
+
+			allocate(size);
+			fill(heads, NONE);
+		}
+
+		relinkCount = 0;
+
+		for (var index = 0; index < size; index++) {
+
+			var position = bodies.get(index).getPosition();
+			var x = originX + position.getX() * scale;
+			var y = originY + position.getY() * scale;
+
+			screenX[index] = x;
+			screenY[index] = y;
+
+			var cell = getCell(x, y);
+
+			if (cell != cells[index]) {
+
+				unlink(index);
+				link(index, cell);
+				relinkCount++;
+			}
+		}
+	}
+
+	/**
+	 * Finds the nearest body to a screen position.
+	 *
+	 * @param x screen abscissa, in pixels
+	 * @param y screen ordinate, in pixels
+	 * @param radius maximum distance to the body, in pixels
+	 * @return index of the nearest body within the radius, -1 if there is none
+	 * @since 0.0.0
+	 */
+	public int pick(double x, double y, double radius) {
+
+		visitedCount = 0;
+
+		if (columnCount == 0 || rowCount == 0) {
+			return NONE;
+		}
+
+		var minimumColumn = max(0, (int) floor((x - radius) / cellSize));
+		var maximumColumn = min(columnCount - 1, (int) floor((x + radius) / cellSize));
+		var minimumRow = max(0, (int) floor((y - radius) / cellSize));
+		var maximumRow = min(rowCount - 1, (int) floor((y + radius) / cellSize));
+
+		var nearestIndex = NONE;
+		var nearestSquaredDistance = radius * radius;
+
+		for (var row = minimumRow; row <= maximumRow; row++) {
+
+			for (var column = minimumColumn; column <= maximumColumn; column++) {
+
+				for (var index = heads[row * columnCount + column]; index != NONE; index = nexts[index]) {
+
+					visitedCount++;
+
+					var deltaX = screenX[index] - x;
+					var deltaY = screenY[index] - y;
+					var squaredDistance = deltaX * deltaX + deltaY * deltaY;
+
+					if (squaredDistance <= nearestSquaredDistance) {
+
+						nearestIndex = index;
+						nearestSquaredDistance = squaredDistance;
+					}
+				}
+			}
+		}
+
+		return nearestIndex;
+	}
+
+	/**
+	 * @param index index of a body
+	 * @return screen abscissa of the body at the last update, in pixels
+	 * @since 0.0.0
+	 */
+	public double getScreenX(int index) {
+		return screenX[index];
+	}
+
+	/**
+	 * @param index index of a body
+	 * @return screen ordinate of the body at the last update, in pixels
+	 * @since 0.0.0
+	 */
+	public double getScreenY(int index) {
+		return screenY[index];
+	}
+
+	/**
+	 * @return number of bodies that changed cell during the last update
+	 * @since 0.0.0
+	 */
+	public int getRelinkCount() {
+		return relinkCount;
+	}
+
+	/**
+	 * @return number of bodies whose distance was computed during the last pick
+	 * @since 0.0.0
+	 */
+	public int getVisitedCount() {
+		return visitedCount;
+	}
+
+	/**
+	 * @param x screen abscissa, in pixels
+	 * @param y screen ordinate, in pixels
+	 * @return index of the cell containing the position, -1 if the position is outside the screen
+	 * @since 0.0.0
+	 */
+	private int getCell(double x, double y) {
+
+		if (x >= 0 && x < width && y >= 0 && y < height) {
+			return (int) (y / cellSize) * columnCount + (int) (x / cellSize);
+		} else {
+			return NONE;
+		}
+	}
+
+	/**
+	 * Inserts a body at the head of the list of a cell.
+	 *
+	 * @param index index of the body
+	 * @param cell index of the cell, -1 to leave the body out of the index
+	 * @since 0.0.0
+	 */
+	private void link(int index, int cell) {
+
+		cells[index] = cell;
+
+		if (cell != NONE) {
+
+			var head = heads[cell];
+
+			nexts[index] = head;
+			previouses[index] = NONE;
+
+			if (head != NONE) {
+				previouses[head] = index;
+			}
+
+			heads[cell] = index;
+		}
+	}
+
+	/**
+	 * Removes a body from the list of its cell.
+	 *
+	 * @param index index of the body
+	 * @since 0.0.0
+	 */
+	private void unlink(int index) {
+
+		var cell = cells[index];
+
+		if (cell != NONE) {
+
+			var next = nexts[index];
+			var previous = previouses[index];
+
+			if (previous == NONE) {
+				heads[cell] = next;
+			} else {
+				nexts[previous] = next;
+			}
+
+			if (next != NONE) {
+				previouses[next] = previous;
+			}
+
+			cells[index] = NONE;
+		}
+	}
+
+	/**
+	 * Resizes the grid, emptying all cells.
+	 *
+	 * @param width width of the screen, in pixels
+	 * @param height height of the screen, in pixels
+	 * @since 0.0.0
+	 */
+	private void resize(double width, double height) {
+
+		this.width = width;
+		this.height = height;
+
+		columnCount = (int) ceil(width / cellSize);
+		rowCount = (int) ceil(height / cellSize);
+		heads = new int[columnCount * rowCount];
+
+		fill(heads, NONE);
+		fill(cells, NONE);
+	}
+
+	/**
+	 * Allocates the arrays of the bodies, none of them being indexed.
+	 *
+	 * @param bodyCount number of bodies
+	 * @since 0.0.0
+	 */
+	private void allocate(int bodyCount) {
+
+		this.bodyCount = bodyCount;
+
+		screenX = new double[bodyCount];
+		screenY = new double[bodyCount];
+		cells = new int[bodyCount];
+		nexts = new int[bodyCount];
+		previouses = new int[bodyCount];
+
+		fill(cells, NONE);
+	}
+}
@@ -0,0 +1,200 @@
+package com.github.achaaab.gravity_simulator;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.DAYS;
+
+/**
+ * Encodes frames as a sequence of PNG files, {@code frame_000000.png}, {@code frame_000001.png}, etc., on a pool of
+ * worker threads. Frames are numbered in submission order, whatever the order in which workers complete them.
+ * Pixel buffers are pooled: at most {@code maximumPendingFrameCount} frames are waiting or being encoded, acquiring a
+ * buffer waits for a worker to release one. This bounds the memory used when rasterizing is faster than encoding.
+ * Alpha is ignored.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class PngSequenceWriter implements Closeable {
+
+	/**
+	 * format of the file names, from the frame index
+	 */
+	public static final String FILE_NAME_FORMAT = "frame_%06d.png";
+
+	private static final DirectColorModel RGB = new DirectColorModel(24, 0xFF0000, 0x00FF00, 0x0000FF);
+
+	private final Path directory;
+	private final int width;
+	private final int height;
+	private final ExecutorService workers;
+	private final BlockingQueue<int[]> buffers;
+	private final AtomicReference<IOException> failure;
+
+	private int frameCount;
+
+	/**
+	 * @param directory directory in which to write the frames, created if needed
+	 * @param width width of the frames, in pixels
+	 * @param height height of the frames, in pixels
+	 * @param workerCount number of encoding threads
+	 * @param maximumPendingFrameCount maximum number of frames waiting for or being encoded
+	 * @throws IOException if the directory cannot be created
+	 * @since 0.0.0
+	 */
+	public PngSequenceWriter(Path directory, int width, int height, int workerCount, int maximumPendingFrameCount)
+			throws IOException {
+
+		this.directory = Files.createDirectories(directory);
+		this.width = width;
+		this.height = height;
+
+		workers = Executors.newFixedThreadPool(workerCount);
+		buffers = new ArrayBlockingQueue<>(maximumPendingFrameCount);
+
+		for (var index = 0; index < maximumPendingFrameCount; index++) {
+			buffers.add(new int[width * height]);
+		}
+
+		failure = new AtomicReference<>();
+		frameCount = 0;
+	}
+
+	/**
+	 * Waits for a free pixel buffer.
+	 *
+	 * @return pixel buffer to fill with the next frame, one ARGB integer per pixel, row by row
+	 * @throws InterruptedException if interrupted while waiting
+	 * @since 0.0.0
+	 */
+	public int[] acquireBuffer() throws InterruptedException {
+		return buffers.take();
+	}
+
+	/**
+	 * Releases a buffer without submitting it, for example if the frame could not be drawn.
+	 *
+	 * @param pixels buffer acquired with {@link #acquireBuffer()}
+	 * @since 0.0.0
+	 */
+	public void releaseBuffer(int[] pixels) {
+		buffers.add(pixels);
+	}
+
+	/**
+	 * Submits the next frame for encoding. The buffer is released once the frame is written.
+	 *
+	 * @param pixels buffer acquired with {@link #acquireBuffer()}
+	 * @throws IOException if a previous frame could not be written
+	 * @since 0.0.0
+	 */
+	public void submit(int[] pixels) throws IOException {
+
+		checkFailure();
+
+		var path = directory.resolve(format(FILE_NAME_FORMAT, frameCount++));
+
+		workers.execute(() -> {
+
+			try {
+
+				write(pixels, path);
+
+			} catch (IOException exception) {
+
+				failure.compareAndSet(null, exception);
+
+			} catch (RuntimeException exception) {
+
+				failure.compareAndSet(null, new IOException(path + " could not be encoded", exception));
+
+			} finally {
+
+				buffers.add(pixels);
+			}
+		});
+	}
+
+	/**
+	 * Encodes a frame, wrapping the buffer without copying it.
+	 *
+	 * @param pixels pixels of the frame
+	 * @param path path of the PNG file to write
+	 * @throws IOException if the file cannot be written
+	 * @since 0.0.0
+	 */
+	private void write(int[] pixels, Path path) throws IOException {
+
+		var dataBuffer = new DataBufferInt(pixels, pixels.length);
+		var raster = Raster.createPackedRaster(dataBuffer, width, height, width, RGB.getMasks(), null);
+		var image = new BufferedImage(RGB, raster, false, null);
+
+		if (!ImageIO.write(image, "png", path.toFile())) {
+			throw new IOException("no PNG encoder available");
+		}
+	}
+
+	/**
+	 * @return number of submitted frames
+	 * @since 0.0.0
+	 */
+	public int getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * @throws IOException if a frame could not be written
+	 * @since 0.0.0
+	 */
+	private void checkFailure() throws IOException {
+
+		var exception = failure.get();
+
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	/**
+	 * Waits until all submitted frames are written and stops the workers. If interrupted while waiting, the pending
+	 * frames are abandoned.
+	 *
+	 * @throws IOException if a frame could not be written, or if the frames could not be written in time
+	 * @throws InterruptedIOException if interrupted while waiting
+	 * @since 0.0.0
+	 */
+	@Override
+	public void close() throws IOException {
+
+		workers.shutdown();
+
+		try {
+
+			if (!workers.awaitTermination(1, DAYS)) {
+				throw new IOException("frames still being written after 1 day");
+			}
+
+		} catch (InterruptedException interruptedException) {
+
+			workers.shutdownNow();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while writing frames");
+		}
+
+		checkFailure();
+	}
+}
@@ -0,0 +1,56 @@
+package com.github.achaaab.gravity_simulator;
+
+import static com.github.achaaab.gravity_simulator.UniverseModel.G;
+
+/**
+ * First post-Newtonian correction of gravity between 2 bodies, responsible for the relativistic precession of
+ * periapsis (43 arcseconds per century for Mercury). The relative acceleration of the bodies is approximated by
+ * the Schwarzschild test-particle formula, with the sum of their masses as the central mass:
+ * <pre>
+ * a = GM / (c² r³) ((4 GM / r - v²) r + 4 (r · v) v)</pre>
+ * It is applied to the reduced mass of the pair, in opposite directions, so that momentum is conserved.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class PostNewtonianTerm implements PairForceTerm {
+
+	/**
+	 * speed of light in vacuum, in meters per second
+	 */
+	public static final double SPEED_OF_LIGHT = 299_792_458;
+
+	private static final double SQUARED_SPEED_OF_LIGHT = SPEED_OF_LIGHT * SPEED_OF_LIGHT;
+
+	@Override
+	public void addForces(Body body0, Body body1, int index0, int index1,
+			double deltaX, double deltaY, double distance,
+			double[] forcesX, double[] forcesY) {
+
+		var mass0 = body0.getMass();
+		var mass1 = body1.getMass();
+		var totalMass = mass0 + mass1;
+		var standardGravitationalParameter = G * totalMass;
+
+		var velocity0 = body0.getVelocity();
+		var velocity1 = body1.getVelocity();
+		var deltaVelocityX = velocity1.getX() - velocity0.getX();
+		var deltaVelocityY = velocity1.getY() - velocity0.getY();
+
+		var squaredSpeed = deltaVelocityX * deltaVelocityX + deltaVelocityY * deltaVelocityY;
+		var radialProduct = deltaX * deltaVelocityX + deltaY * deltaVelocityY;
+
+		var factor = standardGravitationalParameter / (SQUARED_SPEED_OF_LIGHT * distance * distance * distance);
+		var positionFactor = 4 * standardGravitationalParameter / distance - squaredSpeed;
+		var velocityFactor = 4 * radialProduct;
+
+		var reducedMass = mass0 * mass1 / totalMass;
+		var forceX = reducedMass * factor * (positionFactor * deltaX + velocityFactor * deltaVelocityX);
+		var forceY = reducedMass * factor * (positionFactor * deltaY + velocityFactor * deltaVelocityY);
+
+		forcesX[index1] += forceX;
+		forcesY[index1] += forceY;
+		forcesX[index0] -= forceX;
+		forcesY[index0] -= forceY;
+	}
+}
@@ -0,0 +1,864 @@
+package com.github.achaaab.gravity_simulator;
+
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Loads bodies into a universe from scenario files. Two formats are supported:
+ * <ul>
+ *     <li>CSV, one body per line, with 2 kinds of rows:
+ *     <pre>
+ * body,name,radius,mass,color,x,y,vx,vy
+ * orbit,name,radius,mass,color,primary,apoapsis,periapsis,prograde|retrograde</pre>
+ *     Colors are either hexadecimal ({@code #RRGGBB} or {@code #RRGGBBAA}) or any name accepted by
+ *     {@link Color#web(String)}. Empty lines and lines starting with {@code #} are ignored.
+ *     An orbiting body is placed at the apoapsis of its primary body, as {@link UniverseModel#addOrbitingBody} does,
+ *     so its primary body must appear before it.</li>
+ *     <li>binary, as written by {@link ScenarioWriter}</li>
+ * </ul>
+ * Files are memory-mapped and parsed in parallel, chunk by chunk, directly into primitive columns: no line, field
+ * or row object is created. Bodies are then created in parallel and added to the universe in file order. A loader
+ * can also be sequential, to run on a single thread.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class ScenarioLoader {
+
+	/**
+	 * first 4 bytes of a binary scenario file
+	 */
+	public static final int MAGIC_NUMBER = 0x4753494D;
+
+	/**
+	 * version of the binary scenario format
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * size of the binary header, in bytes: magic number, version, body count and names size
+	 */
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * size of a binary body record, in bytes
+	 */
+	public static final int RECORD_SIZE = 64;
+
+	/**
+	 * kind of a body given by its position and velocity
+	 */
+	public static final byte BODY = 0;
+
+	/**
+	 * kind of a body given by its orbit around a primary body
+	 */
+	public static final byte ORBIT = 1;
+
+	/**
+	 * minimum size of a CSV chunk parsed by a single task, in bytes
+	 */
+	private static final int MINIMUM_CHUNK_SIZE = 1 << 20;
+
+	private static final double[] POWERS_OF_TEN = {
+			1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10,
+			1E11, 1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22 };
+
+	private final AbstractUniverseModel universe;
+	private final boolean parallel;
+
+	/**
+	 * Creates a parallel loader.
+	 *
+	 * @param universe universe in which to load bodies
+	 * @since 0.0.0
+	 */
+	public ScenarioLoader(AbstractUniverseModel universe) {
+		this(universe, true);
+	}
+
+	/**
+	 * @param universe universe in which to load bodies
+	 * @param parallel whether to parse and create bodies on the threads of the common pool, or on the calling
+	 * thread only
+	 * @since 0.0.0
+	 */
+	public ScenarioLoader(AbstractUniverseModel universe, boolean parallel) {
+
+		this.universe = universe;
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Loads a scenario file, binary if its name ends with {@code .gsim}, CSV otherwise.
+	 *
+	 * @param path path of the scenario file
+	 * @return number of loaded bodies
+	 * @throws IOException if an I/O error occurs while reading the file
+	 * @since 0.0.0
+	 */
+	public int load(Path path) throws IOException {
+		return path.toString().endsWith(".gsim") ? loadBinary(path) : loadCsv(path);
+	}
+
+	/**
+	 * Loads a CSV scenario file.
+	 *
+	 * @param path path of the CSV scenario file
+	 * @return number of loaded bodies
+	 * @throws IOException if an I/O error occurs while reading the file
+	 * @throws IllegalArgumentException if the file is malformed
+	 * @since 0.0.0
+	 */
+	public int loadCsv(Path path) throws IOException {
+		return loadCsv(map(path));
+	}
+
+	/**
+	 * Loads a CSV scenario from memory.
+	 *
+	 * @param buffer content of the CSV scenario, from index 0 to its limit
+	 * @return number of loaded bodies
+	 * @throws IllegalArgumentException if the scenario is malformed
+	 * @since 0.0.0
+	 */
+	public int loadCsv(ByteBuffer buffer) {
+
+		var size = buffer.limit();
+
+		var chunkCount = max(1, min(Runtime.getRuntime().availableProcessors() * 4, size / MINIMUM_CHUNK_SIZE));
+		var chunkBounds = new int[chunkCount + 1];
+		chunkBounds[chunkCount] = size;
+
+		for (var chunkIndex = 1; chunkIndex < chunkCount; chunkIndex++) {
+
+			var bound = max(chunkBounds[chunkIndex - 1], (int) ((long) size * chunkIndex / chunkCount));
+
+			while (bound < size && buffer.get(bound - 1) != '\n') {
+				bound++;
+			}
+
+			chunkBounds[chunkIndex] = bound;
+		}
+
+		var chunks = range(chunkCount).
+				mapToObj(chunkIndex -> new CsvChunk(buffer, chunkBounds[chunkIndex], chunkBounds[chunkIndex + 1]).parse()).
+				toList();
+
+		var chunkOffsets = new int[chunkCount + 1];
+
+		for (var chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++) {
+			chunkOffsets[chunkIndex + 1] = chunkOffsets[chunkIndex] + chunks.get(chunkIndex).rowCount;
+		}
+
+		var bodyCount = chunkOffsets[chunkCount];
+		var bodies = new Body[bodyCount];
+
+		range(chunkCount).forEach(chunkIndex -> chunks.get(chunkIndex).
+				createBodies(bodies, chunkOffsets[chunkIndex]));
+
+		var orbitCount = chunks.stream().mapToInt(chunk -> chunk.orbitCount).sum();
+		var bodiesByName = orbitCount == 0 ? null : new HashMap<String, Body>(bodyCount * 4 / 3 + 1);
+
+		for (var chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++) {
+			chunks.get(chunkIndex).addBodies(universe, bodies, chunkOffsets[chunkIndex], bodiesByName);
+		}
+
+		return bodyCount;
+	}
+
+	/**
+	 * Loads a binary scenario file.
+	 *
+	 * @param path path of the binary scenario file
+	 * @return number of loaded bodies
+	 * @throws IOException if an I/O error occurs while reading the file
+	 * @throws IllegalArgumentException if the file is malformed
+	 * @since 0.0.0
+	 */
+	public int loadBinary(Path path) throws IOException {
+
+		var buffer = map(path);
+
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC_NUMBER) {
+			throw new IllegalArgumentException(path + " is not a binary scenario file");
+		}
+
+		var version = buffer.getInt(4);
+
+		if (version != VERSION) {
+			throw new IllegalArgumentException("unsupported binary scenario version: " + version);
+		}
+
+		var bodyCount = buffer.getInt(8);
+		var namesSize = buffer.getInt(12);
+
+		if (bodyCount < 0 || namesSize < 0) {
+			throw new IllegalArgumentException("invalid binary scenario header: " + path);
+		}
+
+		var namesOffset = HEADER_SIZE + (long) bodyCount * RECORD_SIZE;
+
+		if (namesOffset + namesSize != buffer.limit()) {
+			throw new IllegalArgumentException("truncated binary scenario file: " + path);
+		}
+
+		var bodies = new Body[bodyCount];
+		var colors = new ConcurrentHashMap<Integer, Color>();
+
+		range(bodyCount).forEach(index -> {
+
+			var record = HEADER_SIZE + index * RECORD_SIZE;
+			var nameLength = buffer.getShort(record + 2) & 0xFFFF;
+			var nameOffset = buffer.getInt(record + 4);
+
+			if (nameOffset < 0 || (long) nameOffset + nameLength > namesSize) {
+				throw new IllegalArgumentException("invalid name for record " + index);
+			}
+
+			var nameBytes = new byte[nameLength];
+			buffer.get((int) namesOffset + nameOffset, nameBytes);
+
+			var argb = buffer.getInt(record + 8);
+
+			var body = new Body(
+					new String(nameBytes, UTF_8),
+					buffer.getDouble(record + 16),
+					buffer.getDouble(record + 24),
+					colors.computeIfAbsent(argb, ScenarioLoader::toColor));
+
+			if (buffer.get(record) == BODY) {
+
+				body.setPosition(new Vector2(buffer.getDouble(record + 32), buffer.getDouble(record + 40)));
+				body.setVelocity(new Vector2(buffer.getDouble(record + 48), buffer.getDouble(record + 56)));
+			}
+
+			bodies[index] = body;
+		});
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			var record = HEADER_SIZE + index * RECORD_SIZE;
+
+			if (buffer.get(record) == ORBIT) {
+
+				var primaryIndex = buffer.getInt(record + 12);
+
+				if (primaryIndex < 0 || primaryIndex >= index) {
+					throw new IllegalArgumentException("invalid primary body for record " + index);
+				}
+
+				universe.addOrbitingBody(new EllipticOrbit(
+						bodies[primaryIndex],
+						bodies[index],
+						buffer.getDouble(record + 32),
+						buffer.getDouble(record + 40),
+						buffer.get(record + 1) != 0));
+
+			} else {
+
+				universe.addBody(bodies[index]);
+			}
+		}
+
+		return bodyCount;
+	}
+
+	/**
+	 * @param end exclusive end of the range
+	 * @return stream of the indices from 0 to the given end, parallel if this loader is parallel
+	 * @since 0.0.0
+	 */
+	private IntStream range(int end) {
+
+		var indices = IntStream.range(0, end);
+		return parallel ? indices.parallel() : indices;
+	}
+
+	/**
+	 * Maps a whole file in memory.
+	 *
+	 * @param path path of the file to map
+	 * @return read-only buffer of the file content
+	 * @throws IOException if the file cannot be mapped, for example if it is larger than 2 GiB
+	 * @since 0.0.0
+	 */
+	private static ByteBuffer map(Path path) throws IOException {
+
+		try (var channel = FileChannel.open(path, READ)) {
+
+			var size = channel.size();
+
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException(path + " is too large to be mapped: " + size + " bytes");
+			}
+
+			return channel.map(READ_ONLY, 0, size);
+		}
+	}
+
+	/**
+	 * @param argb color encoded as {@code 0xAARRGGBB}
+	 * @return decoded color
+	 * @since 0.0.0
+	 */
+	private static Color toColor(int argb) {
+
+		return Color.rgb(
+				argb >>> 16 & 0xFF,
+				argb >>> 8 & 0xFF,
+				argb & 0xFF,
+				(argb >>> 24) / 255.0);
+	}
+
+	/**
+	 * chunk of a CSV file, parsed into primitive columns
+	 *
+	 * @author Jonathan Guéhenneux
+	 * @since 0.0.0
+	 */
+	private static class CsvChunk {
+
+		private static final int INITIAL_CAPACITY = 1024;
+
+		/**
+		 * maximum number of significant digits accumulated in a mantissa, so that it never overflows
+		 */
+		private static final int MAXIMUM_DIGIT_COUNT = 18;
+
+		private final ByteBuffer buffer;
+		private final int start;
+		private final int end;
+		private final Map<Integer, Color> hexadecimalColors;
+		private final Map<String, Color> namedColors;
+
+		private int position;
+		private int rowCount;
+		private int orbitCount;
+
+		private byte[] kinds;
+		private int[] nameStarts;
+		private int[] nameLengths;
+		private int[] primaryStarts;
+		private int[] primaryLengths;
+		private Color[] colors;
+		private double[] radii;
+		private double[] masses;
+		private double[] values0;
+		private double[] values1;
+		private double[] values2;
+		private double[] values3;
+
+		/**
+		 * @param buffer whole CSV file
+		 * @param start index of the first byte of this chunk, at the beginning of a line
+		 * @param end index following the last byte of this chunk, at the beginning of a line
+		 * @since 0.0.0
+		 */
+		CsvChunk(ByteBuffer buffer, int start, int end) {
+
+			this.buffer = buffer;
+			this.start = start;
+			this.end = end;
+
+			hexadecimalColors = new HashMap<>();
+			namedColors = new HashMap<>();
+
+			kinds = new byte[INITIAL_CAPACITY];
+			nameStarts = new int[INITIAL_CAPACITY];
+			nameLengths = new int[INITIAL_CAPACITY];
+			primaryStarts = new int[INITIAL_CAPACITY];
+			primaryLengths = new int[INITIAL_CAPACITY];
+			colors = new Color[INITIAL_CAPACITY];
+			radii = new double[INITIAL_CAPACITY];
+			masses = new double[INITIAL_CAPACITY];
+			values0 = new double[INITIAL_CAPACITY];
+			values1 = new double[INITIAL_CAPACITY];
+			values2 = new double[INITIAL_CAPACITY];
+			values3 = new double[INITIAL_CAPACITY];
+		}
+
+		/**
+		 * Parses all the rows of this chunk.
+		 *
+		 * @return this chunk
+		 * @since 0.0.0
+		 */
+		CsvChunk parse() {
+
+			position = start;
+
+			while (position < end) {
+
+				skipSpaces();
+
+				if (position == end) {
+					break;
+				}
+
+				var first = buffer.get(position);
+
+				if (first == '\n' || first == '\r') {
+					position++;
+				} else if (first == '#') {
+					skipLine();
+				} else {
+					parseRow();
+				}
+			}
+
+			return this;
+		}
+
+		/**
+		 * Parses a row, starting at the current position.
+		 *
+		 * @since 0.0.0
+		 */
+		private void parseRow() {
+
+			if (rowCount == kinds.length) {
+				grow();
+			}
+
+			var row = rowCount;
+
+			var kindStart = position;
+			var kindLength = skipField();
+
+			if (matches(kindStart, kindLength, "body")) {
+				kinds[row] = BODY;
+			} else if (matches(kindStart, kindLength, "orbit")) {
+				kinds[row] = ORBIT;
+			} else {
+				throw malformed(kindStart, "unknown kind of row");
+			}
+
+			skipSpaces();
+			nameStarts[row] = position;
+			nameLengths[row] = skipField();
+			radii[row] = parseDouble();
+			masses[row] = parseDouble();
+			colors[row] = parseColor();
+
+			if (kinds[row] == BODY) {
+
+				values0[row] = parseDouble();
+				values1[row] = parseDouble();
+				values2[row] = parseDouble();
+				values3[row] = parseDouble();
+
+			} else {
+
+				skipSpaces();
+				primaryStarts[row] = position;
+				primaryLengths[row] = skipField();
+				values0[row] = parseDouble();
+				values1[row] = parseDouble();
+
+				skipSpaces();
+				var directionStart = position;
+				var directionLength = skipField();
+
+				if (matches(directionStart, directionLength, "prograde")) {
+					values2[row] = 1;
+				} else if (matches(directionStart, directionLength, "retrograde")) {
+					values2[row] = 0;
+				} else {
+					throw malformed(directionStart, "expected prograde or retrograde");
+				}
+
+				orbitCount++;
+			}
+
+			skipLine();
+			rowCount++;
+		}
+
+		/**
+		 * Creates the bodies of this chunk. Bodies of kind {@link #BODY} are given their position and velocity.
+		 *
+		 * @param bodies array in which to store created bodies
+		 * @param offset index of the first body of this chunk in the array
+		 * @since 0.0.0
+		 */
+		void createBodies(Body[] bodies, int offset) {
+
+			for (var row = 0; row < rowCount; row++) {
+
+				var body = new Body(getString(nameStarts[row], nameLengths[row]), radii[row], masses[row], colors[row]);
+
+				if (kinds[row] == BODY) {
+
+					body.setPosition(new Vector2(values0[row], values1[row]));
+					body.setVelocity(new Vector2(values2[row], values3[row]));
+				}
+
+				bodies[offset + row] = body;
+			}
+		}
+
+		/**
+		 * Adds the bodies of this chunk to the universe, in file order, placing orbiting bodies around their primary.
+		 *
+		 * @param universe universe in which to add the bodies
+		 * @param bodies bodies created by {@link #createBodies(Body[], int)}
+		 * @param offset index of the first body of this chunk in the array
+		 * @param bodiesByName bodies already added, by name, {@code null} if the file contains no orbit
+		 * @since 0.0.0
+		 */
+		void addBodies(AbstractUniverseModel universe, Body[] bodies, int offset, Map<String, Body> bodiesByName) {
+
+			for (var row = 0; row < rowCount; row++) {
+
+				var body = bodies[offset + row];
+
+				if (kinds[row] == ORBIT) {
+
+					var primaryName = getString(primaryStarts[row], primaryLengths[row]);
+					var primaryBody = bodiesByName.get(primaryName);
+
+					if (primaryBody == null) {
+						throw malformed(primaryStarts[row], "unknown primary body " + primaryName);
+					}
+
+					universe.addOrbitingBody(
+							new EllipticOrbit(primaryBody, body, values0[row], values1[row], values2[row] != 0));
+
+				} else {
+
+					universe.addBody(body);
+				}
+
+				if (bodiesByName != null) {
+					bodiesByName.put(body.toString(), body);
+				}
+			}
+		}
+
+		/**
+		 * Skips spaces and tabulations.
+		 *
+		 * @since 0.0.0
+		 */
+		private void skipSpaces() {
+
+			while (position < end && (buffer.get(position) == ' ' || buffer.get(position) == '\t')) {
+				position++;
+			}
+		}
+
+		/**
+		 * Moves the position to the beginning of the next line.
+		 *
+		 * @since 0.0.0
+		 */
+		private void skipLine() {
+
+			while (position < end && buffer.get(position) != '\n') {
+				position++;
+			}
+
+			position++;
+		}
+
+		/**
+		 * Skips the current field and its separator, trailing spaces are excluded from the field.
+		 * Leading spaces must have been skipped before.
+		 *
+		 * @return length of the field, in bytes
+		 * @since 0.0.0
+		 */
+		private int skipField() {
+
+			var fieldStart = position;
+			var fieldEnd = position;
+
+			while (position < end) {
+
+				var character = buffer.get(position);
+
+				if (character == ',' || character == '\n' || character == '\r') {
+					break;
+				}
+
+				position++;
+
+				if (character != ' ' && character != '\t') {
+					fieldEnd = position;
+				}
+			}
+
+			if (position < end && buffer.get(position) == ',') {
+				position++;
+			}
+
+			return fieldEnd - fieldStart;
+		}
+
+		/**
+		 * Parses a decimal number. Numbers with at most 15 significant digits and a small exponent are converted
+		 * exactly without creating any string, others are delegated to {@link Double#parseDouble(String)}.
+		 *
+		 * @return parsed number
+		 * @since 0.0.0
+		 */
+		private double parseDouble() {
+
+			skipSpaces();
+			var numberStart = position;
+			var fieldLength = skipField();
+
+			var index = numberStart;
+			var numberEnd = numberStart + fieldLength;
+
+			var negative = false;
+
+			if (index < numberEnd && (buffer.get(index) == '-' || buffer.get(index) == '+')) {
+				negative = buffer.get(index) == '-';
+				index++;
+			}
+
+			var mantissa = 0L;
+			var digitCount = 0;
+			var exponent = 0;
+			var digitsFound = false;
+			byte character;
+
+			while (index < numberEnd && (character = buffer.get(index)) >= '0' && character <= '9') {
+
+				digitsFound = true;
+
+				if (mantissa != 0 || character != '0') {
+
+					mantissa = accumulate(mantissa, digitCount, character);
+					digitCount++;
+				}
+
+				index++;
+			}
+
+			if (index < numberEnd && buffer.get(index) == '.') {
+
+				index++;
+
+				while (index < numberEnd && (character = buffer.get(index)) >= '0' && character <= '9') {
+
+					digitsFound = true;
+
+					if (mantissa != 0 || character != '0') {
+
+						mantissa = accumulate(mantissa, digitCount, character);
+						digitCount++;
+					}
+
+					exponent--;
+					index++;
+				}
+			}
+
+			if (!digitsFound) {
+				throw malformed(numberStart, "expected a number");
+			}
+
+			if (index < numberEnd && (buffer.get(index) == 'e' || buffer.get(index) == 'E')) {
+
+				index++;
+
+				var negativeExponent = false;
+
+				if (index < numberEnd && (buffer.get(index) == '-' || buffer.get(index) == '+')) {
+					negativeExponent = buffer.get(index) == '-';
+					index++;
+				}
+
+				var explicitExponent = 0;
+				var exponentStart = index;
+
+				while (index < numberEnd && (character = buffer.get(index)) >= '0' && character <= '9') {
+
+					explicitExponent = min(explicitExponent * 10 + character - '0', 100_000);
+					index++;
+				}
+
+				if (index == exponentStart) {
+					throw malformed(numberStart, "expected an exponent");
+				}
+
+				exponent += negativeExponent ? -explicitExponent : explicitExponent;
+			}
+
+			if (index != numberEnd) {
+				throw malformed(numberStart, "expected a number");
+			}
+
+			double value;
+
+			if (digitCount == 0) {
+				value = 0.0;
+			} else if (digitCount <= 15 && exponent >= -22 && exponent <= 22) {
+				value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+			} else {
+				return Double.parseDouble(getString(numberStart, fieldLength));
+			}
+
+			return negative ? -value : value;
+		}
+
+		/**
+		 * Appends a significant digit to a mantissa, unless it already has {@value #MAXIMUM_DIGIT_COUNT} digits: such
+		 * numbers are delegated to {@link Double#parseDouble(String)} anyway, the mantissa must only not overflow.
+		 *
+		 * @param mantissa mantissa
+		 * @param digitCount number of significant digits of the mantissa
+		 * @param character digit to append
+		 * @return mantissa with the appended digit
+		 * @since 0.0.0
+		 */
+		private static long accumulate(long mantissa, int digitCount, byte character) {
+			return digitCount < MAXIMUM_DIGIT_COUNT ? mantissa * 10 + character - '0' : mantissa;
+		}
+
+		/**
+		 * Parses a color, hexadecimal colors are parsed without creating any string.
+		 *
+		 * @return parsed color
+		 * @since 0.0.0
+		 */
+		private Color parseColor() {
+
+			skipSpaces();
+			var colorStart = position;
+			var colorLength = skipField();
+
+			if (colorLength > 0 && buffer.get(colorStart) == '#' && (colorLength == 7 || colorLength == 9)) {
+
+				var rgba = 0;
+
+				for (var index = colorStart + 1; index < colorStart + colorLength; index++) {
+					rgba = rgba << 4 | hexadecimalDigit(buffer.get(index), colorStart);
+				}
+
+				if (colorLength == 7) {
+					rgba = rgba << 8 | 0xFF;
+				}
+
+				var argb = rgba >>> 8 | rgba << 24;
+				return hexadecimalColors.computeIfAbsent(argb, ScenarioLoader::toColor);
+
+			} else {
+
+				var colorName = getString(colorStart, colorLength);
+
+				try {
+					return namedColors.computeIfAbsent(colorName, Color::web);
+				} catch (IllegalArgumentException cause) {
+					throw malformed(colorStart, "unknown color " + colorName);
+				}
+			}
+		}
+
+		/**
+		 * @param character hexadecimal digit
+		 * @param fieldStart start of the field being parsed, for error messages
+		 * @return value of the digit
+		 * @since 0.0.0
+		 */
+		private int hexadecimalDigit(byte character, int fieldStart) {
+
+			if (character >= '0' && character <= '9') {
+				return character - '0';
+			} else if (character >= 'a' && character <= 'f') {
+				return character - 'a' + 10;
+			} else if (character >= 'A' && character <= 'F') {
+				return character - 'A' + 10;
+			} else {
+				throw malformed(fieldStart, "invalid hexadecimal color");
+			}
+		}
+
+		/**
+		 * @param fieldStart index of the first byte of the field
+		 * @param fieldLength length of the field in bytes
+		 * @param expected expected ASCII value
+		 * @return whether the field is equal to the expected value
+		 * @since 0.0.0
+		 */
+		private boolean matches(int fieldStart, int fieldLength, String expected) {
+
+			if (fieldLength != expected.length()) {
+				return false;
+			}
+
+			for (var index = 0; index < fieldLength; index++) {
+
+				if (buffer.get(fieldStart + index) != expected.charAt(index)) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		/**
+		 * @param stringStart index of the first byte of the string
+		 * @param stringLength length of the string in bytes
+		 * @return decoded UTF-8 string
+		 * @since 0.0.0
+		 */
+		private String getString(int stringStart, int stringLength) {
+
+			var bytes = new byte[stringLength];
+			buffer.get(stringStart, bytes);
+			return new String(bytes, UTF_8);
+		}
+
+		/**
+		 * @param errorPosition index of the byte where the error was detected
+		 * @param message error message
+		 * @return exception to throw
+		 * @since 0.0.0
+		 */
+		private IllegalArgumentException malformed(int errorPosition, String message) {
+			return new IllegalArgumentException("malformed scenario at byte " + errorPosition + ": " + message);
+		}
+
+		/**
+		 * Doubles the capacity of the columns.
+		 *
+		 * @since 0.0.0
+		 */
+		private void grow() {
+
+			var capacity = kinds.length * 2;
+
+			kinds = Arrays.copyOf(kinds, capacity);
+			nameStarts = Arrays.copyOf(nameStarts, capacity);
+			nameLengths = Arrays.copyOf(nameLengths, capacity);
+			primaryStarts = Arrays.copyOf(primaryStarts, capacity);
+			primaryLengths = Arrays.copyOf(primaryLengths, capacity);
+			colors = Arrays.copyOf(colors, capacity);
+			radii = Arrays.copyOf(radii, capacity);
+			masses = Arrays.copyOf(masses, capacity);
+			values0 = Arrays.copyOf(values0, capacity);
+			values1 = Arrays.copyOf(values1, capacity);
+			values2 = Arrays.copyOf(values2, capacity);
+			values3 = Arrays.copyOf(values3, capacity);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.github.achaaab.gravity_simulator;
+
+import javafx.scene.paint.Color;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.github.achaaab.gravity_simulator.ScenarioLoader.BODY;
+import static com.github.achaaab.gravity_simulator.ScenarioLoader.HEADER_SIZE;
+import static com.github.achaaab.gravity_simulator.ScenarioLoader.MAGIC_NUMBER;
+import static com.github.achaaab.gravity_simulator.ScenarioLoader.RECORD_SIZE;
+import static com.github.achaaab.gravity_simulator.ScenarioLoader.VERSION;
+import static java.lang.Math.round;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes the current state of bodies in the binary scenario format read by {@link ScenarioLoader}:
+ * <ul>
+ *     <li>header: magic number, version, body count and size of the names section, as 4 integers</li>
+ *     <li>one record of {@value ScenarioLoader#RECORD_SIZE} bytes per body: kind, prograde flag,
+ *     name length (short), name offset (int), color as ARGB (int), primary body index (int), radius, mass
+ *     and 4 doubles (x, y, vx, vy for a body, apoapsis and periapsis for an orbit)</li>
+ *     <li>names section: UTF-8 names of all the bodies</li>
+ * </ul>
+ * Fixed-size records allow the loader to decode bodies in parallel. Big-endian byte order is used.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class ScenarioWriter {
+
+	/**
+	 * number of records written at once
+	 */
+	private static final int BATCH_SIZE = 4096;
+
+	/**
+	 * Writes the position and velocity of the given bodies.
+	 *
+	 * @param bodies bodies to write
+	 * @param path path of the binary scenario file to write
+	 * @throws IOException if an I/O error occurs while writing the file
+	 * @since 0.0.0
+	 */
+	public void writeBinary(List<Body> bodies, Path path) throws IOException {
+
+		var bodyCount = bodies.size();
+		var nameOffsets = new int[bodyCount];
+		var nameLengths = new int[bodyCount];
+		var names = new ByteArrayOutputStream();
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			var name = bodies.get(index).toString().getBytes(UTF_8);
+
+			if (name.length > 0xFFFF) {
+				throw new IllegalArgumentException("body name is too long: " + bodies.get(index));
+			}
+
+			nameOffsets[index] = names.size();
+			nameLengths[index] = name.length;
+			names.write(name);
+		}
+
+		try (var channel = FileChannel.open(path, CREATE, WRITE, TRUNCATE_EXISTING)) {
+
+			var buffer = ByteBuffer.allocateDirect(BATCH_SIZE * RECORD_SIZE);
+
+			buffer.putInt(MAGIC_NUMBER);
+			buffer.putInt(VERSION);
+			buffer.putInt(bodyCount);
+			buffer.putInt(names.size());
+			buffer.position(HEADER_SIZE);
+
+			for (var index = 0; index < bodyCount; index++) {
+
+				if (buffer.remaining() < RECORD_SIZE) {
+					flush(buffer, channel);
+				}
+
+				var body = bodies.get(index);
+				var position = body.getPosition();
+				var velocity = body.getVelocity();
+
+				buffer.put(BODY);
+				buffer.put((byte) 0);
+				buffer.putShort((short) nameLengths[index]);
+				buffer.putInt(nameOffsets[index]);
+				buffer.putInt(toArgb(body));
+				buffer.putInt(-1);
+				buffer.putDouble(body.getRadius());
+				buffer.putDouble(body.getMass());
+				buffer.putDouble(position.getX());
+				buffer.putDouble(position.getY());
+				buffer.putDouble(velocity.getX());
+				buffer.putDouble(velocity.getY());
+			}
+
+			flush(buffer, channel);
+			channel.write(ByteBuffer.wrap(names.toByteArray()));
+		}
+	}
+
+	/**
+	 * Writes the content of the buffer to the channel and clears the buffer.
+	 *
+	 * @param buffer buffer to flush
+	 * @param channel channel to write to
+	 * @throws IOException if an I/O error occurs while writing
+	 * @since 0.0.0
+	 */
+	private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+
+		buffer.flip();
+
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+
+		buffer.clear();
+	}
+
+	/**
+	 * @param body body
+	 * @return color of the body encoded as {@code 0xAARRGGBB}, opaque white if the body is not painted with a color
+	 * @since 0.0.0
+	 */
+	private static int toArgb(Body body) {
+
+		if (body.getPaint() instanceof Color color) {
+
+			return (int) round(color.getOpacity() * 255) << 24 |
+					(int) round(color.getRed() * 255) << 16 |
+					(int) round(color.getGreen() * 255) << 8 |
+					(int) round(color.getBlue() * 255);
+
+		} else {
+
+			return 0xFFFFFFFF;
+		}
+	}
+}
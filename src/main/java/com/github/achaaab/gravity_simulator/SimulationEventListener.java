@@ -0,0 +1,21 @@
+package com.github.achaaab.gravity_simulator;
+
+/**
+ * listener of events located by an {@link EventDetector}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+@FunctionalInterface
+public interface SimulationEventListener {
+
+	/**
+	 * Called at the end of the update during which the event occurred.
+	 *
+	 * @param detector detector of the event
+	 * @param time simulation time of the event, in seconds
+	 * @param states states of the bodies interpolated at the time of the event
+	 * @since 0.0.0
+	 */
+	void eventOccurred(EventDetector detector, double time, BodyStates states);
+}
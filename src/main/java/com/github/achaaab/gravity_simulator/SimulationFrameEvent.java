@@ -0,0 +1,35 @@
+package com.github.achaaab.gravity_simulator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event covering a whole frame: all the universe updates and the drawing.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+@Name("com.github.achaaab.gravity_simulator.SimulationFrame")
+@Label("Simulation Frame")
+@Category({ "Gravity Simulator", "Simulation" })
+@Description("Duration of a frame, including universe updates and drawing")
+@StackTrace(false)
+public class SimulationFrameEvent extends Event {
+
+	@Label("Sub-step Count")
+	int stepCount;
+
+	@Label("Body Count")
+	int bodyCount;
+
+	@Label("Pair Interactions")
+	long interactionCount;
+
+	@Label("Simulated Time")
+	@Description("Simulated time covered by the frame, in seconds")
+	double simulatedTime;
+}
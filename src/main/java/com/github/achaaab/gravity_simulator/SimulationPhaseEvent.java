@@ -0,0 +1,61 @@
+package com.github.achaaab.gravity_simulator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event covering one phase of a universe update or of a frame.
+ * When the event is not enabled in the recording settings, {@link #begin()} and {@link #commit()} are no-ops
+ * and the JIT compiler removes the allocation.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+@Name("com.github.achaaab.gravity_simulator.SimulationPhase")
+@Label("Simulation Phase")
+@Category({ "Gravity Simulator", "Simulation" })
+@Description("Duration of one phase of a universe update: forces, integration or drawing")
+@StackTrace(false)
+public class SimulationPhaseEvent extends Event {
+
+	/**
+	 * phase of the computation of the resulting forces
+	 */
+	public static final String FORCES = "forces";
+
+	/**
+	 * phase of the integration of velocities and positions
+	 */
+	public static final String INTEGRATION = "integration";
+
+	/**
+	 * phase of the drawing of the universe
+	 */
+	public static final String DRAW = "draw";
+
+	@Label("Phase")
+	private final String phase;
+
+	@Label("Body Count")
+	private final int bodyCount;
+
+	@Label("Pair Interactions")
+	private final long interactionCount;
+
+	/**
+	 * @param phase name of the phase
+	 * @param bodyCount number of bodies processed during the phase
+	 * @param interactionCount number of pair interactions computed during the phase
+	 * @since 0.0.0
+	 */
+	public SimulationPhaseEvent(String phase, int bodyCount, long interactionCount) {
+
+		this.phase = phase;
+		this.bodyCount = bodyCount;
+		this.interactionCount = interactionCount;
+	}
+}
@@ -0,0 +1,542 @@
+package com.github.achaaab.gravity_simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.System.Logger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.Math.max;
+import static java.lang.System.Logger.Level.INFO;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * HTTP server hosting many independent universes in one JVM, one per session. Each request is handled on its own
+ * virtual thread. Force computations of all sessions share a pool of CPU permits, one per available processor, granted
+ * fairly. Each session has its own step rate limit. An idle session has no thread and costs only its memory.
+ * <p>
+ * Resources, all answering JSON:
+ * <ul>
+ *     <li>{@code POST /sessions?dimension=3&rate=10000}: creates a session, with the solar system, or with the bodies
+ *     of the CSV scenario given as request body (at most {@value #MAXIMUM_SCENARIO_SIZE} bytes), up to
+ *     {@value #MAXIMUM_SESSION_COUNT} sessions</li>
+ *     <li>{@code GET /sessions}: lists the sessions</li>
+ *     <li>{@code GET /sessions/{id}}: describes a session, with the states of its bodies</li>
+ *     <li>{@code DELETE /sessions/{id}}: deletes a session</li>
+ *     <li>{@code POST /sessions/{id}/step?count=24&deltaTime=3600}: advances a session</li>
+ *     <li>{@code POST /sessions/{id}/run?deltaTime=3600}: advances a session continuously, at its rate limit</li>
+ *     <li>{@code POST /sessions/{id}/pause}: stops advancing a session continuously</li>
+ *     <li>{@code POST /sessions/{id}/checkpoints}: saves the state of a session</li>
+ *     <li>{@code POST /sessions/{id}/checkpoints/{index}/restore}: restores a saved state</li>
+ * </ul>
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class SimulationServer implements Closeable {
+
+	private static final Logger LOGGER = System.getLogger(SimulationServer.class.getName());
+
+	private static final int DEFAULT_PORT = 8080;
+	private static final double DEFAULT_DELTA_TIME = 3_600;
+	private static final double DEFAULT_STEP_RATE = 100_000;
+
+	/**
+	 * maximum size of a scenario uploaded when creating a session, in bytes
+	 */
+	public static final int MAXIMUM_SCENARIO_SIZE = 16 << 20;
+
+	/**
+	 * maximum number of sessions hosted at the same time
+	 */
+	public static final int MAXIMUM_SESSION_COUNT = 1_024;
+
+	private final HttpServer httpServer;
+	private final ExecutorService executor;
+	private final Semaphore cpuPermits;
+	private final Semaphore sessionPermits;
+	private final Map<Long, SimulationSession> sessions;
+	private final AtomicLong nextId;
+	private final StepRateLimiter.Clock clock;
+
+	/**
+	 * Starts a server on the loopback interface.
+	 *
+	 * @param port port to listen to, 0 for an ephemeral port
+	 * @return started server
+	 * @throws IOException if the server cannot be bound
+	 * @since 0.0.0
+	 */
+	public static SimulationServer start(int port) throws IOException {
+		return start(port, StepRateLimiter.Clock.SYSTEM);
+	}
+
+	/**
+	 * Starts a server on the loopback interface. Requests are only handled once the server is fully constructed.
+	 *
+	 * @param port port to listen to, 0 for an ephemeral port
+	 * @param clock clock of the rate limiters of the sessions
+	 * @return started server
+	 * @throws IOException if the server cannot be bound
+	 * @since 0.0.0
+	 */
+	static SimulationServer start(int port, StepRateLimiter.Clock clock) throws IOException {
+
+		var server = new SimulationServer(port, clock);
+		server.httpServer.createContext("/sessions", server::handle);
+		server.httpServer.start();
+
+		return server;
+	}
+
+	/**
+	 * Binds a server on the loopback interface, without starting it.
+	 *
+	 * @param port port to listen to, 0 for an ephemeral port
+	 * @param clock clock of the rate limiters of the sessions
+	 * @throws IOException if the server cannot be bound
+	 * @since 0.0.0
+	 */
+	private SimulationServer(int port, StepRateLimiter.Clock clock) throws IOException {
+
+		this.clock = clock;
+
+		cpuPermits = new Semaphore(Runtime.getRuntime().availableProcessors(), true);
+		sessionPermits = new Semaphore(MAXIMUM_SESSION_COUNT);
+		sessions = new ConcurrentHashMap<>();
+		nextId = new AtomicLong(1);
+
+		executor = Executors.newVirtualThreadPerTaskExecutor();
+		httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		httpServer.setExecutor(executor);
+	}
+
+	/**
+	 * Handles a request, translating exceptions into HTTP status codes.
+	 *
+	 * @param exchange HTTP exchange
+	 * @throws IOException if an I/O error occurs while answering
+	 * @since 0.0.0
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+
+		int status;
+		String response;
+
+		try (exchange) {
+
+			try {
+
+				response = route(exchange);
+				status = 200;
+
+			} catch (NoSuchElementException exception) {
+
+				response = error(exception);
+				status = 404;
+
+			} catch (UnsupportedOperationException exception) {
+
+				response = error(exception);
+				status = 405;
+
+			} catch (IllegalStateException exception) {
+
+				response = error(exception);
+				status = 409;
+
+			} catch (IllegalArgumentException exception) {
+
+				response = error(exception);
+				status = 400;
+
+			} catch (InterruptedException interruptedException) {
+
+				Thread.currentThread().interrupt();
+				response = error(interruptedException);
+				status = 503;
+			}
+
+			var bytes = response.getBytes(UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(status, bytes.length);
+			exchange.getResponseBody().write(bytes);
+		}
+	}
+
+	/**
+	 * @param exchange HTTP exchange
+	 * @return JSON response
+	 * @throws IOException if an I/O error occurs while reading the request
+	 * @throws InterruptedException if interrupted while stepping a session
+	 * @since 0.0.0
+	 */
+	private String route(HttpExchange exchange) throws IOException, InterruptedException {
+
+		var method = exchange.getRequestMethod();
+		var path = exchange.getRequestURI().getPath().split("/");
+		var parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+
+		// path[0] is empty, path[1] is "sessions"
+		if (path.length == 2) {
+
+			return switch (method) {
+				case "GET" -> listSessions();
+				case "POST" -> createSession(parameters, readScenario(exchange)).toJson(false);
+				default -> throw new UnsupportedOperationException(method + " " + exchange.getRequestURI());
+			};
+		}
+
+		var session = getSession(path[2]);
+
+		if (path.length == 3) {
+
+			return switch (method) {
+				case "GET" -> session.toJson(true);
+				case "DELETE" -> deleteSession(session);
+				default -> throw new UnsupportedOperationException(method + " " + exchange.getRequestURI());
+			};
+		}
+
+		if (!method.equals("POST")) {
+			throw new UnsupportedOperationException(method + " " + exchange.getRequestURI());
+		}
+
+		var deltaTime = getDouble(parameters, "deltaTime", DEFAULT_DELTA_TIME);
+
+		switch (path[3]) {
+
+			case "step" -> session.step(getLong(parameters, "count", 1), deltaTime);
+			case "run" -> session.run(deltaTime);
+			case "pause" -> session.pause();
+
+			case "checkpoints" -> {
+
+				if (path.length == 4) {
+					return "{\"checkpoint\":" + session.checkpoint() + "}";
+				} else if (path.length == 6 && path[5].equals("restore")) {
+					session.restore(parseIndex(path[4]));
+				} else {
+					throw new NoSuchElementException(exchange.getRequestURI().getPath());
+				}
+			}
+
+			default -> throw new NoSuchElementException(exchange.getRequestURI().getPath());
+		}
+
+		return session.toJson(false);
+	}
+
+	/**
+	 * Reads the request body, up to 1 byte more than {@value #MAXIMUM_SCENARIO_SIZE}, so that a larger scenario is
+	 * rejected without being read entirely.
+	 *
+	 * @param exchange HTTP exchange
+	 * @return request body, possibly truncated
+	 * @throws IOException if an I/O error occurs while reading the request
+	 * @since 0.0.0
+	 */
+	private static byte[] readScenario(HttpExchange exchange) throws IOException {
+		return exchange.getRequestBody().readNBytes(MAXIMUM_SCENARIO_SIZE + 1);
+	}
+
+	/**
+	 * Creates a session. The scenario is loaded on the calling thread, holding a permit of the CPU pool.
+	 *
+	 * @param parameters query parameters: {@code dimension} (2 or 3) and {@code rate} (maximum steps per second)
+	 * @param scenario CSV scenario, empty for the solar system
+	 * @return created session
+	 * @throws IllegalArgumentException if a parameter is invalid, or if the scenario is malformed or larger than
+	 * {@value #MAXIMUM_SCENARIO_SIZE} bytes
+	 * @throws IllegalStateException if there are already {@value #MAXIMUM_SESSION_COUNT} sessions
+	 * @throws InterruptedException if interrupted while waiting for a CPU permit
+	 * @since 0.0.0
+	 */
+	public SimulationSession createSession(Map<String, String> parameters, byte[] scenario)
+			throws InterruptedException {
+
+		var dimension = getLong(parameters, "dimension", 2);
+
+		if (dimension != 2 && dimension != 3) {
+			throw new IllegalArgumentException("dimension must be 2 or 3");
+		}
+
+		if (scenario.length > MAXIMUM_SCENARIO_SIZE) {
+			throw new IllegalArgumentException("scenario larger than " + MAXIMUM_SCENARIO_SIZE + " bytes");
+		}
+
+		var rate = getDouble(parameters, "rate", DEFAULT_STEP_RATE);
+		var rateLimiter = new StepRateLimiter(rate, max(1, rate), clock);
+
+		if (!sessionPermits.tryAcquire()) {
+			throw new IllegalStateException("too many sessions: " + MAXIMUM_SESSION_COUNT);
+		}
+
+		var created = false;
+
+		try {
+
+			var universe = dimension == 3 ? new UniverseModel3D() : new UniverseModel();
+
+			cpuPermits.acquire();
+
+			try {
+
+				if (scenario.length == 0) {
+					SolarSystemSimulation.addSolarSystem(universe);
+				} else {
+					new ScenarioLoader(universe, false).loadCsv(ByteBuffer.wrap(scenario));
+				}
+
+			} finally {
+
+				cpuPermits.release();
+			}
+
+			var session = new SimulationSession(nextId.getAndIncrement(), universe, rateLimiter, cpuPermits);
+			sessions.put(session.getId(), session);
+			created = true;
+
+			return session;
+
+		} finally {
+
+			if (!created) {
+				sessionPermits.release();
+			}
+		}
+	}
+
+	/**
+	 * @return JSON array of the sessions, without their bodies
+	 * @since 0.0.0
+	 */
+	private String listSessions() {
+
+		var json = new StringBuilder("[");
+
+		for (var session : sessions.values()) {
+
+			if (json.length() > 1) {
+				json.append(',');
+			}
+
+			json.append(session.toJson(false));
+		}
+
+		return json.append(']').toString();
+	}
+
+	/**
+	 * @param session session to delete
+	 * @return JSON description of the deleted session
+	 * @throws InterruptedException if interrupted while pausing the session
+	 * @since 0.0.0
+	 */
+	private String deleteSession(SimulationSession session) throws InterruptedException {
+
+		if (sessions.remove(session.getId()) != null) {
+			sessionPermits.release();
+		}
+
+		session.pause();
+		return session.toJson(false);
+	}
+
+	/**
+	 * @param id identifier of a session
+	 * @return session
+	 * @throws NoSuchElementException if there is no such session
+	 * @since 0.0.0
+	 */
+	public SimulationSession getSession(String id) {
+
+		SimulationSession session;
+
+		try {
+			session = sessions.get(Long.parseLong(id));
+		} catch (NumberFormatException numberFormatException) {
+			session = null;
+		}
+
+		if (session == null) {
+			throw new NoSuchElementException("no session " + id);
+		}
+
+		return session;
+	}
+
+	/**
+	 * @return number of sessions
+	 * @since 0.0.0
+	 */
+	public int getSessionCount() {
+		return sessions.size();
+	}
+
+	/**
+	 * @return port the server listens to
+	 * @since 0.0.0
+	 */
+	public int getPort() {
+		return httpServer.getAddress().getPort();
+	}
+
+	/**
+	 * Stops the server and pauses all sessions.
+	 *
+	 * @since 0.0.0
+	 */
+	@Override
+	public void close() {
+
+		httpServer.stop(0);
+
+		for (var session : sessions.values()) {
+
+			try {
+				session.pause();
+			} catch (InterruptedException interruptedException) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		executor.close();
+	}
+
+	/**
+	 * @param query raw query of a URI, may be {@code null}
+	 * @return decoded parameters
+	 * @since 0.0.0
+	 */
+	private static Map<String, String> parseQuery(String query) {
+
+		var parameters = new HashMap<String, String>();
+
+		if (query != null) {
+
+			for (var parameter : query.split("&")) {
+
+				var separatorIndex = parameter.indexOf('=');
+
+				if (separatorIndex > 0) {
+
+					parameters.put(
+							URLDecoder.decode(parameter.substring(0, separatorIndex), UTF_8),
+							URLDecoder.decode(parameter.substring(separatorIndex + 1), UTF_8));
+				}
+			}
+		}
+
+		return parameters;
+	}
+
+	/**
+	 * @param parameters parameters
+	 * @param name name of a parameter
+	 * @param defaultValue value if the parameter is missing
+	 * @return value of the parameter
+	 * @throws IllegalArgumentException if the parameter is not a number
+	 * @since 0.0.0
+	 */
+	private static double getDouble(Map<String, String> parameters, String name, double defaultValue) {
+
+		var value = parameters.get(name);
+		return value == null ? defaultValue : Double.parseDouble(value);
+	}
+
+	/**
+	 * @param parameters parameters
+	 * @param name name of a parameter
+	 * @param defaultValue value if the parameter is missing
+	 * @return value of the parameter
+	 * @throws IllegalArgumentException if the parameter is not an integer
+	 * @since 0.0.0
+	 */
+	private static long getLong(Map<String, String> parameters, String name, long defaultValue) {
+
+		var value = parameters.get(name);
+		return value == null ? defaultValue : Long.parseLong(value);
+	}
+
+	/**
+	 * @param index index, as a path element
+	 * @return index
+	 * @throws NoSuchElementException if the path element is not an integer
+	 * @since 0.0.0
+	 */
+	private static int parseIndex(String index) {
+
+		try {
+			return Integer.parseInt(index);
+		} catch (NumberFormatException numberFormatException) {
+			throw new NoSuchElementException("no checkpoint " + index);
+		}
+	}
+
+	/**
+	 * @param exception exception
+	 * @return JSON error message
+	 * @since 0.0.0
+	 */
+	private static String error(Exception exception) {
+
+		var json = new StringBuilder("{\"error\":");
+		appendString(json, String.valueOf(exception.getMessage()));
+		return json.append('}').toString();
+	}
+
+	/**
+	 * Appends a JSON string, escaping quotes, backslashes and control characters.
+	 *
+	 * @param json JSON being built
+	 * @param string string to append
+	 * @since 0.0.0
+	 */
+	static void appendString(StringBuilder json, String string) {
+
+		json.append('"');
+
+		for (var index = 0; index < string.length(); index++) {
+
+			var character = string.charAt(index);
+
+			if (character == '"' || character == '\\') {
+				json.append('\\').append(character);
+			} else if (character < 0x20) {
+				json.append(String.format("\\u%04x", (int) character));
+			} else {
+				json.append(character);
+			}
+		}
+
+		json.append('"');
+	}
+
+	/**
+	 * Starts a server.
+	 *
+	 * @param arguments port to listen to, {@value #DEFAULT_PORT} by default
+	 * @throws IOException if the server cannot be bound
+	 * @since 0.0.0
+	 */
+	public static void main(String... arguments) throws IOException {
+
+		var port = arguments.length == 0 ? DEFAULT_PORT : Integer.parseInt(arguments[0]);
+		var server = SimulationServer.start(port);
+		LOGGER.log(INFO, "simulation server listening on http://localhost:" + server.getPort() + "/sessions");
+	}
+}
@@ -0,0 +1,448 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.lang.System.Logger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.Logger.Level.ERROR;
+
+/**
+ * Universe hosted by a {@link SimulationServer}. A session has no thread of its own: it is stepped by the (virtual)
+ * threads of the requests, or by a virtual thread while it is running. Updates are done in slices: each slice
+ * acquires steps from the rate limiter of the session, then the lock of the session, then a permit of the CPU pool
+ * shared by all sessions. The lock and the permits are granted in arrival order, so that requests of a same session
+ * and sessions take turns.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class SimulationSession {
+
+	private static final Logger LOGGER = System.getLogger(SimulationSession.class.getName());
+
+	/**
+	 * approximate number of pair interactions computed while holding a CPU permit
+	 */
+	private static final long INTERACTIONS_PER_SLICE = 1L << 20;
+
+	/**
+	 * maximum number of checkpoints per session
+	 */
+	public static final int MAXIMUM_CHECKPOINT_COUNT = 64;
+
+	private final long id;
+	private final AbstractUniverseModel universe;
+	private final StepRateLimiter rateLimiter;
+	private final Semaphore cpuPermits;
+	private final ReentrantLock rateLock;
+	private final ReentrantLock lock;
+	private final List<Checkpoint> checkpoints;
+
+	// written under the lock, read without it
+	private volatile long stepCount;
+	private Thread runner;
+
+	/**
+	 * @param id identifier of the session
+	 * @param universe universe of the session
+	 * @param rateLimiter limiter of the steps of this session
+	 * @param cpuPermits CPU pool shared by all sessions
+	 * @since 0.0.0
+	 */
+	public SimulationSession(long id, AbstractUniverseModel universe, StepRateLimiter rateLimiter, Semaphore cpuPermits) {
+
+		this.id = id;
+		this.universe = universe;
+		this.rateLimiter = rateLimiter;
+		this.cpuPermits = cpuPermits;
+
+		rateLock = new ReentrantLock();
+		lock = new ReentrantLock(true);
+		checkpoints = new ArrayList<>();
+		stepCount = 0;
+		runner = null;
+	}
+
+	/**
+	 * Advances the universe by a number of updates, waiting for the rate limiter and the CPU pool.
+	 *
+	 * @param count number of updates
+	 * @param deltaTime duration of each update, in seconds
+	 * @throws IllegalArgumentException if the duration is not finite and positive
+	 * @throws InterruptedException if interrupted while waiting, some updates may have been done
+	 * @since 0.0.0
+	 */
+	public void step(long count, double deltaTime) throws InterruptedException {
+
+		checkDeltaTime(deltaTime);
+
+		var remainingCount = count;
+
+		while (remainingCount > 0) {
+
+			var sliceCount = (int) min(remainingCount, getSliceCount());
+			stepSlice(sliceCount, deltaTime);
+			remainingCount -= sliceCount;
+		}
+	}
+
+	/**
+	 * @param count number of updates, at most the burst of the rate limiter
+	 * @param deltaTime duration of each update, in seconds
+	 * @throws InterruptedException if interrupted while waiting
+	 * @since 0.0.0
+	 */
+	private void stepSlice(int count, double deltaTime) throws InterruptedException {
+
+		// waiting for the rate limiter does not block queries
+		rateLock.lockInterruptibly();
+
+		try {
+			rateLimiter.acquire(count);
+		} finally {
+			rateLock.unlock();
+		}
+
+		lock.lockInterruptibly();
+
+		try {
+
+			cpuPermits.acquire();
+
+			try {
+
+				for (var step = 0; step < count; step++) {
+					universe.update(deltaTime);
+				}
+
+				stepCount += count;
+
+			} finally {
+
+				cpuPermits.release();
+			}
+
+		} finally {
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @param deltaTime duration of an update, in seconds
+	 * @throws IllegalArgumentException if the duration is not finite and positive
+	 * @since 0.0.0
+	 */
+	private static void checkDeltaTime(double deltaTime) {
+
+		if (!Double.isFinite(deltaTime) || deltaTime <= 0) {
+			throw new IllegalArgumentException("deltaTime must be finite and positive: " + deltaTime);
+		}
+	}
+
+	/**
+	 * @return number of updates per slice, so that a slice computes about {@value #INTERACTIONS_PER_SLICE}
+	 * interactions, and does not exceed the burst of the rate limiter
+	 * @since 0.0.0
+	 */
+	private long getSliceCount() {
+
+		var bodyCount = (long) universe.getBodies().size();
+		var interactionCount = max(1, bodyCount * (bodyCount - 1) / 2);
+		return max(1, min(INTERACTIONS_PER_SLICE / interactionCount, (long) rateLimiter.getBurst()));
+	}
+
+	/**
+	 * Starts updating the universe continuously on a virtual thread, as fast as the rate limiter allows.
+	 * Does nothing if the session is already running. If an update fails, the session stops running.
+	 *
+	 * @param deltaTime duration of each update, in seconds
+	 * @throws IllegalArgumentException if the duration is not finite and positive
+	 * @since 0.0.0
+	 */
+	public void run(double deltaTime) {
+
+		checkDeltaTime(deltaTime);
+
+		lock.lock();
+
+		try {
+
+			if (runner == null) {
+
+				runner = Thread.ofVirtual().name("session " + id).start(() -> {
+
+					try {
+
+						while (!Thread.currentThread().isInterrupted()) {
+							stepSlice((int) getSliceCount(), deltaTime);
+						}
+
+					} catch (InterruptedException interruptedException) {
+
+						// paused
+
+					} catch (RuntimeException exception) {
+
+						LOGGER.log(ERROR, "session " + id + " stopped running", exception);
+						stopRunning(Thread.currentThread());
+					}
+				});
+			}
+
+		} finally {
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Forgets a runner that stopped by itself, unless it was already replaced.
+	 *
+	 * @param stoppedRunner runner that stopped
+	 * @since 0.0.0
+	 */
+	private void stopRunning(Thread stoppedRunner) {
+
+		lock.lock();
+
+		try {
+
+			if (runner == stoppedRunner) {
+				runner = null;
+			}
+
+		} finally {
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return whether the universe is updated continuously
+	 * @since 0.0.0
+	 */
+	public boolean isRunning() {
+
+		lock.lock();
+
+		try {
+
+			return runner != null;
+
+		} finally {
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stops updating the universe continuously, waiting for the current slice to complete.
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 * @since 0.0.0
+	 */
+	public void pause() throws InterruptedException {
+
+		Thread stoppedRunner;
+
+		lock.lock();
+
+		try {
+
+			stoppedRunner = runner;
+			runner = null;
+
+		} finally {
+
+			lock.unlock();
+		}
+
+		if (stoppedRunner != null) {
+
+			stoppedRunner.interrupt();
+			stoppedRunner.join();
+		}
+	}
+
+	/**
+	 * Saves the current state of the universe.
+	 *
+	 * @return index of the checkpoint
+	 * @throws IllegalStateException if there are already {@value #MAXIMUM_CHECKPOINT_COUNT} checkpoints
+	 * @since 0.0.0
+	 */
+	public int checkpoint() {
+
+		lock.lock();
+
+		try {
+
+			if (checkpoints.size() == MAXIMUM_CHECKPOINT_COUNT) {
+				throw new IllegalStateException("too many checkpoints");
+			}
+
+			var states = new double[universe.getStateLength()];
+			universe.saveState(states, 0);
+			checkpoints.add(new Checkpoint(universe.getTime(), stepCount, states));
+
+			return checkpoints.size() - 1;
+
+		} finally {
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Restores the universe to a checkpoint.
+	 *
+	 * @param checkpointIndex index of the checkpoint
+	 * @throws NoSuchElementException if there is no such checkpoint
+	 * @since 0.0.0
+	 */
+	public void restore(int checkpointIndex) {
+
+		lock.lock();
+
+		try {
+
+			if (checkpointIndex < 0 || checkpointIndex >= checkpoints.size()) {
+				throw new NoSuchElementException("no checkpoint " + checkpointIndex);
+			}
+
+			var checkpoint = checkpoints.get(checkpointIndex);
+			universe.restoreState(checkpoint.states, 0);
+			universe.setTime(checkpoint.time);
+			stepCount = checkpoint.stepCount;
+
+		} finally {
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @param withBodies whether to include the states of the bodies
+	 * @return JSON description of this session
+	 * @since 0.0.0
+	 */
+	public String toJson(boolean withBodies) {
+
+		lock.lock();
+
+		try {
+
+			var bodies = universe.getBodies();
+			var json = new StringBuilder();
+
+			json.append("{\"id\":").append(id);
+			json.append(",\"time\":").append(universe.getTime());
+			json.append(",\"stepCount\":").append(stepCount);
+			json.append(",\"bodyCount\":").append(bodies.size());
+			json.append(",\"checkpointCount\":").append(checkpoints.size());
+			json.append(",\"running\":").append(runner != null);
+
+			if (withBodies) {
+
+				json.append(",\"bodies\":[");
+
+				for (var index = 0; index < bodies.size(); index++) {
+
+					if (index > 0) {
+						json.append(',');
+					}
+
+					appendBody(json, bodies.get(index));
+				}
+
+				json.append(']');
+			}
+
+			return json.append('}').toString();
+
+		} finally {
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @param json JSON being built
+	 * @param body body to append
+	 * @since 0.0.0
+	 */
+	private void appendBody(StringBuilder json, Body body) {
+
+		json.append("{\"name\":");
+		SimulationServer.appendString(json, body.toString());
+		json.append(",\"mass\":").append(body.getMass());
+
+		if (universe instanceof UniverseModel3D universe3D) {
+
+			var position = universe3D.getPosition(body);
+			var velocity = universe3D.getVelocity(body);
+
+			json.append(",\"x\":").append(position.getX());
+			json.append(",\"y\":").append(position.getY());
+			json.append(",\"z\":").append(position.getZ());
+			json.append(",\"vx\":").append(velocity.getX());
+			json.append(",\"vy\":").append(velocity.getY());
+			json.append(",\"vz\":").append(velocity.getZ());
+
+		} else {
+
+			var position = body.getPosition();
+			var velocity = body.getVelocity();
+
+			json.append(",\"x\":").append(position.getX());
+			json.append(",\"y\":").append(position.getY());
+			json.append(",\"vx\":").append(velocity.getX());
+			json.append(",\"vy\":").append(velocity.getY());
+		}
+
+		json.append('}');
+	}
+
+	/**
+	 * @return identifier of this session
+	 * @since 0.0.0
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * @return universe of this session
+	 * @since 0.0.0
+	 */
+	public AbstractUniverseModel getUniverse() {
+		return universe;
+	}
+
+	/**
+	 * @return number of updates since the creation of this session
+	 * @since 0.0.0
+	 */
+	public long getStepCount() {
+		return stepCount;
+	}
+
+	/**
+	 * saved state of a universe
+	 *
+	 * @param time simulation time, in seconds
+	 * @param stepCount number of updates of the session
+	 * @param states states of the bodies
+	 * @author Jonathan Guéhenneux
+	 * @since 0.0.0
+	 */
+	private record Checkpoint(double time, long stepCount, double[] states) {
+
+	}
+}
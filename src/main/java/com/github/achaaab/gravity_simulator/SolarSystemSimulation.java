@@ -1,10 +1,24 @@
 package com.github.achaaab.gravity_simulator;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import javax.management.JMException;
+import java.io.IOException;
+import java.lang.System.Logger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.lang.Math.toRadians;
+import static java.lang.System.Logger.Level.ERROR;
+import static java.lang.System.Logger.Level.INFO;
 import static javafx.scene.paint.Color.BLUE;
 import static javafx.scene.paint.Color.BROWN;
 import static javafx.scene.paint.Color.DARKGRAY;
@@ -23,17 +37,21 @@ import static javafx.scene.paint.Color.YELLOW;
  *     <li>only gravitational forces are computed</li>
  *     <li>only Newton / Kepler laws are applied</li>
  *     <li>only 8 planets are rendered, plus the moon</li>
- *     <li>all bodies are modelled as discs, in a 2-dimensional space</li>
- *     <li>all planets and satellites orbit in same plan</li>
- *     <li>all planets and satellites start at their apoapsis</li>
+ *     <li>all bodies are modelled as discs, in a 2-dimensional space, unless {@code --dimension=3} is given</li>
+ *     <li>all planets and satellites orbit in same plan, in 2 dimensions</li>
+ *     <li>all planets and satellites start at their apoapsis, which is on their line of nodes in 3 dimensions</li>
  *     <li>time discretization can lead to significant trajectory errors,
- *     this is attenuated by limiting time step to 24 hours</li>
+ *     this is attenuated by limiting time step to 24 hours, and by integrating the earth and the moon apart with
+ *     smaller steps, if {@code --integration=hierarchical} is given (in 2 dimensions only), the time step being
+ *     then limited to 4 days</li>
  * </ul>
  * @author Jonathan Guéhenneux
  * @since 0.0.0
  */
 public class SolarSystemSimulation extends Application {
 
+	private static final Logger LOGGER = System.getLogger(SolarSystemSimulation.class.getName());
+
 	private static final double SUN_RADIUS = 696_340_000;
 	private static final double SUN_MASS = 1.9884E30;
 
@@ -41,51 +59,224 @@ public class SolarSystemSimulation extends Application {
 	private static final double MERCURY_MASS = 3.3011E23;
 	private static final double MERCURY_APHELION = 6.98169E10;
 	private static final double MERCURY_PERIHELION = 4.60012E10;
+	private static final double MERCURY_INCLINATION = toRadians(7.005);
+	private static final double MERCURY_ASCENDING_NODE = toRadians(48.331);
 
 	private static final double VENUS_RADIUS = 6_051_800;
 	private static final double VENUS_MASS = 4.8675E24;
 	private static final double VENUS_APHELION = 1.08939E11;
 	private static final double VENUS_PERIHELION = 1.07477E11;
+	private static final double VENUS_INCLINATION = toRadians(3.39458);
+	private static final double VENUS_ASCENDING_NODE = toRadians(76.68);
 
 	private static final double EARTH_RADIUS = 6_371_000;
 	private static final double EARTH_MASS = 5.9722E24;
 	private static final double EARTH_APHELION = 1.521E11;
 	private static final double EARTH_PERIHELION = 1.47095E11;
+	private static final double EARTH_INCLINATION = 0;
+	private static final double EARTH_ASCENDING_NODE = 0;
 
 	private static final double MOON_RADIUS = 1_737_400;
 	private static final double MOON_MASS = 7.342E22;
 	private static final double MOON_APOGEE = 405_400_000;
 	private static final double MOON_PERIGEE = 362_600_000;
+	private static final double MOON_INCLINATION = toRadians(5.145);
+	private static final double MOON_ASCENDING_NODE = toRadians(125.08);
 
 	private static final double MARS_RADIUS = 3_389_500;
 	private static final double MARS_MASS = 6.4171E23;
 	private static final double MARS_APHELION = 2.49261E11;
 	private static final double MARS_PERIHELION = 2.0665E11;
+	private static final double MARS_INCLINATION = toRadians(1.85);
+	private static final double MARS_ASCENDING_NODE = toRadians(49.558);
 
 	private static final double JUPITER_RADIUS = 69_911_000;
 	private static final double JUPITER_MASS = 1.8982E27;
 	private static final double JUPITER_APHELION = 8.16363E11;
 	private static final double JUPITER_PERIHELION = 7.40595E11;
+	private static final double JUPITER_INCLINATION = toRadians(1.303);
+	private static final double JUPITER_ASCENDING_NODE = toRadians(100.464);
 
 	private static final double SATURN_RADIUS = 58_232_000;
 	private static final double SATURN_MASS = 5.6834E26;
 	private static final double SATURN_APHELION = 1.51450E12;
 	private static final double SATURN_PERIHELION = 1.35255E12;
+	private static final double SATURN_INCLINATION = toRadians(2.485);
+	private static final double SATURN_ASCENDING_NODE = toRadians(113.665);
 
 	private static final double URANUS_RADIUS = 25_362_000;
 	private static final double URANUS_MASS = 8.6810E25;
 	private static final double URANUS_APHELION = 3.00639E12;
 	private static final double URANUS_PERIHELION = 2.73556E12;
+	private static final double URANUS_INCLINATION = toRadians(0.773);
+	private static final double URANUS_ASCENDING_NODE = toRadians(74.006);
 
 	private static final double NEPTUNE_RADIUS = 24_622_000;
 	private static final double NEPTUNE_MASS = 1.02413E26;
 	private static final double NEPTUNE_APHELION = 4.54E12;
 	private static final double NEPTUNE_PERIHELION = 4.46E12;
+	private static final double NEPTUNE_INCLINATION = toRadians(1.77);
+	private static final double NEPTUNE_ASCENDING_NODE = toRadians(131.784);
+
+	private static final int PUBLISHER_INTERVAL = 1;
+	private static final int PUBLISHER_QUEUE_CAPACITY = 16;
+
+	private static final int EXPORT_FRAME_COUNT = 1_900;
+
+	private StatePublisher publisher;
+	private volatile int exitStatus;
 
 	@Override
-	public void start(Stage stage) {
+	public void start(Stage stage) throws IOException, JMException {
+
+		var threeDimensional = "3".equals(getParameters().getNamed().get("dimension"));
+		var hierarchical = "hierarchical".equals(getParameters().getNamed().get("integration"));
+
+		var universe = threeDimensional ? new UniverseModel3D() :
+				hierarchical ? new HierarchicalUniverseModel() :
+				new UniverseModel();
+
+		// pairs are integrated apart, the other bodies only need steps following their own orbits
+		var maximumDeltaTime = hierarchical && !threeDimensional ?
+				UniverseController.HIERARCHICAL_MAXIMUM_DELTA_TIME :
+				UniverseController.MAXIMUM_DELTA_TIME;
+
+		var scenarioPaths = getParameters().getUnnamed();
+
+		if (scenarioPaths.isEmpty()) {
+			addSolarSystem(universe);
+		} else {
+			loadScenarios(universe, scenarioPaths);
+		}
+
+		var publishedAddress = getParameters().getNamed().get("publish");
+
+		if (publishedAddress != null) {
+
+			publisher = new StatePublisher(toSocketAddress(publishedAddress),
+					PUBLISHER_INTERVAL, PUBLISHER_QUEUE_CAPACITY);
+
+			universe.addUpdateListener(publisher);
+		}
+
+		var exportDirectory = getParameters().getNamed().get("export");
+
+		if (exportDirectory != null) {
+
+			export(universe, Path.of(exportDirectory), maximumDeltaTime);
+			return;
+		}
+
+		var view = new UniverseView();
+		var controller = new UniverseController(universe, view, maximumDeltaTime);
+		controller.getPerformanceMonitor().register();
+
+		var root = new Group(view);
+		var scene = new Scene(root);
+		stage.setScene(scene);
+		scene.setOnKeyPressed(controller);
+
+		stage.setTitle("solar system simulation");
+		stage.show();
+	}
+
+	@Override
+	public void stop() throws IOException {
+
+		if (publisher != null) {
+			publisher.close();
+		}
+
+		if (exitStatus != 0) {
+			System.exit(exitStatus);
+		}
+	}
 
-		var universe = new UniverseModel();
+	/**
+	 * Exports frames of the universe as PNG files, without showing any stage, then exits, with a status of 1 if the
+	 * export failed. The simulation and the encoding run on other threads, drawing runs on the JavaFX application
+	 * thread. The number of frames is given by {@code --frames}, {@value #EXPORT_FRAME_COUNT} by default (about a
+	 * year at the default time scale).
+	 *
+	 * @param universe universe to export
+	 * @param directory directory in which to write the frames
+	 * @param maximumDeltaTime maximum duration of an update, in seconds
+	 * @since 0.0.0
+	 */
+	private void export(AbstractUniverseModel universe, Path directory, double maximumDeltaTime) {
+
+		var frameCount = Integer.parseInt(getParameters().getNamed().getOrDefault("frames",
+				Integer.toString(EXPORT_FRAME_COUNT)));
+
+		var bodies = universe.getBodies();
+		var view = new UniverseView();
+		view.anchor().setValue(bodies.isEmpty() ? null : bodies.get(0));
+
+		var trails = new Trails(UniverseController.TRAIL_CAPACITY, UniverseController.TRAIL_RESOLUTION,
+				UniverseController.TRAIL_MEMORY_BUDGET);
+		var exporter = new FrameExporter(universe, view, trails);
+		var frameDuration = UniverseController.FRAME_DURATION.toSeconds() * UniverseController.DEFAULT_TIME_SCALE;
+		var workerCount = Runtime.getRuntime().availableProcessors();
+
+		var exportThread = new Thread(() -> {
+
+			try (var writer = new PngSequenceWriter(directory, (int) view.getWidth(), (int) view.getHeight(),
+					workerCount, 2 * workerCount)) {
+
+				exporter.export(writer, frameCount, frameDuration, maximumDeltaTime);
+				LOGGER.log(INFO, frameCount + " frames exported to " + directory.toAbsolutePath());
+
+			} catch (IOException | InterruptedException | RuntimeException exception) {
+
+				LOGGER.log(ERROR, "frames could not be exported to " + directory.toAbsolutePath(), exception);
+				exitStatus = 1;
+
+			} finally {
+
+				Platform.exit();
+			}
+
+		}, "frame exporter");
+
+		exportThread.start();
+	}
+
+	/**
+	 * @param address port number, for a TCP socket on the loopback interface, or path of a Unix domain socket
+	 * @return socket address
+	 * @since 0.0.0
+	 */
+	private static SocketAddress toSocketAddress(String address) {
+
+		return address.chars().allMatch(Character::isDigit) ?
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address)) :
+				UnixDomainSocketAddress.of(address);
+	}
+
+	/**
+	 * Loads scenario files in the given universe.
+	 *
+	 * @param universe universe in which to load the scenarios
+	 * @param scenarioPaths paths of the scenario files, CSV or binary
+	 * @throws IOException if an I/O error occurs while reading a scenario file
+	 * @since 0.0.0
+	 */
+	private void loadScenarios(AbstractUniverseModel universe, List<String> scenarioPaths) throws IOException {
+
+		var loader = new ScenarioLoader(universe);
+
+		for (var scenarioPath : scenarioPaths) {
+			loader.load(Path.of(scenarioPath));
+		}
+	}
+
+	/**
+	 * Adds the sun, the 8 planets and the moon to the given universe.
+	 *
+	 * @param universe universe in which to add the solar system
+	 * @since 0.0.0
+	 */
+	public static void addSolarSystem(AbstractUniverseModel universe) {
 
 		var sun = new Body("Sun", SUN_RADIUS, SUN_MASS, YELLOW);
 		var mercury = new Body("Mercury", MERCURY_RADIUS, MERCURY_MASS, DARKGRAY);
@@ -98,15 +289,24 @@ public class SolarSystemSimulation extends Application {
 		var uranus = new Body("Uranus", URANUS_RADIUS, URANUS_MASS, WHITE);
 		var neptune = new Body("Neptune", NEPTUNE_RADIUS, NEPTUNE_MASS, LIGHTBLUE);
 
-		var mercuryOrbit = new EllipticOrbit(sun, mercury, MERCURY_APHELION, MERCURY_PERIHELION, true);
-		var venusOrbit = new EllipticOrbit(sun, venus, VENUS_APHELION, VENUS_PERIHELION, true);
-		var earthOrbit = new EllipticOrbit(sun, earth, EARTH_APHELION, EARTH_PERIHELION, true);
-		var moonOrbit = new EllipticOrbit(earth, moon, MOON_APOGEE, MOON_PERIGEE, true);
-		var marsOrbit = new EllipticOrbit(sun, mars, MARS_APHELION, MARS_PERIHELION, true);
-		var jupiterOrbit = new EllipticOrbit(sun, jupiter, JUPITER_APHELION, JUPITER_PERIHELION, true);
-		var saturnOrbit = new EllipticOrbit(sun, saturn, SATURN_APHELION, SATURN_PERIHELION, true);
-		var uranusOrbit = new EllipticOrbit(sun, uranus, URANUS_APHELION, URANUS_PERIHELION, true);
-		var neptuneOrbit = new EllipticOrbit(sun, neptune, NEPTUNE_APHELION, NEPTUNE_PERIHELION, true);
+		var mercuryOrbit = new EllipticOrbit(sun, mercury, MERCURY_APHELION, MERCURY_PERIHELION, true,
+				MERCURY_INCLINATION, MERCURY_ASCENDING_NODE);
+		var venusOrbit = new EllipticOrbit(sun, venus, VENUS_APHELION, VENUS_PERIHELION, true,
+				VENUS_INCLINATION, VENUS_ASCENDING_NODE);
+		var earthOrbit = new EllipticOrbit(sun, earth, EARTH_APHELION, EARTH_PERIHELION, true,
+				EARTH_INCLINATION, EARTH_ASCENDING_NODE);
+		var moonOrbit = new EllipticOrbit(earth, moon, MOON_APOGEE, MOON_PERIGEE, true,
+				MOON_INCLINATION, MOON_ASCENDING_NODE);
+		var marsOrbit = new EllipticOrbit(sun, mars, MARS_APHELION, MARS_PERIHELION, true,
+				MARS_INCLINATION, MARS_ASCENDING_NODE);
+		var jupiterOrbit = new EllipticOrbit(sun, jupiter, JUPITER_APHELION, JUPITER_PERIHELION, true,
+				JUPITER_INCLINATION, JUPITER_ASCENDING_NODE);
+		var saturnOrbit = new EllipticOrbit(sun, saturn, SATURN_APHELION, SATURN_PERIHELION, true,
+				SATURN_INCLINATION, SATURN_ASCENDING_NODE);
+		var uranusOrbit = new EllipticOrbit(sun, uranus, URANUS_APHELION, URANUS_PERIHELION, true,
+				URANUS_INCLINATION, URANUS_ASCENDING_NODE);
+		var neptuneOrbit = new EllipticOrbit(sun, neptune, NEPTUNE_APHELION, NEPTUNE_PERIHELION, true,
+				NEPTUNE_INCLINATION, NEPTUNE_ASCENDING_NODE);
 
 		universe.addBody(sun);
 		universe.addOrbitingBody(mercuryOrbit);
@@ -118,16 +318,5 @@ public class SolarSystemSimulation extends Application {
 		universe.addOrbitingBody(saturnOrbit);
 		universe.addOrbitingBody(uranusOrbit);
 		universe.addOrbitingBody(neptuneOrbit);
-
-		var view = new UniverseView();
-		var controller = new UniverseController(universe, view);
-
-		var root = new Group(view);
-		var scene = new Scene(root);
-		stage.setScene(scene);
-		scene.setOnKeyPressed(controller);
-
-		stage.setTitle("solar system simulation");
-		stage.show();
 	}
 }
@@ -0,0 +1,31 @@
+package com.github.achaaab.gravity_simulator;
+
+/**
+ * state of a universe received from a {@link StatePublisher}
+ *
+ * @param updateNumber number of updates of the universe since the publisher was registered
+ * @param time simulation time, in seconds
+ * @param bodyCount number of bodies
+ * @param componentCount number of doubles per body: x, y, vx, vy in 2 dimensions, x, y, z, vx, vy, vz in 3 dimensions
+ * @param states states of the bodies, {@code componentCount} doubles per body
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public record StateFrame(
+
+		long updateNumber,
+		double time,
+		int bodyCount,
+		int componentCount,
+		double[] states) {
+
+	/**
+	 * @param bodyIndex index of a body
+	 * @param component index of a component
+	 * @return component of the state of the body
+	 * @since 0.0.0
+	 */
+	public double getState(int bodyIndex, int component) {
+		return states[bodyIndex * componentCount + component];
+	}
+}
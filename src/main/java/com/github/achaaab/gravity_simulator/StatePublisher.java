@@ -0,0 +1,527 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.System.Logger;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.System.Logger.Level.ERROR;
+import static java.net.StandardProtocolFamily.UNIX;
+import static java.nio.channels.SelectionKey.OP_ACCEPT;
+import static java.nio.channels.SelectionKey.OP_WRITE;
+
+/**
+ * Streams the state of a universe to many subscribers, over TCP or Unix domain socket channels. Every k-th update,
+ * the states of the bodies are encoded once in a direct buffer, taken from a pool. The same buffer is then queued for
+ * every subscriber, without copy, and returned to the pool once sent to (or dropped by) all of them.
+ * <p>
+ * Each subscriber has a bounded queue of frames. When a slow subscriber lets its queue fill up, the oldest queued
+ * frame is dropped, so the updating thread never waits for the network. Frames are written by a single sender thread,
+ * multiplexing all subscribers with a selector.
+ * <p>
+ * A frame is made of a header of {@value #HEADER_SIZE} bytes: frame size (int, header included), magic number (int),
+ * update number (long), simulation time (double), body count (int), number of doubles per body (int), followed by the
+ * states of the bodies, as saved by {@link AbstractUniverseModel#saveState(DoubleBuffer)}. Big-endian byte order is
+ * used.
+ * <p>
+ * If the sender thread fails, all subscribers are disconnected and nothing is published anymore. The failure is
+ * available from {@link #getFailure()} and thrown by {@link #close()}.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class StatePublisher implements UpdateListener, Closeable {
+
+	/**
+	 * "GSST", gravity simulator state
+	 */
+	public static final int MAGIC_NUMBER = 0x47535354;
+
+	/**
+	 * size of a frame header, in bytes
+	 */
+	public static final int HEADER_SIZE = 32;
+
+	private static final Logger LOGGER = System.getLogger(StatePublisher.class.getName());
+
+	private final int interval;
+	private final int queueCapacity;
+	private final ServerSocketChannel serverChannel;
+	private final SocketAddress address;
+	private final Selector selector;
+	private final Thread sender;
+
+	private final List<Subscription> subscriptions;
+	private final ConcurrentLinkedQueue<Frame> pool;
+
+	private long updateCount;
+	private final AtomicLong publishedFrameCount;
+	private final AtomicLong droppedFrameCount;
+	private volatile boolean closed;
+	private volatile IOException failure;
+
+	/**
+	 * Binds the publisher and starts its sender thread.
+	 *
+	 * @param address address to bind, an {@link java.net.InetSocketAddress} or a {@link UnixDomainSocketAddress}
+	 * @param interval number of updates between 2 published frames, 1 to publish every update
+	 * @param queueCapacity maximum number of frames queued per subscriber
+	 * @throws IOException if the address cannot be bound
+	 * @since 0.0.0
+	 */
+	public StatePublisher(SocketAddress address, int interval, int queueCapacity) throws IOException {
+
+		if (interval < 1 || queueCapacity < 1) {
+			throw new IllegalArgumentException("interval and queue capacity must be positive");
+		}
+
+		this.interval = interval;
+		this.queueCapacity = queueCapacity;
+
+		serverChannel = address instanceof UnixDomainSocketAddress ?
+				ServerSocketChannel.open(UNIX) :
+				ServerSocketChannel.open();
+
+		serverChannel.bind(address);
+		serverChannel.configureBlocking(false);
+		this.address = serverChannel.getLocalAddress();
+
+		selector = Selector.open();
+		serverChannel.register(selector, OP_ACCEPT);
+
+		subscriptions = new CopyOnWriteArrayList<>();
+		pool = new ConcurrentLinkedQueue<>();
+
+		updateCount = 0;
+		publishedFrameCount = new AtomicLong();
+		droppedFrameCount = new AtomicLong();
+		closed = false;
+		failure = null;
+
+		sender = new Thread(this::send, "state publisher");
+		sender.setDaemon(true);
+		sender.start();
+	}
+
+	/**
+	 * Publishes a frame every {@code interval} updates, if there is at least one subscriber. Never blocks. Does
+	 * nothing once this publisher is closed or has failed.
+	 *
+	 * @param universe updated universe
+	 * @since 0.0.0
+	 */
+	@Override
+	public void universeUpdated(AbstractUniverseModel universe) {
+
+		updateCount++;
+
+		if (closed || failure != null || subscriptions.isEmpty() || updateCount % interval != 0) {
+			return;
+		}
+
+		var bodyCount = universe.getBodies().size();
+		var componentCount = universe.getComponentCount();
+		var stateLength = bodyCount * componentCount;
+		var frameSize = HEADER_SIZE + stateLength * Double.BYTES;
+		var frame = acquireFrame(frameSize);
+		var buffer = frame.buffer;
+
+		buffer.clear();
+		buffer.putInt(frameSize);
+		buffer.putInt(MAGIC_NUMBER);
+		buffer.putLong(updateCount);
+		buffer.putDouble(universe.getTime());
+		buffer.putInt(bodyCount);
+		buffer.putInt(componentCount);
+
+		// the states are written straight into the frame, without intermediate array
+		universe.saveState(buffer.asDoubleBuffer());
+
+		buffer.limit(frameSize);
+		buffer.position(0);
+
+		// one reference per subscription, plus one held while queuing
+		frame.references.set(1);
+
+		for (var subscription : subscriptions) {
+
+			frame.references.incrementAndGet();
+			subscription.offer(frame);
+		}
+
+		release(frame);
+		publishedFrameCount.incrementAndGet();
+		selector.wakeup();
+	}
+
+	/**
+	 * @param size minimum capacity of the frame, in bytes
+	 * @return a pooled frame, or a new frame if none is available
+	 * @since 0.0.0
+	 */
+	private Frame acquireFrame(int size) {
+
+		var frame = pool.poll();
+
+		while (frame != null && frame.buffer.capacity() < size) {
+			frame = pool.poll();
+		}
+
+		return frame == null ? new Frame(ByteBuffer.allocateDirect(size)) : frame;
+	}
+
+	/**
+	 * Releases a reference to a frame. The frame returns to the pool when it is not referenced anymore.
+	 *
+	 * @param frame frame to release
+	 * @since 0.0.0
+	 */
+	private void release(Frame frame) {
+
+		if (frame.references.decrementAndGet() == 0) {
+			pool.offer(frame);
+		}
+	}
+
+	/**
+	 * Sender loop: accepts subscribers and writes their queued frames, until this publisher is closed. On failure,
+	 * all subscribers are removed, so that their frames return to the pool.
+	 *
+	 * @since 0.0.0
+	 */
+	private void send() {
+
+		try {
+
+			while (!closed) {
+
+				for (var subscription : subscriptions) {
+
+					if (subscription.hasPending()) {
+						subscription.key.interestOps(OP_WRITE);
+					}
+				}
+
+				selector.select();
+
+				var selectedKeys = selector.selectedKeys();
+
+				for (var key : selectedKeys) {
+
+					if (!key.isValid()) {
+						continue;
+					}
+
+					if (key.isAcceptable()) {
+						accept();
+					} else if (key.isWritable()) {
+						write((Subscription) key.attachment());
+					}
+				}
+
+				selectedKeys.clear();
+			}
+
+		} catch (IOException | RuntimeException exception) {
+
+			if (!closed) {
+
+				LOGGER.log(ERROR, "state publisher stopped, subscribers are disconnected", exception);
+
+				for (var subscription : subscriptions) {
+					remove(subscription);
+				}
+
+				failure = exception instanceof IOException ioException ?
+						ioException :
+						new IOException("state publisher failed", exception);
+			}
+		}
+	}
+
+	/**
+	 * Accepts a pending subscriber.
+	 *
+	 * @throws IOException if an I/O error occurs while accepting
+	 * @since 0.0.0
+	 */
+	private void accept() throws IOException {
+
+		var channel = serverChannel.accept();
+
+		if (channel != null) {
+
+			channel.configureBlocking(false);
+			var key = channel.register(selector, 0);
+			var subscription = new Subscription(channel, key);
+			key.attach(subscription);
+			subscriptions.add(subscription);
+		}
+	}
+
+	/**
+	 * Writes as many queued frames as possible to a subscriber, without blocking. A subscriber whose channel fails
+	 * is removed.
+	 *
+	 * @param subscription subscription to serve
+	 * @since 0.0.0
+	 */
+	private void write(Subscription subscription) {
+
+		try {
+
+			while (true) {
+
+				if (subscription.view == null && !subscription.next()) {
+
+					subscription.key.interestOps(0);
+					break;
+				}
+
+				subscription.channel.write(subscription.view);
+
+				if (subscription.view.hasRemaining()) {
+					break;
+				}
+
+				release(subscription.current);
+				subscription.current = null;
+				subscription.view = null;
+			}
+
+		} catch (IOException exception) {
+
+			remove(subscription);
+		}
+	}
+
+	/**
+	 * Removes a subscriber, closing its channel and releasing its frames.
+	 *
+	 * @param subscription subscription to remove
+	 * @since 0.0.0
+	 */
+	private void remove(Subscription subscription) {
+
+		subscriptions.remove(subscription);
+		subscription.key.cancel();
+
+		try {
+			subscription.channel.close();
+		} catch (IOException ignored) {
+			// the subscriber is gone anyway
+		}
+
+		if (subscription.current != null) {
+			release(subscription.current);
+		}
+
+		subscription.clear();
+	}
+
+	/**
+	 * @return address to which subscribers should connect
+	 * @since 0.0.0
+	 */
+	public SocketAddress getAddress() {
+		return address;
+	}
+
+	/**
+	 * @return number of connected subscribers
+	 * @since 0.0.0
+	 */
+	public int getSubscriberCount() {
+		return subscriptions.size();
+	}
+
+	/**
+	 * @return number of published frames
+	 * @since 0.0.0
+	 */
+	public long getPublishedFrameCount() {
+		return publishedFrameCount.get();
+	}
+
+	/**
+	 * @return number of frames dropped because a subscriber was too slow, summed over all subscribers
+	 * @since 0.0.0
+	 */
+	public long getDroppedFrameCount() {
+		return droppedFrameCount.get();
+	}
+
+	/**
+	 * @return failure of the sender thread, {@code null} if it did not fail
+	 * @since 0.0.0
+	 */
+	public IOException getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Stops the sender thread and closes all channels. A Unix domain socket file is deleted.
+	 *
+	 * @throws IOException if an I/O error occurs while closing, or if the sender thread failed
+	 * @since 0.0.0
+	 */
+	@Override
+	public void close() throws IOException {
+
+		closed = true;
+		selector.wakeup();
+
+		try {
+			sender.join();
+		} catch (InterruptedException interruptedException) {
+			Thread.currentThread().interrupt();
+		}
+
+		for (var subscription : subscriptions) {
+			remove(subscription);
+		}
+
+		selector.close();
+		serverChannel.close();
+
+		if (address instanceof UnixDomainSocketAddress unixAddress) {
+			Files.deleteIfExists(unixAddress.getPath());
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * encoded state shared by all subscribers, counting its references
+	 *
+	 * @author Jonathan Guéhenneux
+	 * @since 0.0.0
+	 */
+	private static class Frame {
+
+		private final ByteBuffer buffer;
+		private final AtomicInteger references;
+
+		/**
+		 * @param buffer direct buffer
+		 * @since 0.0.0
+		 */
+		private Frame(ByteBuffer buffer) {
+
+			this.buffer = buffer;
+			references = new AtomicInteger();
+		}
+	}
+
+	/**
+	 * connected subscriber, with its bounded queue of frames
+	 *
+	 * @author Jonathan Guéhenneux
+	 * @since 0.0.0
+	 */
+	private class Subscription {
+
+		private final SocketChannel channel;
+		private final SelectionKey key;
+		private final ArrayDeque<Frame> queue;
+
+		private Frame current;
+		private ByteBuffer view;
+		private boolean removed;
+
+		/**
+		 * @param channel channel of the subscriber
+		 * @param key selection key of the channel
+		 * @since 0.0.0
+		 */
+		private Subscription(SocketChannel channel, SelectionKey key) {
+
+			this.channel = channel;
+			this.key = key;
+
+			queue = new ArrayDeque<>(queueCapacity);
+			current = null;
+			view = null;
+			removed = false;
+		}
+
+		/**
+		 * Queues a frame, dropping the oldest queued frame if the queue is full. A frame offered after the subscription
+		 * was removed, concurrently with the publication, is released at once.
+		 *
+		 * @param frame frame to queue
+		 * @since 0.0.0
+		 */
+		private synchronized void offer(Frame frame) {
+
+			if (removed) {
+
+				release(frame);
+				return;
+			}
+
+			if (queue.size() == queueCapacity) {
+
+				release(queue.poll());
+				droppedFrameCount.incrementAndGet();
+			}
+
+			queue.offer(frame);
+		}
+
+		/**
+		 * Takes the next queued frame, with its own view of the shared buffer.
+		 *
+		 * @return whether there was a queued frame
+		 * @since 0.0.0
+		 */
+		private synchronized boolean next() {
+
+			current = queue.poll();
+
+			if (current != null) {
+				view = current.buffer.duplicate();
+			}
+
+			return current != null;
+		}
+
+		/**
+		 * @return whether there are queued frames
+		 * @since 0.0.0
+		 */
+		private synchronized boolean hasPending() {
+			return !queue.isEmpty();
+		}
+
+		/**
+		 * Releases all queued frames, and any frame offered later.
+		 *
+		 * @since 0.0.0
+		 */
+		private synchronized void clear() {
+
+			removed = true;
+
+			while (!queue.isEmpty()) {
+				release(queue.poll());
+			}
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import static com.github.achaaab.gravity_simulator.StatePublisher.HEADER_SIZE;
+import static com.github.achaaab.gravity_simulator.StatePublisher.MAGIC_NUMBER;
+import static java.net.StandardProtocolFamily.UNIX;
+
+/**
+ * Blocking client of a {@link StatePublisher}, receiving frames one at a time. It stands in for external consumers
+ * and documents the frame format.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class StateSubscriber implements Closeable {
+
+	/**
+	 * default maximum size of a frame, in bytes: 64 MiB, about a million bodies in 3 dimensions
+	 */
+	public static final int DEFAULT_MAXIMUM_FRAME_SIZE = 64 << 20;
+
+	private final SocketChannel channel;
+	private final int maximumFrameSize;
+	private ByteBuffer buffer;
+
+	/**
+	 * Connects to a publisher, accepting frames up to {@value #DEFAULT_MAXIMUM_FRAME_SIZE} bytes.
+	 *
+	 * @param address address of the publisher
+	 * @throws IOException if the connection fails
+	 * @since 0.0.0
+	 */
+	public StateSubscriber(SocketAddress address) throws IOException {
+		this(address, DEFAULT_MAXIMUM_FRAME_SIZE);
+	}
+
+	/**
+	 * Connects to a publisher.
+	 *
+	 * @param address address of the publisher
+	 * @param maximumFrameSize maximum size of a frame, in bytes, so that a corrupted header does not allocate a huge
+	 * buffer
+	 * @throws IOException if the connection fails
+	 * @since 0.0.0
+	 */
+	public StateSubscriber(SocketAddress address, int maximumFrameSize) throws IOException {
+
+		if (maximumFrameSize < HEADER_SIZE) {
+			throw new IllegalArgumentException("maximum frame size is smaller than a header: " + maximumFrameSize);
+		}
+
+		this.maximumFrameSize = maximumFrameSize;
+
+		channel = address instanceof UnixDomainSocketAddress ?
+				SocketChannel.open(UNIX) :
+				SocketChannel.open();
+
+		channel.connect(address);
+		buffer = ByteBuffer.allocateDirect(HEADER_SIZE);
+	}
+
+	/**
+	 * Waits for the next frame.
+	 *
+	 * @return received frame
+	 * @throws EOFException if the publisher closed the connection
+	 * @throws StreamCorruptedException if the received data is not a frame, or a frame larger than the maximum size
+	 * @throws IOException if an I/O error occurs while receiving
+	 * @since 0.0.0
+	 */
+	public StateFrame receive() throws IOException {
+
+		buffer.clear().limit(HEADER_SIZE);
+		read();
+
+		var frameSize = buffer.getInt(0);
+		var magicNumber = buffer.getInt(4);
+
+		if (magicNumber != MAGIC_NUMBER || frameSize < HEADER_SIZE) {
+			throw new StreamCorruptedException("not a state frame");
+		}
+
+		if (frameSize > maximumFrameSize) {
+			throw new StreamCorruptedException("frame of " + frameSize + " bytes, larger than " + maximumFrameSize);
+		}
+
+		if (buffer.capacity() < frameSize) {
+
+			var header = buffer.flip();
+			buffer = ByteBuffer.allocateDirect(frameSize).put(header);
+		}
+
+		buffer.limit(frameSize).position(HEADER_SIZE);
+		read();
+
+		var updateNumber = buffer.getLong(8);
+		var time = buffer.getDouble(16);
+		var bodyCount = buffer.getInt(24);
+		var componentCount = buffer.getInt(28);
+
+		var states = new double[(frameSize - HEADER_SIZE) / Double.BYTES];
+		buffer.position(HEADER_SIZE);
+		buffer.asDoubleBuffer().get(states);
+
+		return new StateFrame(updateNumber, time, bodyCount, componentCount, states);
+	}
+
+	/**
+	 * Reads until the buffer is full up to its limit.
+	 *
+	 * @throws EOFException if the publisher closed the connection
+	 * @throws IOException if an I/O error occurs while reading
+	 * @since 0.0.0
+	 */
+	private void read() throws IOException {
+
+		while (buffer.hasRemaining()) {
+
+			if (channel.read(buffer) == -1) {
+				throw new EOFException("publisher closed the connection");
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,202 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense output of a universe update: states of bodies between the start and the end of the update are interpolated
+ * with cubic Hermite polynomials, matching positions and velocities at both ends.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class StepInterpolator implements BodyStates {
+
+	private final Map<Body, Integer> indices;
+	private Body[] indexedBodies;
+
+	private double[] startPositionsX;
+	private double[] startPositionsY;
+	private double[] startVelocitiesX;
+	private double[] startVelocitiesY;
+	private double[] endPositionsX;
+	private double[] endPositionsY;
+	private double[] endVelocitiesX;
+	private double[] endVelocitiesY;
+
+	private double startTime;
+	private double deltaTime;
+	private double time;
+
+	/**
+	 * @since 0.0.0
+	 */
+	public StepInterpolator() {
+
+		indices = new IdentityHashMap<>();
+		indexedBodies = new Body[0];
+		allocate(0);
+	}
+
+	/**
+	 * Saves the states of the bodies at the start of an update.
+	 *
+	 * @param bodies bodies of the universe
+	 * @param startTime simulation time at the start of the update, in seconds
+	 * @since 0.0.0
+	 */
+	public void saveStart(List<Body> bodies, double startTime) {
+
+		var bodyCount = bodies.size();
+
+		if (!isIndexed(bodies)) {
+
+			indices.clear();
+			indexedBodies = bodies.toArray(new Body[bodyCount]);
+
+			for (var index = 0; index < bodyCount; index++) {
+				indices.put(indexedBodies[index], index);
+			}
+
+			allocate(bodyCount);
+		}
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			var body = bodies.get(index);
+			var position = body.getPosition();
+			var velocity = body.getVelocity();
+
+			startPositionsX[index] = position.getX();
+			startPositionsY[index] = position.getY();
+			startVelocitiesX[index] = velocity.getX();
+			startVelocitiesY[index] = velocity.getY();
+		}
+
+		this.startTime = startTime;
+	}
+
+	/**
+	 * @param bodies bodies of the universe
+	 * @return whether the bodies are the indexed ones, in the same order
+	 * @since 0.0.0
+	 */
+	private boolean isIndexed(List<Body> bodies) {
+
+		var bodyCount = bodies.size();
+		var indexed = bodyCount == indexedBodies.length;
+
+		for (var index = 0; indexed && index < bodyCount; index++) {
+			indexed = bodies.get(index) == indexedBodies[index];
+		}
+
+		return indexed;
+	}
+
+	/**
+	 * Saves the states of the bodies at the end of an update.
+	 *
+	 * @param bodies bodies of the universe, the same as given to {@link #saveStart(List, double)}
+	 * @param deltaTime duration of the update, in seconds
+	 * @since 0.0.0
+	 */
+	public void saveEnd(List<Body> bodies, double deltaTime) {
+
+		var bodyCount = bodies.size();
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			var body = bodies.get(index);
+			var position = body.getPosition();
+			var velocity = body.getVelocity();
+
+			endPositionsX[index] = position.getX();
+			endPositionsY[index] = position.getY();
+			endVelocitiesX[index] = velocity.getX();
+			endVelocitiesY[index] = velocity.getY();
+		}
+
+		this.deltaTime = deltaTime;
+		time = startTime + deltaTime;
+	}
+
+	/**
+	 * @param time simulation time at which to interpolate states, in seconds
+	 * @since 0.0.0
+	 */
+	public void setTime(double time) {
+		this.time = time;
+	}
+
+	/**
+	 * @return simulation time at the start of the update, in seconds
+	 * @since 0.0.0
+	 */
+	public double getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return simulation time at the end of the update, in seconds
+	 * @since 0.0.0
+	 */
+	public double getEndTime() {
+		return startTime + deltaTime;
+	}
+
+	@Override
+	public Vector2 getPosition(Body body) {
+
+		int index = indices.get(body);
+		var s = (time - startTime) / deltaTime;
+		var s2 = s * s;
+		var s3 = s2 * s;
+
+		var h00 = 2 * s3 - 3 * s2 + 1;
+		var h10 = (s3 - 2 * s2 + s) * deltaTime;
+		var h01 = -2 * s3 + 3 * s2;
+		var h11 = (s3 - s2) * deltaTime;
+
+		return new Vector2(
+				h00 * startPositionsX[index] + h10 * startVelocitiesX[index] +
+						h01 * endPositionsX[index] + h11 * endVelocitiesX[index],
+				h00 * startPositionsY[index] + h10 * startVelocitiesY[index] +
+						h01 * endPositionsY[index] + h11 * endVelocitiesY[index]);
+	}
+
+	@Override
+	public Vector2 getVelocity(Body body) {
+
+		int index = indices.get(body);
+		var s = (time - startTime) / deltaTime;
+		var s2 = s * s;
+
+		var d00 = (6 * s2 - 6 * s) / deltaTime;
+		var d10 = 3 * s2 - 4 * s + 1;
+		var d01 = (6 * s - 6 * s2) / deltaTime;
+		var d11 = 3 * s2 - 2 * s;
+
+		return new Vector2(
+				d00 * startPositionsX[index] + d10 * startVelocitiesX[index] +
+						d01 * endPositionsX[index] + d11 * endVelocitiesX[index],
+				d00 * startPositionsY[index] + d10 * startVelocitiesY[index] +
+						d01 * endPositionsY[index] + d11 * endVelocitiesY[index]);
+	}
+
+	/**
+	 * @param bodyCount number of bodies
+	 * @since 0.0.0
+	 */
+	private void allocate(int bodyCount) {
+
+		startPositionsX = new double[bodyCount];
+		startPositionsY = new double[bodyCount];
+		startVelocitiesX = new double[bodyCount];
+		startVelocitiesY = new double[bodyCount];
+		endPositionsX = new double[bodyCount];
+		endPositionsY = new double[bodyCount];
+		endVelocitiesX = new double[bodyCount];
+		endVelocitiesY = new double[bodyCount];
+	}
+}
@@ -0,0 +1,150 @@
+package com.github.achaaab.gravity_simulator;
+
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Token bucket limiting the number of updates per second. Tokens are refilled lazily when steps are acquired,
+ * so an idle limiter costs nothing. Waiting is done by sleeping, which is cheap on a virtual thread.
+ * Not thread-safe: callers must hold the lock of the limited session.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class StepRateLimiter {
+
+	private final double rate;
+	private final double burst;
+	private final Clock clock;
+
+	private double tokens;
+	private long refillTime;
+
+	/**
+	 * Creates a limiter measuring time with {@link System#nanoTime()}.
+	 *
+	 * @param rate maximum number of steps per second, on average
+	 * @param burst maximum number of steps that can be acquired without waiting, after a pause
+	 * @throws IllegalArgumentException if the rate is not finite and positive, or if the burst is not finite and at
+	 * least 1
+	 * @since 0.0.0
+	 */
+	public StepRateLimiter(double rate, double burst) {
+		this(rate, burst, Clock.SYSTEM);
+	}
+
+	/**
+	 * @param rate maximum number of steps per second, on average
+	 * @param burst maximum number of steps that can be acquired without waiting, after a pause
+	 * @param clock clock measuring time and waiting
+	 * @throws IllegalArgumentException if the rate is not finite and positive, or if the burst is not finite and at
+	 * least 1
+	 * @since 0.0.0
+	 */
+	StepRateLimiter(double rate, double burst, Clock clock) {
+
+		if (!Double.isFinite(rate) || rate <= 0 || !Double.isFinite(burst) || burst < 1) {
+			throw new IllegalArgumentException("rate must be finite and positive, burst finite and at least 1");
+		}
+
+		this.rate = rate;
+		this.burst = burst;
+		this.clock = clock;
+
+		tokens = burst;
+		refillTime = clock.nanoTime();
+	}
+
+	/**
+	 * Acquires steps, waiting as long as needed to stay under the rate.
+	 *
+	 * @param stepCount number of steps to acquire, at most the burst
+	 * @throws InterruptedException if interrupted while waiting
+	 * @since 0.0.0
+	 */
+	public void acquire(int stepCount) throws InterruptedException {
+
+		if (stepCount > burst) {
+			throw new IllegalArgumentException("cannot acquire more steps than the burst at once");
+		}
+
+		refill();
+
+		while (tokens < stepCount) {
+
+			var waitingTime = (long) ((stepCount - tokens) / rate * 1.0E9);
+			clock.sleep(waitingTime + 1);
+			refill();
+		}
+
+		tokens -= stepCount;
+	}
+
+	/**
+	 * @return maximum number of steps per second
+	 * @since 0.0.0
+	 */
+	public double getRate() {
+		return rate;
+	}
+
+	/**
+	 * @return maximum number of steps that can be acquired at once
+	 * @since 0.0.0
+	 */
+	public double getBurst() {
+		return burst;
+	}
+
+	/**
+	 * Adds the tokens earned since the last refill.
+	 *
+	 * @since 0.0.0
+	 */
+	private void refill() {
+
+		var now = clock.nanoTime();
+		tokens = min(burst, tokens + (now - refillTime) * rate / 1.0E9);
+		refillTime = now;
+	}
+
+	/**
+	 * source of time of a limiter
+	 *
+	 * @author Jonathan Guéhenneux
+	 * @since 0.0.0
+	 */
+	interface Clock {
+
+		/**
+		 * system clock, waiting by sleeping
+		 */
+		Clock SYSTEM = new Clock() {
+
+			@Override
+			public long nanoTime() {
+				return System.nanoTime();
+			}
+
+			@Override
+			public void sleep(long duration) throws InterruptedException {
+				NANOSECONDS.sleep(duration);
+			}
+		};
+
+		/**
+		 * @return current time, in nanoseconds, from an arbitrary origin
+		 * @since 0.0.0
+		 */
+		long nanoTime();
+
+		/**
+		 * Waits for the given duration.
+		 *
+		 * @param duration duration to wait, in nanoseconds
+		 * @throws InterruptedException if interrupted while waiting
+		 * @since 0.0.0
+		 */
+		void sleep(long duration) throws InterruptedException;
+	}
+}
@@ -0,0 +1,218 @@
+package com.github.achaaab.gravity_simulator;
+
+import javafx.scene.canvas.GraphicsContext;
+
+import java.util.List;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.fill;
+
+/**
+ * Recent paths of bodies. Points are stored in one fixed-capacity ring buffer per body, all packed in 2 primitive
+ * arrays, so that sampling does not allocate. The capacity of the trails is reduced as the number of bodies grows,
+ * so that all points fit in a memory budget. A point is only kept if it is far enough from the previous kept point
+ * on screen, at the current display scale. Each trail is drawn as a single polyline, ending at the current position of
+ * its body.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class Trails {
+
+	private final int maximumCapacity;
+	private final double minimumDistance;
+	private final long memoryBudget;
+
+	private int bodyCount;
+	private int capacity;
+	private double[] pointsX;
+	private double[] pointsY;
+	private int[] starts;
+	private int[] counts;
+
+	private final double[] polylineX;
+	private final double[] polylineY;
+
+	/**
+	 * @param maximumCapacity maximum number of points per trail
+	 * @param minimumDistance minimum distance between 2 consecutive points of a trail, in pixels
+	 * @param memoryBudget maximum size of the points of all trails, in bytes
+	 * @since 0.0.0
+	 */
+	public Trails(int maximumCapacity, double minimumDistance, long memoryBudget) {
+
+		this.maximumCapacity = maximumCapacity;
+		this.minimumDistance = minimumDistance;
+		this.memoryBudget = memoryBudget;
+
+		polylineX = new double[maximumCapacity + 1];
+		polylineY = new double[maximumCapacity + 1];
+
+		allocate(0);
+	}
+
+	/**
+	 * Adds the current positions of the bodies to their trails, if they moved far enough on screen.
+	 *
+	 * @param bodies bodies, always in the same order
+	 * @param scale display scale, in pixels per meter
+	 * @since 0.0.0
+	 */
+	public void sample(List<Body> bodies, double scale) {
+
+		var size = bodies.size();
+
+		if (size != bodyCount) {
+			allocate(size);
+		}
+
+		if (capacity == 0) {
+			return;
+		}
+
+		var squaredMinimumDistance = minimumDistance * minimumDistance / (scale * scale);
+
+		for (var bodyIndex = 0; bodyIndex < size; bodyIndex++) {
+
+			var position = bodies.get(bodyIndex).getPosition();
+			var x = position.getX();
+			var y = position.getY();
+			var count = counts[bodyIndex];
+			var offset = bodyIndex * capacity;
+
+			if (count > 0) {
+
+				var lastIndex = offset + (starts[bodyIndex] + count - 1) % capacity;
+				var deltaX = x - pointsX[lastIndex];
+				var deltaY = y - pointsY[lastIndex];
+
+				if (deltaX * deltaX + deltaY * deltaY < squaredMinimumDistance) {
+					continue;
+				}
+			}
+
+			if (count == capacity) {
+
+				starts[bodyIndex] = (starts[bodyIndex] + 1) % capacity;
+				count--;
+			}
+
+			var index = offset + (starts[bodyIndex] + count) % capacity;
+			pointsX[index] = x;
+			pointsY[index] = y;
+			counts[bodyIndex] = count + 1;
+		}
+	}
+
+	/**
+	 * Draws the trails, with the paint of their bodies. The graphics context must already be transformed
+	 * to universe coordinates.
+	 *
+	 * @param bodies bodies, in the same order as sampled
+	 * @param graphicsContext graphics context
+	 * @param scale display scale, in pixels per meter
+	 * @since 0.0.0
+	 */
+	public void draw(List<Body> bodies, GraphicsContext graphicsContext, double scale) {
+
+		var size = min(bodies.size(), bodyCount);
+
+		graphicsContext.setLineWidth(1 / scale);
+
+		for (var bodyIndex = 0; bodyIndex < size; bodyIndex++) {
+
+			var count = counts[bodyIndex];
+
+			if (count > 0) {
+
+				var body = bodies.get(bodyIndex);
+				var offset = bodyIndex * capacity;
+				var start = starts[bodyIndex];
+				var firstPart = min(count, capacity - start);
+
+				System.arraycopy(pointsX, offset + start, polylineX, 0, firstPart);
+				System.arraycopy(pointsY, offset + start, polylineY, 0, firstPart);
+				System.arraycopy(pointsX, offset, polylineX, firstPart, count - firstPart);
+				System.arraycopy(pointsY, offset, polylineY, firstPart, count - firstPart);
+
+				var position = body.getPosition();
+				polylineX[count] = position.getX();
+				polylineY[count] = position.getY();
+
+				graphicsContext.setStroke(body.getPaint());
+				graphicsContext.strokePolyline(polylineX, polylineY, count + 1);
+			}
+		}
+	}
+
+	/**
+	 * Empties all trails.
+	 *
+	 * @since 0.0.0
+	 */
+	public void clear() {
+
+		fill(starts, 0);
+		fill(counts, 0);
+	}
+
+	/**
+	 * Empties all trails and frees their memory, until the next sample.
+	 *
+	 * @since 0.0.0
+	 */
+	public void release() {
+		allocate(0);
+	}
+
+	/**
+	 * @param bodyIndex index of the body
+	 * @return number of points in the trail of the body
+	 * @since 0.0.0
+	 */
+	public int getPointCount(int bodyIndex) {
+		return counts[bodyIndex];
+	}
+
+	/**
+	 * @param bodyIndex index of the body
+	 * @param pointIndex index of the point in the trail of the body, 0 being the oldest
+	 * @return position of the point, in meters
+	 * @since 0.0.0
+	 */
+	public Vector2 getPoint(int bodyIndex, int pointIndex) {
+
+		var index = bodyIndex * capacity + (starts[bodyIndex] + pointIndex) % capacity;
+		return new Vector2(pointsX[index], pointsY[index]);
+	}
+
+	/**
+	 * @return current maximum number of points per trail, 0 if there are too many bodies to keep any trail
+	 * @since 0.0.0
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Allocates the trails, with as many points per trail as the memory budget allows, up to the maximum capacity.
+	 *
+	 * @param bodyCount number of bodies
+	 * @since 0.0.0
+	 */
+	private void allocate(int bodyCount) {
+
+		this.bodyCount = bodyCount;
+
+		var pointSize = 2L * Double.BYTES;
+		var budgetCapacity = memoryBudget / (pointSize * max(1, bodyCount));
+		var arrayCapacity = (Integer.MAX_VALUE - 8) / max(1, bodyCount);
+		capacity = (int) min(maximumCapacity, min(budgetCapacity, arrayCapacity));
+
+		pointsX = new double[bodyCount * capacity];
+		pointsY = new double[bodyCount * capacity];
+		starts = new int[bodyCount];
+		counts = new int[bodyCount];
+	}
+}
@@ -7,15 +7,20 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
 import javafx.util.Duration;
 
 import java.util.List;
 
+import static com.github.achaaab.gravity_simulator.SimulationPhaseEvent.DRAW;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Math.pow;
+import static java.lang.Math.toRadians;
+import static java.lang.System.nanoTime;
 import static javafx.animation.Animation.INDEFINITE;
+import static javafx.scene.input.MouseEvent.MOUSE_EXITED;
 import static javafx.util.Duration.hours;
 import static javafx.util.Duration.seconds;
 
@@ -29,27 +34,58 @@ public class UniverseController implements EventHandler<KeyEvent> {
 	private static final double TIME_FACTOR = 1.5;
 	private static final double MINIMUM_TIME_SCALE = 1_000;
 	private static final double MAXIMUM_TIME_SCALE = 1_000_000_000;
-	private static final double DEFAULT_TIME_SCALE = 1_000_000;
-	private static final Duration FRAME_DURATION = seconds(1.0 / 60);
-	private static final double MAXIMUM_DELTA_TIME = hours(24).toSeconds();
-
-	private final UniverseModel model;
+	static final double DEFAULT_TIME_SCALE = 1_000_000;
+	static final Duration FRAME_DURATION = seconds(1.0 / 60);
+	static final double MAXIMUM_DELTA_TIME = hours(24).toSeconds();
+	static final double HIERARCHICAL_MAXIMUM_DELTA_TIME = hours(24 * 4).toSeconds();
+	private static final double KEYFRAME_INTERVAL = hours(24 * 10).toSeconds();
+	private static final long KEYFRAME_MEMORY_BUDGET = 64L << 20;
+	private static final Duration SCRUB_DURATION = seconds(1);
+	static final int TRAIL_CAPACITY = 256;
+	static final double TRAIL_RESOLUTION = 2.0;
+	static final long TRAIL_MEMORY_BUDGET = 64L << 20;
+	private static final double VIEW_ROTATION = toRadians(5);
+	private static final double PICKING_RADIUS = 8.0;
+
+	private final AbstractUniverseModel model;
 	private final UniverseView view;
 	private final List<Body> bodies;
 	private final Property<Body> anchor;
+	private final PerformanceMonitor performanceMonitor;
+	private final KeyframeRecorder keyframeRecorder;
+	private final Trails trails;
+	private final PickingIndex pickingIndex;
+	private final double maximumDeltaTime;
 
 	private double timeScale;
 	private int anchorIndex;
+	private boolean paused;
+	private double mouseX;
+	private double mouseY;
+
+	/**
+	 * Creates a controller limiting updates to {@link #MAXIMUM_DELTA_TIME}.
+	 *
+	 * @param model
+	 * @param view
+	 * @since 0.0.0
+	 */
+	public UniverseController(AbstractUniverseModel model, UniverseView view) {
+		this(model, view, MAXIMUM_DELTA_TIME);
+	}
 
 	/**
 	 * @param model
 	 * @param view
+	 * @param maximumDeltaTime maximum duration of an update, in seconds, longer frames being split into several
+	 * updates
 	 * @since 0.0.0
 	 */
-	public UniverseController(UniverseModel model, UniverseView view) {
+	public UniverseController(AbstractUniverseModel model, UniverseView view, double maximumDeltaTime) {
 
 		this.model = model;
 		this.view = view;
+		this.maximumDeltaTime = maximumDeltaTime;
 
 		bodies = model.getBodies();
 		view.setBodies(bodies);
@@ -61,7 +97,23 @@ public class UniverseController implements EventHandler<KeyEvent> {
 
 		timeScale = DEFAULT_TIME_SCALE;
 
+		performanceMonitor = new PerformanceMonitor((long) (FRAME_DURATION.toSeconds() * 1.0E9));
+		view.setPerformanceMonitor(performanceMonitor);
+
+		keyframeRecorder = new KeyframeRecorder(model, KEYFRAME_INTERVAL, KEYFRAME_MEMORY_BUDGET);
+		paused = false;
+
+		trails = new Trails(TRAIL_CAPACITY, TRAIL_RESOLUTION, TRAIL_MEMORY_BUDGET);
+		view.setTrails(trails);
+
+		pickingIndex = new PickingIndex(2 * PICKING_RADIUS);
+		mouseX = Double.NaN;
+		mouseY = Double.NaN;
+
 		view.setOnScroll(this::zoom);
+		view.setOnMouseMoved(this::hover);
+		view.setOnMouseExited(this::hover);
+		view.setOnMouseClicked(this::select);
 
 		var keyFrame = new KeyFrame(FRAME_DURATION, this::update);
 		var animation = new Timeline(keyFrame);
@@ -77,19 +129,191 @@ public class UniverseController implements EventHandler<KeyEvent> {
 	 */
 	public void update(ActionEvent keyFrameEvent) {
 
-		var scaledTime = FRAME_DURATION.toSeconds() * timeScale;
+		var frameStart = nanoTime();
+		var frameEvent = new SimulationFrameEvent();
+		frameEvent.begin();
+
+		var scaledTime = paused ? 0.0 : FRAME_DURATION.toSeconds() * timeScale;
+		var stepCount = 0;
 
-		var deltaTime = 0;
+		if (!paused) {
 
-		while (deltaTime + MAXIMUM_DELTA_TIME < scaledTime) {
+			stepCount = keyframeRecorder.advance(scaledTime, maximumDeltaTime);
 
-			model.update(MAXIMUM_DELTA_TIME);
-			deltaTime += MAXIMUM_DELTA_TIME;
+			if (view.isTrailsVisible()) {
+				trails.sample(bodies, view.getScale());
+			}
 		}
 
-		model.update(scaledTime - deltaTime);
+		var interactionCount = stepCount * model.getInteractionCount();
+
+		var drawEvent = new SimulationPhaseEvent(DRAW, bodies.size(), 0);
+		drawEvent.begin();
+		draw();
+		drawEvent.commit();
+
+		frameEvent.stepCount = stepCount;
+		frameEvent.bodyCount = bodies.size();
+		frameEvent.interactionCount = interactionCount;
+		frameEvent.simulatedTime = scaledTime;
+		frameEvent.commit();
+
+		var frameEnd = nanoTime();
+		performanceMonitor.recordFrame(frameEnd, frameEnd - frameStart, stepCount, interactionCount);
+	}
+
+	/**
+	 * Draws the universe, then indexes the drawn positions for picking and updates the hovered body.
+	 *
+	 * @since 0.0.0
+	 */
+	private void draw() {
 
 		view.draw();
+
+		pickingIndex.update(bodies, view.getWidth(), view.getHeight(),
+				view.getOriginX(), view.getOriginY(), view.getScale());
+
+		view.setHoveredBody(pick(mouseX, mouseY));
+	}
+
+	/**
+	 * @param x screen abscissa, in pixels
+	 * @param y screen ordinate, in pixels
+	 * @return drawn body nearest to the screen position, {@code null} if there is none within the picking radius
+	 * @since 0.0.0
+	 */
+	private Body pick(double x, double y) {
+
+		var index = Double.isNaN(x) ? -1 : pickingIndex.pick(x, y, PICKING_RADIUS);
+		return index == -1 ? null : bodies.get(index);
+	}
+
+	/**
+	 * Shows the name of the body under the mouse pointer.
+	 *
+	 * @param mouseEvent mouse moved or exited event
+	 * @since 0.0.0
+	 */
+	public void hover(MouseEvent mouseEvent) {
+
+		if (mouseEvent.getEventType() == MOUSE_EXITED) {
+
+			mouseX = Double.NaN;
+			mouseY = Double.NaN;
+
+		} else {
+
+			mouseX = mouseEvent.getX();
+			mouseY = mouseEvent.getY();
+		}
+
+		view.setHoveredBody(pick(mouseX, mouseY));
+	}
+
+	/**
+	 * Anchors the body under the mouse pointer.
+	 *
+	 * @param mouseEvent mouse clicked event
+	 * @since 0.0.0
+	 */
+	public void select(MouseEvent mouseEvent) {
+
+		var index = pickingIndex.pick(mouseEvent.getX(), mouseEvent.getY(), PICKING_RADIUS);
+
+		if (index != -1) {
+
+			anchorIndex = index;
+			anchor.setValue(bodies.get(index));
+		}
+	}
+
+	/**
+	 * Pauses or resumes the simulation.
+	 *
+	 * @since 0.0.0
+	 */
+	public void togglePause() {
+		paused = !paused;
+	}
+
+	/**
+	 * Moves the simulation backward or forward in time. Moving backward restores the nearest recorded keyframe and
+	 * replays the updates of the gap.
+	 *
+	 * @param forward {@code true} to move forward, {@code false} to move backward
+	 * @since 0.0.0
+	 */
+	public void scrub(boolean forward) {
+
+		var scaledTime = SCRUB_DURATION.toSeconds() * timeScale;
+
+		if (forward) {
+
+			keyframeRecorder.advance(scaledTime, maximumDeltaTime);
+
+		} else {
+
+			var time = max(keyframeRecorder.getOldestTime(), model.getTime() - scaledTime);
+			keyframeRecorder.rewind(time);
+			trails.clear();
+		}
+
+		draw();
+	}
+
+	/**
+	 * Shows or hides the trails of the bodies. Hidden trails are not sampled and their memory is freed.
+	 *
+	 * @since 0.0.0
+	 */
+	public void toggleTrails() {
+
+		var trailsVisible = !view.isTrailsVisible();
+		view.setTrailsVisible(trailsVisible);
+
+		if (!trailsVisible) {
+			trails.release();
+		}
+	}
+
+	/**
+	 * Rotates the view of a 3-dimensional universe. Does nothing in a 2-dimensional universe.
+	 *
+	 * @param yawDelta rotation around the z axis, in radians
+	 * @param pitchDelta rotation around the horizontal axis of the view, in radians
+	 * @since 0.0.0
+	 */
+	public void rotateView(double yawDelta, double pitchDelta) {
+
+		if (model instanceof UniverseModel3D model3D) {
+
+			model3D.rotateView(yawDelta, pitchDelta);
+			trails.clear();
+			draw();
+		}
+	}
+
+	/**
+	 * @return performance monitor of the frames
+	 * @since 0.0.0
+	 */
+	public PerformanceMonitor getPerformanceMonitor() {
+		return performanceMonitor;
+	}
+
+	/**
+	 * Shows or hides the performance overlay. The performance monitor is enabled while the overlay is shown.
+	 *
+	 * @since 0.0.0
+	 */
+	public void togglePerformanceOverlay() {
+
+		var visible = !view.isPerformanceOverlayVisible();
+		view.setPerformanceOverlayVisible(visible);
+
+		performanceMonitor.reset();
+		performanceMonitor.setEnabled(visible);
 	}
 
 	/**
@@ -169,6 +393,15 @@ public class UniverseController implements EventHandler<KeyEvent> {
 			case TAB -> changeAnchor(!shift);
 			case ADD -> timeScale = min(MAXIMUM_TIME_SCALE, timeScale * TIME_FACTOR);
 			case SUBTRACT -> timeScale = max(MINIMUM_TIME_SCALE, timeScale / TIME_FACTOR);
+			case F3 -> togglePerformanceOverlay();
+			case SPACE -> togglePause();
+			case T -> toggleTrails();
+			case LEFT -> scrub(false);
+			case RIGHT -> scrub(true);
+			case A -> rotateView(-VIEW_ROTATION, 0);
+			case D -> rotateView(VIEW_ROTATION, 0);
+			case W -> rotateView(0, -VIEW_ROTATION);
+			case S -> rotateView(0, VIEW_ROTATION);
 		}
 	}
 }
@@ -3,80 +3,304 @@ package com.github.achaaab.gravity_simulator;
 import java.util.ArrayList;
 import java.util.List;
 
-import static java.util.function.Function.identity;
-import static java.util.function.Predicate.not;
-import static java.util.stream.Collectors.toMap;
+import static com.github.achaaab.gravity_simulator.BodyStates.CURRENT;
+import static com.github.achaaab.gravity_simulator.SimulationPhaseEvent.FORCES;
+import static com.github.achaaab.gravity_simulator.SimulationPhaseEvent.INTEGRATION;
+import static java.lang.Math.abs;
+import static java.lang.Math.sqrt;
+import static java.util.Arrays.fill;
 
 /**
+ * Flat universe integrating every pair of bodies at each update, with configurable force terms, conservation
+ * diagnostics and event detection.
+ *
  * @author Jonathan Guéhenneux
  * @since 0.0.0
  */
-public class UniverseModel {
+public class UniverseModel extends AbstractUniverseModel {
+
+	private long interactionCount;
+	private double[] forcesX;
+	private double[] forcesY;
+	private ConservationDiagnostics diagnostics;
+	private ForcePipeline forcePipeline;
+
+	private final List<EventDetector> eventDetectors;
+	private EventDetector[] activeDetectors;
+	private final StepInterpolator interpolator;
+	private double[] eventStartValues;
+	private double[] eventTimes;
 
 	/**
-	 * gravitational constant in m<sup>3</sup> kg<sup>-1</sup> s<sup>-2</sup>
+	 * @since 0.0.0
 	 */
-	public static final double G = 6.6743E-11;
+	public UniverseModel() {
+
+		interactionCount = 0;
+		forcesX = new double[0];
+		forcesY = new double[0];
+		diagnostics = null;
+		forcePipeline = ForcePipeline.NEWTONIAN;
 
-	private final List<Body> bodies;
+		eventDetectors = new ArrayList<>();
+		activeDetectors = new EventDetector[0];
+		interpolator = new StepInterpolator();
+		eventStartValues = new double[0];
+		eventTimes = new double[0];
+	}
 
 	/**
+	 * Computes the next state of this universe after the given amount of time.
+	 *
+	 * @param deltaTime time elapsed since last update, in seconds
 	 * @since 0.0.0
 	 */
-	public UniverseModel() {
-		bodies = new ArrayList<>();
+	@Override
+	public void update(double deltaTime) {
+
+		var bodies = getBodies();
+		var bodyCount = bodies.size();
+		interactionCount = (long) bodyCount * (bodyCount - 1) / 2;
+
+		var detecting = !isReplaying() && !eventDetectors.isEmpty();
+
+		if (detecting) {
+			startEventDetection();
+		}
+
+		var forcesEvent = new SimulationPhaseEvent(FORCES, bodyCount, interactionCount);
+		forcesEvent.begin();
+
+		// first step: collect exerted forces
+		computeForces(bodyCount);
+
+		forcesEvent.commit();
+
+		var integrationEvent = new SimulationPhaseEvent(INTEGRATION, bodyCount, 0);
+		integrationEvent.begin();
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			var body = bodies.get(index);
+
+			// second step: apply collected forces
+			apply(new Vector2(forcesX[index], forcesY[index]), body, deltaTime);
+
+			// third step: update bodies
+			body.update(deltaTime);
+		}
+
+		setTime(getTime() + deltaTime);
+
+		integrationEvent.commit();
+
+		if (detecting) {
+			detectEvents(deltaTime);
+		}
+
+		notifyUpdateListeners();
 	}
 
 	/**
-	 * Adds a body to this universe.
+	 * Saves the states at the start of an update and evaluates the event functions. The registered detectors are
+	 * copied, so that listeners can register or unregister detectors, from the next update.
 	 *
-	 * @param body body to add
 	 * @since 0.0.0
 	 */
-	public void addBody(Body body) {
-		bodies.add(body);
+	private void startEventDetection() {
+
+		activeDetectors = eventDetectors.toArray(activeDetectors);
+		var detectorCount = eventDetectors.size();
+
+		if (eventStartValues.length != detectorCount) {
+
+			eventStartValues = new double[detectorCount];
+			eventTimes = new double[detectorCount];
+		}
+
+		interpolator.saveStart(getBodies(), getTime());
+
+		for (var detectorIndex = 0; detectorIndex < detectorCount; detectorIndex++) {
+			eventStartValues[detectorIndex] = activeDetectors[detectorIndex].getFunction().evaluate(CURRENT);
+		}
 	}
 
 	/**
-	 * Adds a body that revolves around another body. Set its position at apoapsis and gives it the velocity needed
-	 * to maintain the given elliptic orbit.
+	 * Evaluates the event functions at the end of an update, locates the zero crossings and notifies listeners
+	 * in chronological order.
 	 *
-	 * @param orbit orbit
+	 * @param deltaTime duration of the update, in seconds
 	 * @since 0.0.0
 	 */
-	public void addOrbitingBody(EllipticOrbit orbit) {
+	private void detectEvents(double deltaTime) {
+
+		interpolator.saveEnd(getBodies(), deltaTime);
 
-		var primaryBody = orbit.primaryBody();
-		var secondaryBody = orbit.secondaryBody();
-		var apoapsis = orbit.apoapsis();
+		var detectorCount = eventStartValues.length;
+		var eventCount = 0;
 
-		var primaryPosition = primaryBody.getPosition();
-		var secondaryPosition = primaryPosition.plus(new Vector2(apoapsis, 0));
-		secondaryBody.setPosition(secondaryPosition);
+		for (var detectorIndex = 0; detectorIndex < detectorCount; detectorIndex++) {
 
-		var primaryVelocity = primaryBody.getVelocity();
-		var secondaryVelocity = primaryVelocity.plus(orbit.getVelocityAtApoapsis());
-		secondaryBody.setVelocity(secondaryVelocity);
+			var detector = activeDetectors[detectorIndex];
+			var startValue = eventStartValues[detectorIndex];
+			var endValue = detector.getFunction().evaluate(CURRENT);
 
-		addBody(secondaryBody);
+			if (detector.isCrossing(startValue, endValue)) {
+				eventTimes[detectorIndex] = detector.locate(interpolator, startValue, endValue);
+				eventCount++;
+			} else {
+				eventTimes[detectorIndex] = Double.NaN;
+			}
+		}
+
+		for (var event = 0; event < eventCount; event++) {
+
+			var nextDetectorIndex = -1;
+
+			for (var detectorIndex = 0; detectorIndex < detectorCount; detectorIndex++) {
+
+				if (!Double.isNaN(eventTimes[detectorIndex]) &&
+						(nextDetectorIndex == -1 || eventTimes[detectorIndex] < eventTimes[nextDetectorIndex])) {
+
+					nextDetectorIndex = detectorIndex;
+				}
+			}
+
+			var detector = activeDetectors[nextDetectorIndex];
+			var eventTime = eventTimes[nextDetectorIndex];
+			eventTimes[nextDetectorIndex] = Double.NaN;
+
+			interpolator.setTime(eventTime);
+			detector.getListener().eventOccurred(detector, eventTime, interpolator);
+		}
 	}
 
 	/**
-	 * Computes the next state of this universe after the given amount of time.
+	 * Registers an event detector, monitored at each update, except for replayed updates.
 	 *
-	 * @param deltaTime time elapsed since last update, in seconds
+	 * @param detector event detector to register
 	 * @since 0.0.0
 	 */
-	public void update(double deltaTime) {
+	public void addEventDetector(EventDetector detector) {
+		eventDetectors.add(detector);
+	}
 
-		// first step: collect exerted forces
-		var forces = bodies.stream().collect(toMap(identity(), this::getResultingForce));
+	/**
+	 * @param detector event detector to unregister
+	 * @since 0.0.0
+	 */
+	public void removeEventDetector(EventDetector detector) {
+		eventDetectors.remove(detector);
+	}
+
+	/**
+	 * Computes the resulting force on each body. Each pair of bodies is visited once and the gravitational force
+	 * is applied to both bodies, in opposite directions. Enabled force terms are evaluated in the same loop,
+	 * pairwise terms for each pair and per-body terms for each body. If diagnostics are enabled, the conserved
+	 * quantities of the current state are accumulated in the same loop.
+	 *
+	 * @param bodyCount number of bodies
+	 * @since 0.0.0
+	 */
+	private void computeForces(int bodyCount) {
+
+		if (forcesX.length < bodyCount) {
+
+			forcesX = new double[bodyCount];
+			forcesY = new double[bodyCount];
+		}
+
+		fill(forcesX, 0, bodyCount, 0.0);
+		fill(forcesY, 0, bodyCount, 0.0);
+
+		var bodies = getBodies();
+		var diagnosed = diagnostics != null && !isReplaying();
+		var pairTerms = forcePipeline.getPairTerms();
+		var bodyTerms = forcePipeline.getBodyTerms();
+
+		if (!forcePipeline.isEmpty()) {
+			forcePipeline.prepare(bodies);
+		}
+
+		var kineticEnergy = 0.0;
+		var potentialEnergy = 0.0;
+		var momentumX = 0.0;
+		var momentumY = 0.0;
+		var angularMomentum = 0.0;
+		var momentumScale = 0.0;
+		var angularMomentumScale = 0.0;
+
+		for (var index0 = 0; index0 < bodyCount; index0++) {
+
+			var body0 = bodies.get(index0);
+			var mass0 = body0.getMass();
+			var position0 = body0.getPosition();
+			var x0 = position0.getX();
+			var y0 = position0.getY();
+
+			var forceX0 = 0.0;
+			var forceY0 = 0.0;
+
+			for (var index1 = index0 + 1; index1 < bodyCount; index1++) {
+
+				var body1 = bodies.get(index1);
+				var position1 = body1.getPosition();
+
+				var deltaX = position1.getX() - x0;
+				var deltaY = position1.getY() - y0;
+				var squaredDistance = deltaX * deltaX + deltaY * deltaY;
+				var distance = sqrt(squaredDistance);
 
-		// second step: apply collected forces
-		forces.forEach((body, bodyForces) -> apply(bodyForces, body, deltaTime));
+				var magnitude = G * mass0 * body1.getMass() / squaredDistance;
+				var forceX = magnitude * deltaX / distance;
+				var forceY = magnitude * deltaY / distance;
 
-		// third step: update bodies
-		bodies.forEach(body -> body.update(deltaTime));
+				forceX0 += forceX;
+				forceY0 += forceY;
+				forcesX[index1] -= forceX;
+				forcesY[index1] -= forceY;
+
+				for (var pairTerm : pairTerms) {
+					pairTerm.addForces(body0, body1, index0, index1, deltaX, deltaY, distance, forcesX, forcesY);
+				}
+
+				if (diagnosed) {
+					potentialEnergy -= magnitude * distance;
+				}
+			}
+
+			forcesX[index0] += forceX0;
+			forcesY[index0] += forceY0;
+
+			for (var bodyTerm : bodyTerms) {
+				bodyTerm.addForces(body0, index0, forcesX, forcesY);
+			}
+
+			if (diagnosed) {
+
+				var velocity0 = body0.getVelocity();
+				var vx0 = velocity0.getX();
+				var vy0 = velocity0.getY();
+
+				var bodyMomentumX = mass0 * vx0;
+				var bodyMomentumY = mass0 * vy0;
+				var bodyAngularMomentum = x0 * bodyMomentumY - y0 * bodyMomentumX;
+
+				kineticEnergy += 0.5 * mass0 * (vx0 * vx0 + vy0 * vy0);
+				momentumX += bodyMomentumX;
+				momentumY += bodyMomentumY;
+				angularMomentum += bodyAngularMomentum;
+				momentumScale += sqrt(bodyMomentumX * bodyMomentumX + bodyMomentumY * bodyMomentumY);
+				angularMomentumScale += abs(bodyAngularMomentum);
+			}
+		}
+
+		if (diagnosed) {
+
+			diagnostics.record(getTime(), kineticEnergy, potentialEnergy,
+					momentumX, momentumY, angularMomentum,
+					momentumScale, angularMomentumScale);
+		}
 	}
 
 	/**
@@ -97,65 +321,50 @@ public class UniverseModel {
 	}
 
 	/**
-	 * Computes and returns the resulting force on the given body.
-	 *
-	 * @param body body to consider
-	 * @return resulting force
+	 * @return force terms added to Newtonian gravity
 	 * @since 0.0.0
 	 */
-	private Vector2 getResultingForce(Body body) {
-
-		var resultingForce = new Vector2();
-
-		addGravitationalForces(body, resultingForce);
-
-		return resultingForce;
+	public ForcePipeline getForcePipeline() {
+		return forcePipeline;
 	}
 
 	/**
-	 * Adds all gravitational forces exerting on the given body to the resulting force.
+	 * Sets the force terms added to Newtonian gravity. They are combined into a pipeline once, here: terms
+	 * enabled or disabled later are only taken into account when this method is called again.
+	 * Diagnostics only account for the Newtonian potential energy.
 	 *
-	 * @param body body to consider
-	 * @param resultingForce resulting force to update
+	 * @param terms force terms, disabled terms are ignored
 	 * @since 0.0.0
 	 */
-	private void addGravitationalForces(Body body, Vector2 resultingForce) {
+	public void setForceTerms(List<? extends ForceTerm> terms) {
+		forcePipeline = new ForcePipeline(terms);
+	}
 
-		bodies.stream().
-				filter(not(body::equals)).
-				forEach(otherBody -> addGravitationalForce(body, otherBody, resultingForce));
+	/**
+	 * @return conserved quantities diagnostics, {@code null} if diagnostics are disabled
+	 * @since 0.0.0
+	 */
+	public ConservationDiagnostics getDiagnostics() {
+		return diagnostics;
 	}
 
 	/**
-	 * Computes and adds the gravitational force exerted by body1 on body0.
+	 * Enables or disables the diagnostics of conserved quantities. When enabled, a sample is recorded at each update,
+	 * for the state preceding the update, except for replayed updates.
 	 *
-	 * @param body0 body on which the gravitational force is exerted
-	 * @param body1 body exerting the gravitational force
-	 * @param resultingForce resulting force (to which the computed gravitational force was added)
+	 * @param diagnostics conserved quantities diagnostics, {@code null} to disable diagnostics
 	 * @since 0.0.0
 	 */
-	private void addGravitationalForce(Body body0, Body body1, Vector2 resultingForce) {
-
-		var mass0 = body0.getMass();
-		var mass1 = body1.getMass();
-		var position0 = body0.getPosition();
-		var position1 = body1.getPosition();
-
-		var deltaPosition = position1.minus(position0);
-		var squaredDistance = deltaPosition.squaredMagnitude();
-
-		var direction = deltaPosition.normalize();
-		var magnitude = G * mass0 * mass1 / squaredDistance;
-
-		var gravitationalForce = direction.times(magnitude);
-		resultingForce.setPlus(gravitationalForce);
+	public void setDiagnostics(ConservationDiagnostics diagnostics) {
+		this.diagnostics = diagnostics;
 	}
 
 	/**
-	 * @return bodies in this universe, in the same order they were added
+	 * @return number of pair interactions computed during the last update
 	 * @since 0.0.0
 	 */
-	public List<Body> getBodies() {
-		return bodies;
+	@Override
+	public long getInteractionCount() {
+		return interactionCount;
 	}
 }
@@ -0,0 +1,546 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.nio.DoubleBuffer;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static com.github.achaaab.gravity_simulator.SimulationPhaseEvent.FORCES;
+import static com.github.achaaab.gravity_simulator.SimulationPhaseEvent.INTEGRATION;
+import static java.lang.Math.PI;
+import static java.lang.Math.cos;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sin;
+import static java.lang.Math.sqrt;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+
+/**
+ * Universe in a 3-dimensional space. Bodies keep their name, radius, mass and paint, but their 3-dimensional
+ * positions and velocities are stored as one primitive array per coordinate, with a capacity that is a multiple of
+ * {@value #LANE_COUNT} doubles (the widest vectors of current CPUs). The force kernel reads these arrays sequentially,
+ * which lets the JIT compiler vectorize its inner loop. Each pair of bodies is visited once, as in 2D, so both
+ * models compute the same number of interactions.
+ * <p>
+ * The 2-dimensional position and velocity of each body are the orthographic projection of its 3-dimensional state
+ * on the view plane. The existing view, trails and anchors then work unchanged, but the state of a body must be
+ * changed with {@link #setPosition(Body, Vector3)} and {@link #setVelocity(Body, Vector3)}. Updates do not project:
+ * the projection is overwritten at the end of each {@link #advance(double, double)}, when the view rotates, or by
+ * {@link #project()}.
+ * <p>
+ * Unlike {@link UniverseModel}, this universe has no force terms, conservation diagnostics or event detectors.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class UniverseModel3D extends AbstractUniverseModel {
+
+	/**
+	 * number of doubles in the widest vector registers (512 bits)
+	 */
+	public static final int LANE_COUNT = 8;
+
+	private final Map<Body, Integer> indices;
+
+	private int bodyCount;
+	private long interactionCount;
+
+	private double[] positionsX;
+	private double[] positionsY;
+	private double[] positionsZ;
+	private double[] velocitiesX;
+	private double[] velocitiesY;
+	private double[] velocitiesZ;
+	private double[] accelerationsX;
+	private double[] accelerationsY;
+	private double[] accelerationsZ;
+	private double[] gravitationalParameters;
+
+	private double yaw;
+	private double pitch;
+
+	/**
+	 * @since 0.0.0
+	 */
+	public UniverseModel3D() {
+
+		indices = new IdentityHashMap<>();
+		bodyCount = 0;
+		interactionCount = 0;
+
+		allocate(LANE_COUNT);
+
+		yaw = 0;
+		pitch = 0;
+	}
+
+	/**
+	 * Adds a body to this universe, in the reference plane, at its current 2-dimensional position and velocity.
+	 *
+	 * @param body body to add
+	 * @since 0.0.0
+	 */
+	@Override
+	public void addBody(Body body) {
+
+		var position = body.getPosition();
+		var velocity = body.getVelocity();
+
+		addBody(body,
+				new Vector3(position.getX(), position.getY(), 0),
+				new Vector3(velocity.getX(), velocity.getY(), 0));
+	}
+
+	/**
+	 * Adds a body to this universe.
+	 *
+	 * @param body body to add
+	 * @param position position of the body, in meters
+	 * @param velocity velocity of the body, in meters per second
+	 * @since 0.0.0
+	 */
+	public void addBody(Body body, Vector3 position, Vector3 velocity) {
+
+		if (bodyCount == positionsX.length) {
+			allocate(2 * positionsX.length);
+		}
+
+		var index = bodyCount++;
+
+		positionsX[index] = position.getX();
+		positionsY[index] = position.getY();
+		positionsZ[index] = position.getZ();
+		velocitiesX[index] = velocity.getX();
+		velocitiesY[index] = velocity.getY();
+		velocitiesZ[index] = velocity.getZ();
+		gravitationalParameters[index] = G * body.getMass();
+
+		indices.put(body, index);
+		super.addBody(body);
+		project(index, body);
+	}
+
+	/**
+	 * Adds a body that revolves around another body, in the inclined plane of its orbit. Set its position at apoapsis
+	 * and gives it the velocity needed to maintain the given elliptic orbit.
+	 *
+	 * @param orbit orbit
+	 * @throws IllegalArgumentException if the primary body is not in this universe
+	 * @since 0.0.0
+	 */
+	@Override
+	public void addOrbitingBody(EllipticOrbit orbit) {
+
+		var primaryIndex = getIndex(orbit.primaryBody());
+
+		var primaryPosition = new Vector3(
+				positionsX[primaryIndex],
+				positionsY[primaryIndex],
+				positionsZ[primaryIndex]);
+
+		var primaryVelocity = new Vector3(
+				velocitiesX[primaryIndex],
+				velocitiesY[primaryIndex],
+				velocitiesZ[primaryIndex]);
+
+		addBody(orbit.secondaryBody(),
+				primaryPosition.plus(orbit.getPositionAtApoapsis3D()),
+				primaryVelocity.plus(orbit.getVelocityAtApoapsis3D()));
+	}
+
+	/**
+	 * Adds many bodies revolving around a same primary body, in a plane parallel to the reference plane. The orbits
+	 * are placed around the 3-dimensional state of the primary body, not around its projection.
+	 *
+	 * @param primaryBody primary body
+	 * @param secondaryBodies secondary bodies, one per orbit
+	 * @param orbits orbital elements of the secondary bodies
+	 * @throws IllegalArgumentException if the primary body is not in this universe
+	 * @since 0.0.0
+	 */
+	@Override
+	public void addOrbitingBodies(Body primaryBody, Body[] secondaryBodies, OrbitalElements orbits) {
+
+		var primaryPosition = getPosition(primaryBody);
+		var primaryVelocity = getVelocity(primaryBody);
+
+		// relative positions and velocities
+		orbits.place(primaryBody.getMass(), secondaryBodies);
+
+		for (var secondaryBody : secondaryBodies) {
+
+			var position = secondaryBody.getPosition();
+			var velocity = secondaryBody.getVelocity();
+
+			addBody(secondaryBody,
+					primaryPosition.plus(new Vector3(position.getX(), position.getY(), 0)),
+					primaryVelocity.plus(new Vector3(velocity.getX(), velocity.getY(), 0)));
+		}
+	}
+
+	@Override
+	public void update(double deltaTime) {
+
+		interactionCount = (long) bodyCount * (bodyCount - 1) / 2;
+
+		var forcesEvent = new SimulationPhaseEvent(FORCES, bodyCount, interactionCount);
+		forcesEvent.begin();
+
+		computeAccelerations();
+
+		forcesEvent.commit();
+
+		var integrationEvent = new SimulationPhaseEvent(INTEGRATION, bodyCount, 0);
+		integrationEvent.begin();
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			velocitiesX[index] += accelerationsX[index] * deltaTime;
+			velocitiesY[index] += accelerationsY[index] * deltaTime;
+			velocitiesZ[index] += accelerationsZ[index] * deltaTime;
+		}
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			positionsX[index] += velocitiesX[index] * deltaTime;
+			positionsY[index] += velocitiesY[index] * deltaTime;
+			positionsZ[index] += velocitiesZ[index] * deltaTime;
+		}
+
+		setTime(getTime() + deltaTime);
+
+		integrationEvent.commit();
+
+		notifyUpdateListeners();
+	}
+
+	/**
+	 * Advances this universe, then projects the state of all bodies on the view plane, once.
+	 *
+	 * @param duration amount of time to advance, in seconds
+	 * @param maximumDeltaTime maximum duration of an update, in seconds
+	 * @return number of updates
+	 * @since 0.0.0
+	 */
+	@Override
+	public int advance(double duration, double maximumDeltaTime) {
+
+		var stepCount = super.advance(duration, maximumDeltaTime);
+		project();
+
+		return stepCount;
+	}
+
+	/**
+	 * Computes the gravitational acceleration of each body. Each pair of bodies is visited once, the unused capacity
+	 * of the arrays is never read. As in 2D, coincident bodies are not supported.
+	 *
+	 * @since 0.0.0
+	 */
+	private void computeAccelerations() {
+
+		fill(accelerationsX, 0, bodyCount, 0.0);
+		fill(accelerationsY, 0, bodyCount, 0.0);
+		fill(accelerationsZ, 0, bodyCount, 0.0);
+
+		for (var index0 = 0; index0 < bodyCount; index0++) {
+
+			var x0 = positionsX[index0];
+			var y0 = positionsY[index0];
+			var z0 = positionsZ[index0];
+			var gravitationalParameter0 = gravitationalParameters[index0];
+
+			var accelerationX0 = 0.0;
+			var accelerationY0 = 0.0;
+			var accelerationZ0 = 0.0;
+
+			for (var index1 = index0 + 1; index1 < bodyCount; index1++) {
+
+				var deltaX = positionsX[index1] - x0;
+				var deltaY = positionsY[index1] - y0;
+				var deltaZ = positionsZ[index1] - z0;
+				var squaredDistance = deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ;
+				var inverseCubedDistance = 1 / (squaredDistance * sqrt(squaredDistance));
+
+				var factor0 = gravitationalParameters[index1] * inverseCubedDistance;
+				var factor1 = gravitationalParameter0 * inverseCubedDistance;
+
+				accelerationX0 += factor0 * deltaX;
+				accelerationY0 += factor0 * deltaY;
+				accelerationZ0 += factor0 * deltaZ;
+				accelerationsX[index1] -= factor1 * deltaX;
+				accelerationsY[index1] -= factor1 * deltaY;
+				accelerationsZ[index1] -= factor1 * deltaZ;
+			}
+
+			accelerationsX[index0] += accelerationX0;
+			accelerationsY[index0] += accelerationY0;
+			accelerationsZ[index0] += accelerationZ0;
+		}
+	}
+
+	/**
+	 * Rotates the view plane.
+	 *
+	 * @param yawDelta rotation around the z axis, in radians
+	 * @param pitchDelta rotation around the horizontal axis of the view, in radians, the resulting pitch being
+	 * clamped to [-π/2, π/2]
+	 * @since 0.0.0
+	 */
+	public void rotateView(double yawDelta, double pitchDelta) {
+		setView(yaw + yawDelta, pitch + pitchDelta);
+	}
+
+	/**
+	 * Sets the orientation of the view plane. With a yaw and a pitch of 0, the view plane is the reference plane
+	 * (x, y), seen from above.
+	 *
+	 * @param yaw rotation around the z axis, in radians
+	 * @param pitch rotation around the horizontal axis of the view, in radians, clamped to [-π/2, π/2]
+	 * @since 0.0.0
+	 */
+	public void setView(double yaw, double pitch) {
+
+		this.yaw = yaw % (2 * PI);
+		this.pitch = max(-PI / 2, min(PI / 2, pitch));
+
+		project();
+	}
+
+	/**
+	 * @return rotation of the view around the z axis, in radians
+	 * @since 0.0.0
+	 */
+	public double getYaw() {
+		return yaw;
+	}
+
+	/**
+	 * @return rotation of the view around its horizontal axis, in radians
+	 * @since 0.0.0
+	 */
+	public double getPitch() {
+		return pitch;
+	}
+
+	/**
+	 * @param body body of this universe
+	 * @return position of the body, in meters
+	 * @throws IllegalArgumentException if the body is not in this universe
+	 * @since 0.0.0
+	 */
+	public Vector3 getPosition(Body body) {
+
+		var index = getIndex(body);
+		return new Vector3(positionsX[index], positionsY[index], positionsZ[index]);
+	}
+
+	/**
+	 * @param body body of this universe
+	 * @return velocity of the body, in meters per second
+	 * @throws IllegalArgumentException if the body is not in this universe
+	 * @since 0.0.0
+	 */
+	public Vector3 getVelocity(Body body) {
+
+		var index = getIndex(body);
+		return new Vector3(velocitiesX[index], velocitiesY[index], velocitiesZ[index]);
+	}
+
+	/**
+	 * Moves a body. Its 2-dimensional position is a projection, changing it has no effect on this universe.
+	 *
+	 * @param body body of this universe
+	 * @param position new position of the body, in meters
+	 * @throws IllegalArgumentException if the body is not in this universe
+	 * @since 0.0.0
+	 */
+	public void setPosition(Body body, Vector3 position) {
+
+		var index = getIndex(body);
+
+		positionsX[index] = position.getX();
+		positionsY[index] = position.getY();
+		positionsZ[index] = position.getZ();
+
+		project(index, body);
+	}
+
+	/**
+	 * Changes the velocity of a body. Its 2-dimensional velocity is a projection, changing it has no effect on this
+	 * universe.
+	 *
+	 * @param body body of this universe
+	 * @param velocity new velocity of the body, in meters per second
+	 * @throws IllegalArgumentException if the body is not in this universe
+	 * @since 0.0.0
+	 */
+	public void setVelocity(Body body, Vector3 velocity) {
+
+		var index = getIndex(body);
+
+		velocitiesX[index] = velocity.getX();
+		velocitiesY[index] = velocity.getY();
+		velocitiesZ[index] = velocity.getZ();
+
+		project(index, body);
+	}
+
+	@Override
+	public long getInteractionCount() {
+		return interactionCount;
+	}
+
+	@Override
+	public int getComponentCount() {
+		return 6;
+	}
+
+	@Override
+	public void saveState(double[] states, int offset) {
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			states[offset++] = positionsX[index];
+			states[offset++] = positionsY[index];
+			states[offset++] = positionsZ[index];
+			states[offset++] = velocitiesX[index];
+			states[offset++] = velocitiesY[index];
+			states[offset++] = velocitiesZ[index];
+		}
+	}
+
+	@Override
+	public void saveState(DoubleBuffer states) {
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			states.put(positionsX[index]);
+			states.put(positionsY[index]);
+			states.put(positionsZ[index]);
+			states.put(velocitiesX[index]);
+			states.put(velocitiesY[index]);
+			states.put(velocitiesZ[index]);
+		}
+	}
+
+	@Override
+	public void restoreState(double[] states, int offset) {
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			positionsX[index] = states[offset++];
+			positionsY[index] = states[offset++];
+			positionsZ[index] = states[offset++];
+			velocitiesX[index] = states[offset++];
+			velocitiesY[index] = states[offset++];
+			velocitiesZ[index] = states[offset++];
+		}
+
+		project();
+	}
+
+	/**
+	 * Projects the state of all bodies on the view plane, to be called before reading the 2-dimensional positions and
+	 * velocities after {@link #update(double)}.
+	 *
+	 * @since 0.0.0
+	 */
+	public void project() {
+
+		var bodies = getBodies();
+		var cosYaw = cos(yaw);
+		var sinYaw = sin(yaw);
+		var cosPitch = cos(pitch);
+		var sinPitch = sin(pitch);
+
+		for (var index = 0; index < bodyCount; index++) {
+			project(index, bodies.get(index), cosYaw, sinYaw, cosPitch, sinPitch);
+		}
+	}
+
+	/**
+	 * Projects the state of a body on the view plane.
+	 *
+	 * @param index index of the body
+	 * @param body body
+	 * @since 0.0.0
+	 */
+	private void project(int index, Body body) {
+		project(index, body, cos(yaw), sin(yaw), cos(pitch), sin(pitch));
+	}
+
+	/**
+	 * Projects the state of a body on the view plane: rotation by the yaw around the z axis, then by the pitch around
+	 * the x axis, and the depth is dropped.
+	 *
+	 * @param index index of the body
+	 * @param body body
+	 * @param cosYaw cosine of the yaw
+	 * @param sinYaw sine of the yaw
+	 * @param cosPitch cosine of the pitch
+	 * @param sinPitch sine of the pitch
+	 * @since 0.0.0
+	 */
+	private void project(int index, Body body, double cosYaw, double sinYaw, double cosPitch, double sinPitch) {
+
+		var x = positionsX[index] * cosYaw - positionsY[index] * sinYaw;
+		var y = positionsX[index] * sinYaw + positionsY[index] * cosYaw;
+		var velocityX = velocitiesX[index] * cosYaw - velocitiesY[index] * sinYaw;
+		var velocityY = velocitiesX[index] * sinYaw + velocitiesY[index] * cosYaw;
+
+		body.setPosition(new Vector2(x, y * cosPitch - positionsZ[index] * sinPitch));
+		body.setVelocity(new Vector2(velocityX, velocityY * cosPitch - velocitiesZ[index] * sinPitch));
+	}
+
+	/**
+	 * @param body body
+	 * @return index of the body in the state arrays
+	 * @throws IllegalArgumentException if the body is not in this universe
+	 * @since 0.0.0
+	 */
+	private int getIndex(Body body) {
+
+		var index = indices.get(body);
+
+		if (index == null) {
+			throw new IllegalArgumentException(body + " is not in this universe");
+		}
+
+		return index;
+	}
+
+	/**
+	 * Resizes the state arrays, keeping the current states. New entries are unused until bodies are added.
+	 *
+	 * @param capacity new capacity, a multiple of {@value #LANE_COUNT}
+	 * @since 0.0.0
+	 */
+	private void allocate(int capacity) {
+
+		if (positionsX == null) {
+
+			positionsX = new double[capacity];
+			positionsY = new double[capacity];
+			positionsZ = new double[capacity];
+			velocitiesX = new double[capacity];
+			velocitiesY = new double[capacity];
+			velocitiesZ = new double[capacity];
+			gravitationalParameters = new double[capacity];
+
+		} else {
+
+			positionsX = copyOf(positionsX, capacity);
+			positionsY = copyOf(positionsY, capacity);
+			positionsZ = copyOf(positionsZ, capacity);
+			velocitiesX = copyOf(velocitiesX, capacity);
+			velocitiesY = copyOf(velocitiesY, capacity);
+			velocitiesZ = copyOf(velocitiesZ, capacity);
+			gravitationalParameters = copyOf(gravitationalParameters, capacity);
+		}
+
+		accelerationsX = new double[capacity];
+		accelerationsY = new double[capacity];
+		accelerationsZ = new double[capacity];
+	}
+}
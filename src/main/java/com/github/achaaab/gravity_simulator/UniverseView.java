@@ -9,7 +9,9 @@ import java.util.List;
 
 import static java.lang.Math.log;
 import static java.lang.Math.max;
+import static java.lang.String.format;
 import static javafx.scene.paint.Color.BLACK;
+import static javafx.scene.paint.Color.WHITE;
 
 /**
  * JavaFX view of universe
@@ -29,10 +31,33 @@ public class UniverseView extends Canvas {
 	 */
 	private static final double MINIMUM_DISPLAY_RADIUS = 2.0;
 
+	/**
+	 * position of the performance overlay, in pixels from the top left corner
+	 */
+	private static final double OVERLAY_MARGIN = 10.0;
+
+	/**
+	 * height of a line of the performance overlay, in pixels
+	 */
+	private static final double OVERLAY_LINE_HEIGHT = 16.0;
+
+	/**
+	 * offset of the label of the hovered body, in pixels from its center
+	 */
+	private static final double LABEL_OFFSET = 6.0;
+
 	private List<Body> bodies;
 	private double scale;
 	private final Property<Body> anchor;
 
+	private PerformanceMonitor performanceMonitor;
+	private boolean performanceOverlayVisible;
+
+	private Trails trails;
+	private boolean trailsVisible;
+
+	private Body hoveredBody;
+
 	/**
 	 * @since 0.0.0
 	 */
@@ -44,6 +69,8 @@ public class UniverseView extends Canvas {
 		setHeight(900);
 
 		anchor = new SimpleObjectProperty<>();
+		performanceOverlayVisible = false;
+		trailsVisible = true;
 	}
 
 	/**
@@ -85,12 +112,90 @@ public class UniverseView extends Canvas {
 			graphicsContext.translate(-anchorPosition.getX(), -anchorPosition.getY());
 		}
 
+		if (trailsVisible && trails != null) {
+			trails.draw(bodies, graphicsContext, scale);
+		}
+
 		bodies.stream().
 				mapToDouble(Body::getRadius).
 				min().ifPresent(
 						minimalRadius -> bodies.forEach(body -> draw(body, graphicsContext, minimalRadius)));
 
 		graphicsContext.restore();
+
+		if (hoveredBody != null) {
+			drawLabel(hoveredBody, graphicsContext);
+		}
+
+		if (performanceOverlayVisible && performanceMonitor != null) {
+			drawPerformanceOverlay(graphicsContext);
+		}
+	}
+
+	/**
+	 * Draws the name of a body next to it.
+	 *
+	 * @param body body to label
+	 * @param graphicsContext graphics context, in screen coordinates
+	 * @since 0.0.0
+	 */
+	private void drawLabel(Body body, GraphicsContext graphicsContext) {
+
+		var position = body.getPosition();
+		var x = getOriginX() + position.getX() * scale;
+		var y = getOriginY() + position.getY() * scale;
+
+		graphicsContext.setFill(WHITE);
+		graphicsContext.fillText(body.toString(), x + LABEL_OFFSET, y - LABEL_OFFSET);
+	}
+
+	/**
+	 * @return screen abscissa of the origin of the universe, in pixels
+	 * @since 0.0.0
+	 */
+	public double getOriginX() {
+
+		var anchorBody = anchor.getValue();
+		var anchorX = anchorBody == null ? 0.0 : anchorBody.getPosition().getX();
+		return getWidth() / 2 - anchorX * scale;
+	}
+
+	/**
+	 * @return screen ordinate of the origin of the universe, in pixels
+	 * @since 0.0.0
+	 */
+	public double getOriginY() {
+
+		var anchorBody = anchor.getValue();
+		var anchorY = anchorBody == null ? 0.0 : anchorBody.getPosition().getY();
+		return getHeight() / 2 - anchorY * scale;
+	}
+
+	/**
+	 * Draws the performance overlay in the top left corner.
+	 *
+	 * @param graphicsContext graphics context
+	 * @since 0.0.0
+	 */
+	private void drawPerformanceOverlay(GraphicsContext graphicsContext) {
+
+		var lines = new String[] {
+				format("steps/s: %.0f", performanceMonitor.getStepsPerSecond()),
+				format("interactions/s: %.3g", performanceMonitor.getInteractionsPerSecond()),
+				format("frame time p50/p95/p99: %.2f / %.2f / %.2f ms",
+						performanceMonitor.getFrameTimeMedian(),
+						performanceMonitor.getFrameTime95thPercentile(),
+						performanceMonitor.getFrameTime99thPercentile()),
+				format("dropped frames: %d / %d",
+						performanceMonitor.getDroppedFrameCount(),
+						performanceMonitor.getFrameCount())
+		};
+
+		graphicsContext.setFill(WHITE);
+
+		for (var index = 0; index < lines.length; index++) {
+			graphicsContext.fillText(lines[index], OVERLAY_MARGIN, OVERLAY_MARGIN + (index + 1) * OVERLAY_LINE_HEIGHT);
+		}
 	}
 
 	/**
@@ -120,6 +225,62 @@ public class UniverseView extends Canvas {
 				2 * displayRadius);
 	}
 
+	/**
+	 * @param performanceMonitor performance monitor to display in the overlay
+	 * @since 0.0.0
+	 */
+	public void setPerformanceMonitor(PerformanceMonitor performanceMonitor) {
+		this.performanceMonitor = performanceMonitor;
+	}
+
+	/**
+	 * @return {@code true} if the performance overlay is visible
+	 * @since 0.0.0
+	 */
+	public boolean isPerformanceOverlayVisible() {
+		return performanceOverlayVisible;
+	}
+
+	/**
+	 * @param performanceOverlayVisible {@code true} to show the performance overlay, {@code false} to hide it
+	 * @since 0.0.0
+	 */
+	public void setPerformanceOverlayVisible(boolean performanceOverlayVisible) {
+		this.performanceOverlayVisible = performanceOverlayVisible;
+	}
+
+	/**
+	 * @param trails trails of the bodies
+	 * @since 0.0.0
+	 */
+	public void setTrails(Trails trails) {
+		this.trails = trails;
+	}
+
+	/**
+	 * @return {@code true} if the trails are visible
+	 * @since 0.0.0
+	 */
+	public boolean isTrailsVisible() {
+		return trailsVisible;
+	}
+
+	/**
+	 * @param trailsVisible {@code true} to show the trails, {@code false} to hide them
+	 * @since 0.0.0
+	 */
+	public void setTrailsVisible(boolean trailsVisible) {
+		this.trailsVisible = trailsVisible;
+	}
+
+	/**
+	 * @param hoveredBody body under the mouse pointer, whose name is displayed, {@code null} if there is none
+	 * @since 0.0.0
+	 */
+	public void setHoveredBody(Body hoveredBody) {
+		this.hoveredBody = hoveredBody;
+	}
+
 	/**
 	 * @return display scale in meters per pixel
 	 * @since 0.0.0
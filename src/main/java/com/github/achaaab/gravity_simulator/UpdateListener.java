@@ -0,0 +1,19 @@
+package com.github.achaaab.gravity_simulator;
+
+/**
+ * listener of the updates of a {@link UniverseModel}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+@FunctionalInterface
+public interface UpdateListener {
+
+	/**
+	 * Called at the end of each update, on the thread updating the universe. Implementations should return quickly.
+	 *
+	 * @param universe updated universe
+	 * @since 0.0.0
+	 */
+	void universeUpdated(AbstractUniverseModel universe);
+}
@@ -0,0 +1,156 @@
+package com.github.achaaab.gravity_simulator;
+
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+import static java.lang.Math.sqrt;
+import static java.util.Objects.hash;
+
+/**
+ * vector in 3-dimensional space
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class Vector3 {
+
+	private final double x;
+	private final double y;
+	private final double z;
+
+	/**
+	 * @since 0.0.0
+	 */
+	public Vector3() {
+		this(0, 0, 0);
+	}
+
+	/**
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @since 0.0.0
+	 */
+	public Vector3(double x, double y, double z) {
+
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
+	/**
+	 * @return
+	 * @since 0.0.0
+	 */
+	public double magnitude() {
+		return sqrt(x * x + y * y + z * z);
+	}
+
+	/**
+	 * @param that
+	 * @return {@code this - that}
+	 * @since 0.0.0
+	 */
+	public Vector3 minus(Vector3 that) {
+		return new Vector3(this.x - that.x, this.y - that.y, this.z - that.z);
+	}
+
+	/**
+	 * @param that
+	 * @return {@code this + that}
+	 * @since 0.0.0
+	 */
+	public Vector3 plus(Vector3 that) {
+		return new Vector3(this.x + that.x, this.y + that.y, this.z + that.z);
+	}
+
+	/**
+	 * @param scalar
+	 * @return
+	 * @since 0.0.0
+	 */
+	public Vector3 times(double scalar) {
+		return new Vector3(x * scalar, y * scalar, z * scalar);
+	}
+
+	/**
+	 * @param theta angle in radians
+	 * @return this vector rotated around the x axis
+	 * @since 0.0.0
+	 */
+	public Vector3 rotateX(double theta) {
+
+		return new Vector3(
+				x,
+				y * cos(theta) - z * sin(theta),
+				y * sin(theta) + z * cos(theta));
+	}
+
+	/**
+	 * @param theta angle in radians
+	 * @return this vector rotated around the z axis
+	 * @since 0.0.0
+	 */
+	public Vector3 rotateZ(double theta) {
+
+		return new Vector3(
+				x * cos(theta) - y * sin(theta),
+				x * sin(theta) + y * cos(theta),
+				z);
+	}
+
+	/**
+	 * @return
+	 * @since 0.0.0
+	 */
+	public double getX() {
+		return x;
+	}
+
+	/**
+	 * @return
+	 * @since 0.0.0
+	 */
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * @return
+	 * @since 0.0.0
+	 */
+	public double getZ() {
+		return z;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+
+		if (this == object) {
+			return true;
+		}
+
+		if (object == null || getClass() != object.getClass()) {
+			return false;
+		}
+
+		var vector3 = (Vector3) object;
+
+		return Double.compare(vector3.x, x) == 0 &&
+				Double.compare(vector3.y, y) == 0 &&
+				Double.compare(vector3.z, z) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+
+		return hash(
+				x,
+				y,
+				z);
+	}
+
+	@Override
+	public String toString() {
+		return "(" + x + ", " + y + ", " + z + ")";
+	}
+}
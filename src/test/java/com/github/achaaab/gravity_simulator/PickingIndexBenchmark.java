@@ -0,0 +1,60 @@
+package com.github.achaaab.gravity_simulator;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static javafx.scene.paint.Color.GRAY;
+
+/**
+ * Benchmark of {@link PickingIndex}, measuring the average duration of a pick among many bodies. It is not run
+ * by {@code mvn test}, since wall-clock timings are not reliable on loaded machines.
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+public class PickingIndexBenchmark {
+
+	private static final double WIDTH = 1600;
+	private static final double HEIGHT = 900;
+	private static final double RADIUS = 8;
+
+	private static final int BODY_COUNT = 100_000;
+	private static final int QUERY_COUNT = 100_000;
+	private static final int ROUND_COUNT = 10;
+
+	/**
+	 * @param arguments none
+	 * @since 0.0.0
+	 */
+	public static void main(String... arguments) {
+
+		var random = new Random(1);
+		var bodies = new ArrayList<Body>(BODY_COUNT);
+
+		for (var index = 0; index < BODY_COUNT; index++) {
+
+			var body = new Body("body " + index, 1, 1, GRAY);
+			body.setPosition(new Vector2(random.nextDouble(-1000, 1000), random.nextDouble(-600, 600)));
+			bodies.add(body);
+		}
+
+		var index = new PickingIndex(2 * RADIUS);
+		index.update(bodies, WIDTH, HEIGHT, WIDTH / 2, HEIGHT / 2, 1);
+
+		for (var round = 0; round < ROUND_COUNT; round++) {
+
+			var pickedCount = 0;
+			var start = System.nanoTime();
+
+			for (var query = 0; query < QUERY_COUNT; query++) {
+
+				if (index.pick(random.nextDouble(WIDTH), random.nextDouble(HEIGHT), RADIUS) != -1) {
+					pickedCount++;
+				}
+			}
+
+			var averageDuration = (System.nanoTime() - start) / (double) QUERY_COUNT;
+			System.out.printf("round %d: %.0f ns per pick, %d picked%n", round, averageDuration, pickedCount);
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.achaaab.gravity_simulator.EventDetector.Crossing.DECREASING;
+import static com.github.achaaab.gravity_simulator.EventDetector.Crossing.INCREASING;
+import static com.github.achaaab.gravity_simulator.EventFunction.alignment;
+import static com.github.achaaab.gravity_simulator.EventFunction.distance;
+import static com.github.achaaab.gravity_simulator.EventFunction.radialVelocity;
+import static com.github.achaaab.gravity_simulator.UniverseModel.G;
+import static java.lang.Math.PI;
+import static java.lang.Math.pow;
+import static java.lang.Math.sqrt;
+import static javafx.scene.paint.Color.WHITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link EventDetector}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestEventDetector {
+
+	@Test
+	void testLinearMotion() {
+
+		var universe = new UniverseModel();
+
+		// bodies light enough for gravity to be negligible
+		var center = new Body("center", 1.0, 1.0E-20, WHITE);
+		var target = new Body("target", 1.0, 1.0E-20, WHITE);
+		var moving = new Body("moving", 1.0, 1.0E-20, WHITE);
+
+		target.setPosition(new Vector2(0, -100));
+		moving.setPosition(new Vector2(-100, 10));
+		moving.setVelocity(new Vector2(10, 0));
+
+		universe.addBody(center);
+		universe.addBody(target);
+		universe.addBody(moving);
+
+		var times = new ArrayList<Double>();
+		var names = new ArrayList<String>();
+
+		universe.addEventDetector(new EventDetector(distance(center, moving, 30), (detector, time, states) -> {
+			times.add(time);
+			names.add("distance");
+		}));
+
+		universe.addEventDetector(new EventDetector(alignment(center, moving, target), (detector, time, states) -> {
+			times.add(time);
+			names.add("alignment");
+			assertEquals(0, states.getPosition(moving).getX(), 1.0E-6);
+		}));
+
+		universe.addEventDetector(new EventDetector(radialVelocity(moving, center), (detector, time, states) -> {
+			times.add(time);
+			names.add("closest");
+		}));
+
+		for (var step = 0; step < 10; step++) {
+			universe.update(3.0);
+		}
+
+		var enteringTime = (100 - sqrt(30 * 30 - 10 * 10)) / 10;
+		var leavingTime = (100 + sqrt(30 * 30 - 10 * 10)) / 10;
+
+		// alignment and closest approach occur at the same time, in any order
+		assertEquals(4, times.size());
+		assertEquals("distance", names.get(0));
+		assertEquals(enteringTime, times.get(0), 1.0E-3);
+		assertTrue(names.subList(1, 3).containsAll(List.of("alignment", "closest")));
+		assertEquals(10.0, times.get(1), 1.0E-3);
+		assertEquals(10.0, times.get(2), 1.0E-3);
+		assertEquals("distance", names.get(3));
+		assertEquals(leavingTime, times.get(3), 1.0E-3);
+	}
+
+	@Test
+	void testApsides() {
+
+		var sunMass = 1.9884E30;
+		var aphelion = 3.0E11;
+		var perihelion = 1.0E11;
+
+		var universe = new UniverseModel();
+		var sun = new Body("Sun", 1.0, sunMass, WHITE);
+		var comet = new Body("comet", 1.0, 1.0, WHITE);
+		universe.addBody(sun);
+		universe.addOrbitingBody(new EllipticOrbit(sun, comet, aphelion, perihelion, true));
+
+		var periapsisTimes = new ArrayList<Double>();
+		var apoapsisTimes = new ArrayList<Double>();
+		var day = 86_400.0;
+		var hour = 3_600.0;
+
+		var radialVelocity = radialVelocity(comet, sun);
+		universe.addEventDetector(new EventDetector(radialVelocity, INCREASING, 1.0,
+				(detector, time, states) -> periapsisTimes.add(time)));
+		universe.addEventDetector(new EventDetector(radialVelocity, DECREASING, 1.0,
+				(detector, time, states) -> apoapsisTimes.add(time)));
+
+		// the comet starts at its aphelion, it reaches its perihelion after half a period
+		for (var step = 0; step < 700 * 24; step++) {
+			universe.update(hour);
+		}
+
+		var semiMajorAxis = (aphelion + perihelion) / 2;
+		var period = 2 * PI * sqrt(pow(semiMajorAxis, 3) / (G * sunMass));
+
+		assertEquals(1, periapsisTimes.size());
+		assertEquals(1, apoapsisTimes.size());
+		assertEquals(period / 2, periapsisTimes.get(0), day / 4);
+		assertEquals(period, apoapsisTimes.get(0), day / 2);
+		assertTrue(periapsisTimes.get(0) % hour != 0);
+	}
+
+	@Test
+	void testListenerChangingDetectors() {
+
+		var universe = new UniverseModel();
+
+		var center = new Body("center", 1.0, 1.0E-20, WHITE);
+		var moving = new Body("moving", 1.0, 1.0E-20, WHITE);
+		moving.setPosition(new Vector2(-100, 0));
+		moving.setVelocity(new Vector2(10, 0));
+
+		universe.addBody(center);
+		universe.addBody(moving);
+
+		var names = new ArrayList<String>();
+		var detectors = new ArrayList<EventDetector>();
+
+		// both events occur during the same update, the first one unregisters both detectors
+		detectors.add(new EventDetector(distance(center, moving, 50), (detector, time, states) -> {
+			names.add("far");
+			detectors.forEach(universe::removeEventDetector);
+		}));
+
+		detectors.add(new EventDetector(distance(center, moving, 40), (detector, time, states) -> {
+			names.add("near");
+		}));
+
+		detectors.forEach(universe::addEventDetector);
+
+		for (var step = 0; step < 10; step++) {
+			universe.update(3.0);
+		}
+
+		assertEquals(List.of("far", "near"), names);
+	}
+
+	@Test
+	void testReplacedBody() {
+
+		var interpolator = new StepInterpolator();
+		var body = new Body("body", 1.0, 1.0, WHITE);
+		var replacingBody = new Body("replacing body", 1.0, 1.0, WHITE);
+		replacingBody.setPosition(new Vector2(5, 5));
+
+		interpolator.saveStart(List.of(body), 0);
+		interpolator.saveEnd(List.of(body), 1);
+
+		interpolator.saveStart(List.of(replacingBody), 1);
+		interpolator.saveEnd(List.of(replacingBody), 1);
+
+		assertEquals(new Vector2(5, 5), interpolator.getPosition(replacingBody));
+	}
+}
@@ -0,0 +1,156 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.achaaab.gravity_simulator.PostNewtonianTerm.SPEED_OF_LIGHT;
+import static com.github.achaaab.gravity_simulator.UniverseModel.G;
+import static java.lang.Math.PI;
+import static java.lang.Math.exp;
+import static javafx.scene.paint.Color.WHITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link ForcePipeline} and force terms
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestForcePipeline {
+
+	private static final double EARTH_MASS = 5.9722E24;
+	private static final double EARTH_RADIUS = 6_371_000;
+
+	/**
+	 * Computes the velocity variation of a satellite orbiting the earth during a 1 second update, due to the given
+	 * force terms only.
+	 *
+	 * @param terms force terms
+	 * @return velocity variation due to the force terms, in meters per second
+	 */
+	private static Vector2 getPerturbation(List<ForceTerm> terms) {
+
+		var reference = getVelocity(List.of());
+		return getVelocity(terms).minus(reference);
+	}
+
+	/**
+	 * @param terms force terms
+	 * @return velocity of a satellite after a 1 second update
+	 */
+	private static Vector2 getVelocity(List<ForceTerm> terms) {
+
+		var universe = new UniverseModel();
+		var earth = new Body("Earth", EARTH_RADIUS, EARTH_MASS, WHITE);
+		var satellite = new Body("satellite", 1.0, 1_000.0, WHITE);
+		satellite.setPosition(new Vector2(EARTH_RADIUS + 100_000, 0));
+		satellite.setVelocity(new Vector2(0, 7_800));
+
+		universe.addBody(earth);
+		universe.addBody(satellite);
+		universe.setForceTerms(terms);
+		universe.update(1.0);
+
+		return satellite.getVelocity();
+	}
+
+	@Test
+	void testPostNewtonian() {
+
+		var perturbation = getPerturbation(List.of(new PostNewtonianTerm()));
+
+		var distance = EARTH_RADIUS + 100_000;
+		var standardGravitationalParameter = G * (EARTH_MASS + 1_000.0);
+		var factor = standardGravitationalParameter / (SPEED_OF_LIGHT * SPEED_OF_LIGHT * distance * distance * distance);
+		var expectedAcceleration = factor * (4 * standardGravitationalParameter / distance - 7_800 * 7_800) * distance;
+
+		// the reduced mass of the pair is almost the mass of the satellite
+		assertEquals(expectedAcceleration, perturbation.getX(), Math.abs(expectedAcceleration) * 1.0E-6);
+		assertEquals(0.0, perturbation.getY(), 1.0E-15);
+	}
+
+	@Test
+	void testOblateness() {
+
+		var universe = new UniverseModel();
+		var perturbation = getPerturbation(List.of(new OblatenessTerm(new Body("other", 1, 1, WHITE), 1.0E-3)));
+		assertEquals(new Vector2(0, 0), perturbation);
+
+		var earth = new Body("Earth", EARTH_RADIUS, EARTH_MASS, WHITE);
+		var satellite = new Body("satellite", 1.0, 1_000.0, WHITE);
+		var distance = EARTH_RADIUS + 100_000;
+		satellite.setPosition(new Vector2(distance, 0));
+
+		universe.addBody(earth);
+		universe.addBody(satellite);
+		universe.setForceTerms(List.of(new OblatenessTerm(earth, 1.0826E-3)));
+		universe.update(1.0);
+
+		var newtonian = -G * EARTH_MASS / (distance * distance);
+		var j2 = -1.5 * 1.0826E-3 * G * EARTH_MASS * EARTH_RADIUS * EARTH_RADIUS / Math.pow(distance, 4);
+		assertEquals(newtonian + j2, satellite.getVelocity().getX(), 1.0E-12);
+	}
+
+	@Test
+	void testAtmosphericDrag() {
+
+		var earth = new Body("Earth", EARTH_RADIUS, EARTH_MASS, WHITE);
+		var drag = new AtmosphericDragTerm(earth, 1.225, 8_500, 2.2);
+
+		var universe = new UniverseModel();
+		var satellite = new Body("satellite", 1.0, 1_000.0, WHITE);
+		satellite.setPosition(new Vector2(EARTH_RADIUS + 100_000, 0));
+		satellite.setVelocity(new Vector2(0, 7_800));
+		universe.addBody(earth);
+		universe.addBody(satellite);
+
+		var reference = new UniverseModel();
+		var referenceEarth = new Body("Earth", EARTH_RADIUS, EARTH_MASS, WHITE);
+		var referenceSatellite = new Body("satellite", 1.0, 1_000.0, WHITE);
+		referenceSatellite.setPosition(new Vector2(EARTH_RADIUS + 100_000, 0));
+		referenceSatellite.setVelocity(new Vector2(0, 7_800));
+		reference.addBody(referenceEarth);
+		reference.addBody(referenceSatellite);
+
+		universe.setForceTerms(List.of(drag));
+		universe.update(1.0);
+		reference.update(1.0);
+
+		var perturbation = satellite.getVelocity().minus(referenceSatellite.getVelocity());
+		var density = 1.225 * exp(-100_000 / 8_500.0);
+		var expectedAcceleration = -0.5 * density * 2.2 * PI * 7_800 * 7_800 / 1_000.0;
+
+		assertEquals(0.0, perturbation.getX(), 1.0E-15);
+		assertEquals(expectedAcceleration, perturbation.getY(), Math.abs(expectedAcceleration) * 1.0E-9);
+
+		// the reaction on the earth conserves momentum
+		var momentum = earth.getVelocity().times(EARTH_MASS).plus(satellite.getVelocity().times(1_000.0));
+		assertEquals(7_800 * 1_000.0, momentum.getY(), 1.0E-6);
+	}
+
+	@Test
+	void testDisabledTerms() {
+
+		var disabledTerm = new BodyForceTerm() {
+
+			@Override
+			public boolean isEnabled() {
+				return false;
+			}
+
+			@Override
+			public void addForces(Body body, int index, double[] forcesX, double[] forcesY) {
+				throw new AssertionError("disabled term evaluated");
+			}
+		};
+
+		var pipeline = new ForcePipeline(List.of(disabledTerm, new PostNewtonianTerm()));
+
+		assertEquals(0, pipeline.getBodyTerms().length);
+		assertEquals(1, pipeline.getPairTerms().length);
+		assertTrue(new ForcePipeline(List.of(disabledTerm)).isEmpty());
+		assertEquals(new Vector2(0, 0), getPerturbation(List.of(disabledTerm)));
+	}
+}
@@ -0,0 +1,112 @@
+package com.github.achaaab.gravity_simulator;
+
+import javafx.application.Platform;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static java.lang.String.format;
+import static javafx.scene.paint.Color.BLUE;
+import static javafx.scene.paint.Color.YELLOW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * unit tests of {@link FrameExporter}, on the headless Monocle platform
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestFrameExporter {
+
+	private static final double DAY = 86_400;
+
+	@BeforeAll
+	static void startPlatform() {
+
+		try {
+			Platform.startup(() -> {});
+		} catch (IllegalStateException alreadyStarted) {
+			// started by another test
+		}
+	}
+
+	/**
+	 * @return universe with the sun and the earth
+	 */
+	private static UniverseModel createSunEarth() {
+
+		var universe = new UniverseModel();
+		var sun = new Body("Sun", 696_340_000, 1.9884E30, YELLOW);
+		var earth = new Body("Earth", 6_371_000, 5.9722E24, BLUE);
+
+		universe.addBody(sun);
+		universe.addOrbitingBody(new EllipticOrbit(sun, earth, 1.521E11, 1.47095E11, true));
+
+		return universe;
+	}
+
+	@Test
+	void testExport(@TempDir Path directory) throws IOException, InterruptedException {
+
+		var universe = createSunEarth();
+		var view = new UniverseView();
+		view.anchor().setValue(universe.getBodies().get(0));
+
+		var width = (int) view.getWidth();
+		var height = (int) view.getHeight();
+		var exporter = new FrameExporter(universe, view, null);
+
+		try (var writer = new PngSequenceWriter(directory, width, height, 2, 2)) {
+			assertEquals(2, exporter.export(writer, 3, DAY, DAY));
+		}
+
+		try (var files = Files.list(directory)) {
+			assertEquals(3, files.count());
+		}
+
+		var image = ImageIO.read(directory.resolve(format(PngSequenceWriter.FILE_NAME_FORMAT, 2)).toFile());
+
+		assertEquals(width, image.getWidth());
+		assertEquals(height, image.getHeight());
+
+		// black background, the anchored sun being drawn at the center
+		assertEquals(0xFF000000, image.getRGB(0, 0));
+		assertNotEquals(0xFF000000, image.getRGB(width / 2, height / 2));
+	}
+
+	@Test
+	void testDrawingFailure(@TempDir Path directory) throws IOException {
+
+		var universe = createSunEarth();
+
+		var view = new UniverseView() {
+
+			@Override
+			public void draw() {
+				throw new IllegalStateException("drawing failure");
+			}
+		};
+
+		var width = (int) view.getWidth();
+		var height = (int) view.getHeight();
+		var exporter = new FrameExporter(universe, view, null);
+
+		try (var writer = new PngSequenceWriter(directory, width, height, 1, 1)) {
+
+			assertThrows(IllegalStateException.class, () -> exporter.export(writer, 1, DAY, DAY));
+
+			// the only buffer is released
+			var pixels = assertTimeoutPreemptively(Duration.ofSeconds(10), writer::acquireBuffer);
+			writer.releaseBuffer(pixels);
+		}
+	}
+}
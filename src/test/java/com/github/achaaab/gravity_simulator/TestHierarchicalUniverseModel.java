@@ -0,0 +1,267 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static javafx.scene.paint.Color.BLUE;
+import static javafx.scene.paint.Color.GRAY;
+import static javafx.scene.paint.Color.YELLOW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link HierarchicalUniverseModel}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestHierarchicalUniverseModel {
+
+	private static final double DAY = 86_400;
+	private static final double HOUR = 3_600;
+	private static final double MINUTE = 60;
+
+	/**
+	 * Adds the sun, the earth and the moon.
+	 *
+	 * @param universe universe in which to add the bodies
+	 * @return added bodies
+	 */
+	private static List<Body> addSunEarthMoon(AbstractUniverseModel universe) {
+
+		var sun = new Body("Sun", 696_340_000, 1.9884E30, YELLOW);
+		var earth = new Body("Earth", 6_371_000, 5.9722E24, BLUE);
+		var moon = new Body("Moon", 1_737_400, 7.342E22, GRAY);
+
+		universe.addBody(sun);
+		universe.addOrbitingBody(new EllipticOrbit(sun, earth, 1.521E11, 1.47095E11, true));
+		universe.addOrbitingBody(new EllipticOrbit(earth, moon, 405_400_000, 362_600_000, true));
+
+		return List.of(sun, earth, moon);
+	}
+
+	@Test
+	void testDetection() {
+
+		var universe = new HierarchicalUniverseModel();
+		var bodies = addSunEarthMoon(universe);
+		var sun = bodies.get(0);
+		var earth = bodies.get(1);
+		var moon = bodies.get(2);
+
+		universe.update(DAY);
+
+		assertSame(earth, universe.getPartner(moon));
+		assertSame(moon, universe.getPartner(earth));
+		assertNull(universe.getPartner(sun));
+
+		// 1 pair of composite bodies, plus the sub-steps of the earth and the moon
+		assertTrue(universe.getInteractionCount() > 1);
+		assertEquals(DAY, universe.getTime());
+
+		// the moon orbit is resolved by small enough updates
+		var fineUniverse = new HierarchicalUniverseModel();
+		var fineBodies = addSunEarthMoon(fineUniverse);
+		fineUniverse.update(MINUTE);
+
+		assertNull(fineUniverse.getPartner(fineBodies.get(2)));
+		assertEquals(3, fineUniverse.getInteractionCount());
+	}
+
+	@Test
+	void testShortUpdate() {
+
+		var universe = new HierarchicalUniverseModel();
+		var bodies = addSunEarthMoon(universe);
+		var moon = bodies.get(2);
+
+		for (var update = 0; update < HierarchicalUniverseModel.DETECTION_INTERVAL; update++) {
+			universe.update(DAY);
+		}
+
+		// the pairs are detected again during this update, against the longest update since the previous detection
+		universe.update(MINUTE);
+		assertSame(bodies.get(1), universe.getPartner(moon));
+
+		// a detection with only short updates dissolves the pair
+		for (var update = 0; update < HierarchicalUniverseModel.DETECTION_INTERVAL; update++) {
+			universe.update(MINUTE);
+		}
+
+		assertNull(universe.getPartner(moon));
+	}
+
+	@Test
+	void testHysteresis() {
+
+		// the moon orbit takes about 100 updates of 6.5 hours: too many to form a pair, but not to keep it
+		var universe = new HierarchicalUniverseModel();
+		var bodies = addSunEarthMoon(universe);
+		var moon = bodies.get(2);
+
+		universe.update(DAY);
+		assertSame(bodies.get(1), universe.getPartner(moon));
+
+		for (var update = 0; update < HierarchicalUniverseModel.DETECTION_INTERVAL; update++) {
+			universe.update(6.5 * HOUR);
+		}
+
+		assertSame(bodies.get(1), universe.getPartner(moon));
+
+		var newUniverse = new HierarchicalUniverseModel();
+		var newBodies = addSunEarthMoon(newUniverse);
+		newUniverse.update(6.5 * HOUR);
+
+		assertNull(newUniverse.getPartner(newBodies.get(2)));
+	}
+
+	@Test
+	void testSubStepLimit() {
+
+		// a tight binary, orbiting in a few hours, would need billions of sub-steps
+		var star0 = new Body("star 0", 1, 1.0E24, YELLOW);
+		var star1 = new Body("star 1", 1, 1.0E24, YELLOW);
+		var universe = new HierarchicalUniverseModel();
+
+		universe.addBody(star0);
+		universe.addOrbitingBody(new EllipticOrbit(star0, star1, 1.0E7, 1.0E7, true));
+		universe.update(100 * 365 * DAY);
+
+		assertSame(star0, universe.getPartner(star1));
+		assertEquals(HierarchicalUniverseModel.MAXIMUM_SUB_STEP_COUNT, universe.getInteractionCount());
+	}
+
+	@Test
+	void testRewind() {
+
+		var universe = new HierarchicalUniverseModel();
+		var bodies = addSunEarthMoon(universe);
+		var moon = bodies.get(2);
+
+		var recorder = new KeyframeRecorder(universe, 10 * DAY, 1L << 20);
+		var history = new ArrayList<List<Vector2>>();
+
+		// updates of 6.5 hours are too short to form the pair of the earth and the moon, updates of a day are not
+		for (var update = 0; update < 20; update++) {
+
+			recorder.advance(6.5 * HOUR, 6.5 * HOUR);
+			history.add(getStates(bodies));
+		}
+
+		assertNull(universe.getPartner(moon));
+
+		for (var update = 0; update < 20; update++) {
+			recorder.advance(DAY, DAY);
+		}
+
+		assertSame(bodies.get(1), universe.getPartner(moon));
+
+		// the replay starts without the pair, and keeps it unformed
+		assertEquals(10, recorder.rewind(10 * 6.5 * HOUR));
+		assertNull(universe.getPartner(moon));
+		assertEquals(history.get(9), getStates(bodies));
+
+		for (var update = 10; update < 20; update++) {
+
+			recorder.advance(6.5 * HOUR, 6.5 * HOUR);
+			assertEquals(history.get(update), getStates(bodies));
+		}
+	}
+
+	@Test
+	void testAccuracy() {
+
+		var reference = new UniverseModel();
+		var flat = new UniverseModel();
+		var hierarchical = new HierarchicalUniverseModel();
+
+		var referenceBodies = addSunEarthMoon(reference);
+		var flatBodies = addSunEarthMoon(flat);
+		var hierarchicalBodies = addSunEarthMoon(hierarchical);
+
+		var dayCount = 60;
+
+		for (var minute = 0; minute < dayCount * DAY / MINUTE; minute++) {
+			reference.update(MINUTE);
+		}
+
+		for (var day = 0; day < dayCount; day++) {
+
+			flat.update(DAY);
+			hierarchical.update(DAY);
+		}
+
+		// the outer orbit is integrated with the same step, the difference lies in the moon orbit
+		var referenceMoon = getRelativePosition(referenceBodies);
+		var flatError = getRelativePosition(flatBodies).minus(referenceMoon).magnitude();
+		var hierarchicalError = getRelativePosition(hierarchicalBodies).minus(referenceMoon).magnitude();
+
+		assertTrue(hierarchicalError < flatError / 10,
+				"hierarchical error: " + hierarchicalError + ", flat error: " + flatError);
+
+		// the moon stays at a realistic distance from the earth
+		var moonDistance = getRelativePosition(hierarchicalBodies).magnitude();
+		assertTrue(moonDistance > 3.5E8 && moonDistance < 4.1E8, "moon distance: " + moonDistance);
+	}
+
+	@Test
+	void testCenterOfMass() {
+
+		var universe = new HierarchicalUniverseModel();
+		var bodies = addSunEarthMoon(universe);
+
+		var momentum = getMomentum(bodies);
+
+		for (var day = 0; day < 100; day++) {
+			universe.update(DAY);
+		}
+
+		var drift = getMomentum(bodies).minus(momentum).magnitude();
+		assertTrue(drift < 1.0E-9 * bodies.get(1).getMass() * bodies.get(1).getVelocity().magnitude(),
+				"momentum drift: " + drift);
+	}
+
+	/**
+	 * @param bodies bodies
+	 * @return copy of the positions and velocities of the bodies
+	 */
+	private static List<Vector2> getStates(List<Body> bodies) {
+
+		var states = new ArrayList<Vector2>();
+
+		for (var body : bodies) {
+
+			states.add(body.getPosition());
+			states.add(body.getVelocity());
+		}
+
+		return states;
+	}
+
+	/**
+	 * @param bodies bodies
+	 * @return total linear momentum of the bodies
+	 */
+	private static Vector2 getMomentum(List<Body> bodies) {
+
+		var momentum = new Vector2();
+
+		for (var body : bodies) {
+			momentum = momentum.plus(body.getVelocity().times(body.getMass()));
+		}
+
+		return momentum;
+	}
+
+	/**
+	 * @param bodies sun, earth and moon
+	 * @return position of the moon relative to the earth
+	 */
+	private static Vector2 getRelativePosition(List<Body> bodies) {
+		return bodies.get(2).getPosition().minus(bodies.get(1).getPosition());
+	}
+}
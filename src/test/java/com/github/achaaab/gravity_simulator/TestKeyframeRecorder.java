@@ -0,0 +1,182 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.achaaab.gravity_simulator.EventFunction.radialVelocity;
+import static javafx.scene.paint.Color.BLUE;
+import static javafx.scene.paint.Color.YELLOW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link KeyframeRecorder}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestKeyframeRecorder {
+
+	private static final double DAY = 86_400;
+
+	/**
+	 * @param universe universe
+	 * @return copy of the positions and velocities of the bodies
+	 */
+	private static List<Vector2> getStates(UniverseModel universe) {
+
+		var states = new ArrayList<Vector2>();
+
+		for (var body : universe.getBodies()) {
+
+			states.add(body.getPosition());
+			states.add(body.getVelocity());
+		}
+
+		return states;
+	}
+
+	@Test
+	void testRewind() {
+
+		var universe = new UniverseModel();
+		SolarSystemSimulation.addSolarSystem(universe);
+
+		var recorder = new KeyframeRecorder(universe, 10 * DAY, 1L << 20);
+
+		var history = new ArrayList<List<Vector2>>();
+		history.add(getStates(universe));
+
+		for (var day = 1; day <= 100; day++) {
+
+			recorder.advance(DAY, DAY);
+			history.add(getStates(universe));
+		}
+
+		// keyframes at days 0, 10, ..., 90
+		assertEquals(10, recorder.getKeyframeCount());
+
+		// 7 days after the keyframe at day 30
+		var stepCount = recorder.rewind(37 * DAY);
+
+		assertEquals(7, stepCount);
+		assertEquals(37 * DAY, universe.getTime());
+		assertEquals(history.get(37), getStates(universe));
+
+		// keyframes after day 30 are discarded
+		assertEquals(4, recorder.getKeyframeCount());
+
+		stepCount = recorder.rewind(20 * DAY);
+
+		assertEquals(0, stepCount);
+		assertEquals(history.get(20), getStates(universe));
+		assertEquals(3, recorder.getKeyframeCount());
+	}
+
+	@Test
+	void testReplay() {
+
+		var universe = new UniverseModel();
+		SolarSystemSimulation.addSolarSystem(universe);
+
+		var updateCount = new int[1];
+		universe.addUpdateListener(updatedUniverse -> updateCount[0]++);
+
+		var recorder = new KeyframeRecorder(universe, 10 * DAY, 1L << 20);
+
+		// frames shorter than the maximum update duration, then frames split in several updates
+		var frameDurations = new double[] { 16_666.67, 100_000.0 };
+		var times = new ArrayList<Double>();
+		var history = new ArrayList<List<Vector2>>();
+
+		for (var frameDuration : frameDurations) {
+
+			for (var frame = 0; frame < 100; frame++) {
+
+				recorder.advance(frameDuration, DAY);
+				times.add(universe.getTime());
+				history.add(getStates(universe));
+			}
+		}
+
+		assertEquals(updateCount[0], 100 + 200);
+
+		// each change of duration starts a new keyframe
+		assertTrue(recorder.getKeyframeCount() > 1 + 100 * frameDurations[1] / (10 * DAY));
+
+		for (var frame : new int[] { 150, 120, 99, 42, 0 }) {
+
+			recorder.rewind(times.get(frame));
+
+			assertEquals(times.get(frame), universe.getTime());
+			assertEquals(history.get(frame), getStates(universe));
+		}
+
+		// replayed updates are not notified
+		assertEquals(updateCount[0], 100 + 200);
+	}
+
+	@Test
+	void testReplayedEvents() {
+
+		var universe = new UniverseModel();
+		var sun = new Body("Sun", 696_340_000, 1.9884E30, YELLOW);
+		var earth = new Body("Earth", 6_371_000, 5.9722E24, BLUE);
+
+		universe.addBody(sun);
+		universe.addOrbitingBody(new EllipticOrbit(sun, earth, 1.521E11, 1.47095E11, true));
+
+		var eventTimes = new ArrayList<Double>();
+		universe.addEventDetector(new EventDetector(radialVelocity(earth, sun),
+				(detector, time, states) -> eventTimes.add(time)));
+
+		var diagnostics = new ConservationDiagnostics(1_000, 1.0E-6);
+		universe.setDiagnostics(diagnostics);
+
+		// a single keyframe, at day 0
+		var recorder = new KeyframeRecorder(universe, 1_000 * DAY, 1L << 20);
+
+		for (var day = 1; day <= 730; day++) {
+			recorder.advance(DAY, DAY);
+		}
+
+		// periapsis, apoapsis and periapsis again
+		assertEquals(3, eventTimes.size());
+		assertEquals(730, diagnostics.getSampleCount());
+
+		// the replayed periapsis and apoapsis are not reported again, nor sampled
+		assertEquals(400, recorder.rewind(400 * DAY));
+		assertEquals(3, eventTimes.size());
+		assertEquals(730, diagnostics.getSampleCount());
+		assertEquals(729 * DAY, diagnostics.getTime(729));
+
+		// new updates are
+		recorder.advance(DAY, DAY);
+		assertEquals(731, diagnostics.getSampleCount());
+		assertEquals(400 * DAY, diagnostics.getTime(730));
+	}
+
+	@Test
+	void testMemoryBudget() {
+
+		var universe = new UniverseModel();
+		SolarSystemSimulation.addSolarSystem(universe);
+
+		// 10 bodies, (10 * 4 + 3) doubles per keyframe
+		var recorder = new KeyframeRecorder(universe, DAY, 5 * 43 * 8);
+
+		for (var day = 1; day <= 20; day++) {
+			recorder.advance(DAY, DAY);
+		}
+
+		assertEquals(5, recorder.getCapacity());
+		assertEquals(5, recorder.getKeyframeCount());
+		assertEquals(15 * DAY, recorder.getOldestTime());
+
+		// times before the oldest keyframe are clamped to it
+		recorder.rewind(0);
+		assertEquals(15 * DAY, universe.getTime());
+	}
+}
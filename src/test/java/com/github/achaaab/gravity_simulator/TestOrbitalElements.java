@@ -0,0 +1,163 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.github.achaaab.gravity_simulator.UniverseModel.G;
+import static java.lang.Math.PI;
+import static java.lang.Math.sin;
+import static javafx.scene.paint.Color.WHITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * unit tests of {@link OrbitalElements}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestOrbitalElements {
+
+	private static final double SUN_MASS = 1.9884E30;
+	private static final double APHELION = 1.521E11;
+	private static final double PERIHELION = 1.47095E11;
+
+	@Test
+	void testSolveKeplerEquation() {
+
+		var random = new Random(0);
+
+		for (var index = 0; index < 10_000; index++) {
+
+			var meanAnomaly = (random.nextDouble() - 0.5) * 20;
+			var eccentricity = random.nextDouble() * 0.999;
+			var eccentricAnomaly = OrbitalElements.solveKeplerEquation(meanAnomaly, eccentricity);
+			var computedMeanAnomaly = eccentricAnomaly - eccentricity * sin(eccentricAnomaly);
+
+			assertEquals(0, Math.IEEEremainder(computedMeanAnomaly - meanAnomaly, 2 * PI), 1.0E-12);
+		}
+	}
+
+	@Test
+	void testApoapsis() {
+
+		var sun = new Body("Sun", 1.0, SUN_MASS, WHITE);
+		sun.setPosition(new Vector2(1.0E9, -2.0E9));
+		sun.setVelocity(new Vector2(100.0, 200.0));
+
+		var semiMajorAxis = (APHELION + PERIHELION) / 2;
+		var eccentricity = (APHELION - PERIHELION) / (APHELION + PERIHELION);
+
+		var orbits = new OrbitalElements(
+				new double[] { semiMajorAxis, semiMajorAxis },
+				new double[] { eccentricity, eccentricity },
+				new double[] { PI, PI },
+				new double[] { PI, PI },
+				new boolean[] { true, false });
+
+		var progradeBody = new Body("prograde", 1.0, 1.0, WHITE);
+		var retrogradeBody = new Body("retrograde", 1.0, 1.0, WHITE);
+
+		var universe = new UniverseModel();
+		universe.addBody(sun);
+		universe.addOrbitingBodies(sun, new Body[] { progradeBody, retrogradeBody }, orbits);
+
+		assertEquals(3, universe.getBodies().size());
+
+		for (var body : new Body[] { progradeBody, retrogradeBody }) {
+
+			var orbit = new EllipticOrbit(sun, body, APHELION, PERIHELION, body == progradeBody);
+			var expectedVelocity = sun.getVelocity().plus(orbit.getVelocityAtApoapsis());
+
+			assertEquals(1.0E9 + APHELION, body.getPosition().getX(), 1.0E-3);
+			assertEquals(-2.0E9, body.getPosition().getY(), 1.0E-3);
+			assertEquals(expectedVelocity.getX(), body.getVelocity().getX(), 1.0E-9);
+			assertEquals(expectedVelocity.getY(), body.getVelocity().getY(), 1.0E-9);
+		}
+	}
+
+	@Test
+	void testEnergy() {
+
+		var sun = new Body("Sun", 1.0, SUN_MASS, WHITE);
+		var random = new Random(0);
+		var size = 1_000;
+
+		var semiMajorAxes = new double[size];
+		var eccentricities = new double[size];
+		var argumentsOfPeriapsis = new double[size];
+		var meanAnomalies = new double[size];
+		var prograde = new boolean[size];
+		var bodies = new Body[size];
+
+		for (var index = 0; index < size; index++) {
+
+			semiMajorAxes[index] = 1.0E11 + random.nextDouble() * 1.0E12;
+			eccentricities[index] = random.nextDouble() * 0.9;
+			argumentsOfPeriapsis[index] = random.nextDouble() * 2 * PI;
+			meanAnomalies[index] = random.nextDouble() * 2 * PI;
+			prograde[index] = random.nextBoolean();
+			bodies[index] = new Body("body" + index, 1.0, 1.0, WHITE);
+		}
+
+		new OrbitalElements(semiMajorAxes, eccentricities, argumentsOfPeriapsis, meanAnomalies, prograde).
+				place(sun, bodies);
+
+		var standardGravitationalParameter = G * SUN_MASS;
+
+		for (var index = 0; index < size; index++) {
+
+			var distance = bodies[index].getPosition().magnitude();
+			var speed = bodies[index].getVelocity().magnitude();
+
+			// vis-viva equation
+			var expectedSquaredSpeed = standardGravitationalParameter * (2 / distance - 1 / semiMajorAxes[index]);
+			assertEquals(expectedSquaredSpeed, speed * speed, expectedSquaredSpeed * 1.0E-12);
+
+			// angular momentum sign gives the direction of revolution
+			var position = bodies[index].getPosition();
+			var velocity = bodies[index].getVelocity();
+			var angularMomentum = position.getX() * velocity.getY() - position.getY() * velocity.getX();
+			assertEquals(prograde[index], angularMomentum < 0);
+		}
+	}
+
+	@Test
+	void testInvalidLengths() {
+
+		assertThrows(IllegalArgumentException.class, () -> new OrbitalElements(
+				new double[2], new double[2], new double[2], new double[1], new boolean[2]));
+	}
+
+	@Test
+	void testInvalidElements() {
+
+		assertThrows(IllegalArgumentException.class, () -> createOrbit(0, 0.5, 0));
+		assertThrows(IllegalArgumentException.class, () -> createOrbit(-APHELION, 0.5, 0));
+		assertThrows(IllegalArgumentException.class, () -> createOrbit(Double.NaN, 0.5, 0));
+		assertThrows(IllegalArgumentException.class, () -> createOrbit(Double.POSITIVE_INFINITY, 0.5, 0));
+		assertThrows(IllegalArgumentException.class, () -> createOrbit(APHELION, 1, 0));
+		assertThrows(IllegalArgumentException.class, () -> createOrbit(APHELION, -0.1, 0));
+		assertThrows(IllegalArgumentException.class, () -> createOrbit(APHELION, Double.NaN, 0));
+		assertThrows(IllegalArgumentException.class, () -> createOrbit(APHELION, 0.5, Double.NaN));
+
+		assertEquals(1, createOrbit(APHELION, 0, 0).size());
+	}
+
+	/**
+	 * @param semiMajorAxis semi-major axis, in meters
+	 * @param eccentricity eccentricity
+	 * @param meanAnomaly mean anomaly, in radians
+	 * @return orbital elements of a single prograde orbit
+	 */
+	private static OrbitalElements createOrbit(double semiMajorAxis, double eccentricity, double meanAnomaly) {
+
+		return new OrbitalElements(
+				new double[] { semiMajorAxis },
+				new double[] { eccentricity },
+				new double[] { 0 },
+				new double[] { meanAnomaly },
+				new boolean[] { true });
+	}
+}
@@ -0,0 +1,53 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link PerformanceMonitor}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestPerformanceMonitor {
+
+	@Test
+	void testDisabled() {
+
+		var monitor = new PerformanceMonitor(10_000_000);
+		monitor.recordFrame(20_000_000, 20_000_000, 5, 100);
+
+		assertEquals(0, monitor.getFrameCount());
+		assertEquals(0, monitor.getDroppedFrameCount());
+		assertTrue(Double.isNaN(monitor.getFrameTimeMedian()));
+	}
+
+	@Test
+	void testStatistics() {
+
+		var monitor = new PerformanceMonitor(10_000_000);
+		monitor.setEnabled(true);
+
+		for (var frame = 1; frame <= 100; frame++) {
+			monitor.recordFrame(frame * 100_000_000L, frame * 100_000L, 10, 1_000);
+		}
+
+		assertEquals(100, monitor.getFrameCount());
+		assertEquals(0, monitor.getDroppedFrameCount());
+		assertEquals(5.0, monitor.getFrameTimeMedian(), 1E-9);
+		assertEquals(9.5, monitor.getFrameTime95thPercentile(), 1E-9);
+		assertEquals(9.9, monitor.getFrameTime99thPercentile(), 1E-9);
+
+		// 1000 steps between the start of the first frame (0.0999 s) and the end of the last frame (10 s)
+		assertEquals(1_000 / 9.9001, monitor.getStepsPerSecond(), 1E-9);
+		assertEquals(100_000 / 9.9001, monitor.getInteractionsPerSecond(), 1E-6);
+
+		monitor.recordFrame(10_200_000_000L, 20_000_000, 10, 1_000);
+		assertEquals(1, monitor.getDroppedFrameCount());
+
+		monitor.reset();
+		assertEquals(0, monitor.getFrameCount());
+	}
+}
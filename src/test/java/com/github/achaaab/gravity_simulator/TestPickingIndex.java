@@ -0,0 +1,171 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static javafx.scene.paint.Color.GRAY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link PickingIndex}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestPickingIndex {
+
+	private static final double WIDTH = 1600;
+	private static final double HEIGHT = 900;
+	private static final double RADIUS = 8;
+
+	/**
+	 * @param random random generator
+	 * @param bodyCount number of bodies
+	 * @return bodies at random positions, in meters, some of them out of the screen
+	 */
+	private static List<Body> createBodies(Random random, int bodyCount) {
+
+		var bodies = new ArrayList<Body>(bodyCount);
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			var body = new Body("body " + index, 1, 1, GRAY);
+			body.setPosition(new Vector2(random.nextDouble(-1000, 1000), random.nextDouble(-600, 600)));
+			bodies.add(body);
+		}
+
+		return bodies;
+	}
+
+	/**
+	 * @param index picking index
+	 * @param bodyCount number of bodies
+	 * @param x screen abscissa
+	 * @param y screen ordinate
+	 * @return index of the nearest body within the radius, by brute force
+	 */
+	private static int pickBruteForce(PickingIndex index, int bodyCount, double x, double y) {
+
+		var nearestIndex = -1;
+		var nearestSquaredDistance = RADIUS * RADIUS;
+
+		for (var bodyIndex = 0; bodyIndex < bodyCount; bodyIndex++) {
+
+			var screenX = index.getScreenX(bodyIndex);
+			var screenY = index.getScreenY(bodyIndex);
+
+			if (screenX < 0 || screenX >= WIDTH || screenY < 0 || screenY >= HEIGHT) {
+				continue;
+			}
+
+			var deltaX = screenX - x;
+			var deltaY = screenY - y;
+			var squaredDistance = deltaX * deltaX + deltaY * deltaY;
+
+			if (squaredDistance <= nearestSquaredDistance) {
+
+				nearestIndex = bodyIndex;
+				nearestSquaredDistance = squaredDistance;
+			}
+		}
+
+		return nearestIndex;
+	}
+
+	@Test
+	void testPick() {
+
+		var random = new Random(0);
+		var bodies = createBodies(random, 10_000);
+		var index = new PickingIndex(2 * RADIUS);
+
+		// scale of 1 pixel per meter, origin at the center of the screen
+		index.update(bodies, WIDTH, HEIGHT, WIDTH / 2, HEIGHT / 2, 1);
+
+		// only bodies on screen are indexed
+		var visibleCount = bodies.stream().
+				map(Body::getPosition).
+				filter(position -> abs(position.getX()) < WIDTH / 2 && abs(position.getY()) < HEIGHT / 2).
+				count();
+
+		assertEquals(visibleCount, index.getRelinkCount());
+
+		for (var query = 0; query < 1_000; query++) {
+
+			var x = random.nextDouble(-20, WIDTH + 20);
+			var y = random.nextDouble(-20, HEIGHT + 20);
+			assertEquals(pickBruteForce(index, bodies.size(), x, y), index.pick(x, y, RADIUS));
+		}
+
+		// bodies slightly moved: only those changing cell are relinked
+		for (var body : bodies.subList(0, 100)) {
+			body.setPosition(body.getPosition().plus(new Vector2(50, 50)));
+		}
+
+		index.update(bodies, WIDTH, HEIGHT, WIDTH / 2, HEIGHT / 2, 1);
+		assertTrue(index.getRelinkCount() <= 100);
+
+		for (var query = 0; query < 1_000; query++) {
+
+			var x = random.nextDouble(WIDTH);
+			var y = random.nextDouble(HEIGHT);
+			assertEquals(pickBruteForce(index, bodies.size(), x, y), index.pick(x, y, RADIUS));
+		}
+
+		// panned view
+		index.update(bodies, WIDTH, HEIGHT, 0, 0, 2);
+
+		for (var query = 0; query < 1_000; query++) {
+
+			var x = random.nextDouble(WIDTH);
+			var y = random.nextDouble(HEIGHT);
+			assertEquals(pickBruteForce(index, bodies.size(), x, y), index.pick(x, y, RADIUS));
+		}
+
+		index.update(bodies, WIDTH, HEIGHT, 0, 0, 2);
+		assertEquals(0, index.getRelinkCount());
+	}
+
+	@Test
+	void testPickManyBodies() {
+
+		var random = new Random(1);
+		var bodyCount = 100_000;
+		var bodies = createBodies(random, bodyCount);
+		var index = new PickingIndex(2 * RADIUS);
+		index.update(bodies, WIDTH, HEIGHT, WIDTH / 2, HEIGHT / 2, 1);
+
+		var pickedCount = 0;
+		var maximumVisitedCount = 0;
+
+		for (var query = 0; query < 10_000; query++) {
+
+			if (index.pick(random.nextDouble(WIDTH), random.nextDouble(HEIGHT), RADIUS) != -1) {
+				pickedCount++;
+			}
+
+			maximumVisitedCount = max(maximumVisitedCount, index.getVisitedCount());
+		}
+
+		assertTrue(pickedCount > 0);
+
+		// about 43 bodies are expected in the 4 cells around a pick
+		assertTrue(maximumVisitedCount < bodyCount / 500, "maximum visited count: " + maximumVisitedCount);
+	}
+
+	@Test
+	void testEmpty() {
+
+		var index = new PickingIndex(2 * RADIUS);
+		assertEquals(-1, index.pick(10, 10, RADIUS));
+
+		index.update(List.of(), WIDTH, HEIGHT, 0, 0, 1);
+		assertEquals(-1, index.pick(10, 10, RADIUS));
+	}
+}
@@ -0,0 +1,85 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+
+import static java.lang.String.format;
+import static java.util.Arrays.fill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link PngSequenceWriter}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestPngSequenceWriter {
+
+	private static final int WIDTH = 64;
+	private static final int HEIGHT = 32;
+
+	@Test
+	void testWrite(@TempDir Path directory) throws IOException, InterruptedException {
+
+		var frameCount = 24;
+		var buffers = Collections.newSetFromMap(new IdentityHashMap<int[], Boolean>());
+		var frames = directory.resolve("frames");
+
+		try (var writer = new PngSequenceWriter(frames, WIDTH, HEIGHT, 4, 3)) {
+
+			for (var frame = 0; frame < frameCount; frame++) {
+
+				var pixels = writer.acquireBuffer();
+				buffers.add(pixels);
+
+				// one gray level per frame, with a white pixel in the top left corner
+				fill(pixels, 0xFF000000 | frame * 0x010101);
+				pixels[0] = 0xFFFFFFFF;
+
+				writer.submit(pixels);
+			}
+
+			assertEquals(frameCount, writer.getFrameCount());
+		}
+
+		assertEquals(3, buffers.size());
+
+		try (var files = Files.list(frames)) {
+			assertEquals(frameCount, files.count());
+		}
+
+		for (var frame = 0; frame < frameCount; frame++) {
+
+			var image = ImageIO.read(frames.resolve(format("frame_%06d.png", frame)).toFile());
+
+			assertEquals(WIDTH, image.getWidth());
+			assertEquals(HEIGHT, image.getHeight());
+			assertEquals(0xFFFFFFFF, image.getRGB(0, 0));
+			assertEquals(0xFF000000 | frame * 0x010101, image.getRGB(WIDTH - 1, HEIGHT - 1));
+			assertEquals(3, image.getColorModel().getNumComponents());
+		}
+	}
+
+	@Test
+	void testEncodingFailure(@TempDir Path directory) throws IOException, InterruptedException {
+
+		var writer = new PngSequenceWriter(directory, WIDTH, HEIGHT, 1, 1);
+		writer.acquireBuffer();
+
+		// a buffer too small for the frame size cannot be encoded
+		writer.submit(new int[1]);
+
+		var exception = assertThrows(IOException.class, writer::close);
+		assertInstanceOf(RuntimeException.class, exception.getCause());
+	}
+}
@@ -0,0 +1,204 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static javafx.scene.paint.Color.YELLOW;
+import static javafx.scene.paint.Color.rgb;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * unit tests of {@link ScenarioLoader} and {@link ScenarioWriter}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestScenarioLoader {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testLoadCsv() throws IOException {
+
+		var path = directory.resolve("scenario.csv");
+
+		Files.writeString(path, """
+				# kind,name,radius,mass,color,...
+				body,Sun,696340000,1.9884E30,yellow,1.5,-2.5,0.125,0
+
+				body, Comet , 1E3 ,2.2e14, #FF800080 ,-1.23456789012345678E12,0.001,-3,+4
+				orbit,Earth,6371000,5.9722E24,#0000FF,Sun,1.521E11,1.47095E11,prograde\r
+				orbit,Moon,1737400,7.342E22,#808080,Earth,405400000,362600000,retrograde""");
+
+		var universe = new UniverseModel();
+		var bodyCount = new ScenarioLoader(universe).loadCsv(path);
+
+		assertEquals(4, bodyCount);
+
+		var bodies = universe.getBodies();
+		var sun = bodies.get(0);
+		var comet = bodies.get(1);
+		var earth = bodies.get(2);
+		var moon = bodies.get(3);
+
+		assertEquals("Sun", sun.toString());
+		assertEquals(696_340_000, sun.getRadius());
+		assertEquals(1.9884E30, sun.getMass());
+		assertEquals(YELLOW, sun.getPaint());
+		assertEquals(new Vector2(1.5, -2.5), sun.getPosition());
+		assertEquals(new Vector2(0.125, 0), sun.getVelocity());
+
+		assertEquals("Comet", comet.toString());
+		assertEquals(2.2E14, comet.getMass());
+		assertEquals(rgb(255, 128, 0, 128 / 255.0), comet.getPaint());
+		assertEquals(new Vector2(-1.23456789012345678E12, 0.001), comet.getPosition());
+		assertEquals(new Vector2(-3, 4), comet.getVelocity());
+
+		var earthOrbit = new EllipticOrbit(sun, earth, 1.521E11, 1.47095E11, true);
+		assertEquals(new Vector2(1.5 + 1.521E11, -2.5), earth.getPosition());
+		assertEquals(sun.getVelocity().plus(earthOrbit.getVelocityAtApoapsis()), earth.getVelocity());
+
+		var moonOrbit = new EllipticOrbit(earth, moon, 405_400_000, 362_600_000, false);
+		assertEquals(earth.getPosition().plus(new Vector2(405_400_000, 0)), moon.getPosition());
+		assertEquals(earth.getVelocity().plus(moonOrbit.getVelocityAtApoapsis()), moon.getVelocity());
+	}
+
+	@Test
+	void testLoadLargeCsv() throws IOException {
+
+		var path = directory.resolve("catalog.csv");
+
+		try (var writer = Files.newBufferedWriter(path)) {
+
+			writer.write("body,Sun,696340000,1.9884E30,#FFFF00,0,0,0,0\n");
+
+			for (var index = 1; index < 100_000; index++) {
+				writer.write("orbit,A" + index + ",1000," + index + ".5,#A0A0A0,Sun," + (3E11 + index) + ",3E11,prograde\n");
+			}
+		}
+
+		var universe = new UniverseModel();
+		var bodyCount = new ScenarioLoader(universe).loadCsv(path);
+
+		assertEquals(100_000, bodyCount);
+
+		var bodies = universe.getBodies();
+
+		for (var index = 1; index < 100_000; index++) {
+
+			var body = bodies.get(index);
+			assertEquals("A" + index, body.toString());
+			assertEquals(index + 0.5, body.getMass());
+			assertEquals(3E11 + index, body.getPosition().getX());
+		}
+	}
+
+	@Test
+	void testMalformedCsv() throws IOException {
+
+		var path = directory.resolve("malformed.csv");
+		var loader = new ScenarioLoader(new UniverseModel());
+
+		Files.writeString(path, "planet,Sun,1,1,#FFFFFF,0,0,0,0\n");
+		assertThrows(IllegalArgumentException.class, () -> loader.loadCsv(path));
+
+		Files.writeString(path, "body,Sun,1,one,#FFFFFF,0,0,0,0\n");
+		assertThrows(IllegalArgumentException.class, () -> loader.loadCsv(path));
+
+		Files.writeString(path, "orbit,Earth,1,1,#FFFFFF,Sun,2,1,prograde\n");
+		assertThrows(IllegalArgumentException.class, () -> loader.loadCsv(path));
+	}
+
+	@Test
+	void testLongNumbers() throws IOException {
+
+		var path = directory.resolve("long_numbers.csv");
+		var zeros = "0".repeat(64);
+
+		Files.writeString(path, "body,Big,1" + zeros + ",1" + zeros + "E-40,#FFFFFF," +
+				"12345678901234567890123,0.000000000000000000001" + zeros + ",0." + zeros + ",-0\n");
+
+		var universe = new UniverseModel();
+		new ScenarioLoader(universe).loadCsv(path);
+		var body = universe.getBodies().get(0);
+
+		assertEquals(1.0E64, body.getRadius());
+		assertEquals(1.0E24, body.getMass());
+		assertEquals(new Vector2(1.2345678901234567890123E22, 1.0E-21), body.getPosition());
+		assertEquals(0.0, body.getVelocity().getX());
+	}
+
+	@Test
+	void testInvalidBinaryHeader() throws IOException {
+
+		var path = directory.resolve("invalid.gsim");
+		var header = ByteBuffer.allocate(ScenarioLoader.HEADER_SIZE)
+				.putInt(ScenarioLoader.MAGIC_NUMBER)
+				.putInt(ScenarioLoader.VERSION)
+				.putInt(-1)
+				.putInt(0);
+
+		Files.write(path, header.array());
+		assertThrows(IllegalArgumentException.class, () -> new ScenarioLoader(new UniverseModel()).load(path));
+	}
+
+	@Test
+	void testInvalidBinaryName() throws IOException {
+
+		var universe = new UniverseModel();
+		SolarSystemSimulation.addSolarSystem(universe);
+
+		var path = directory.resolve("invalid.gsim");
+		new ScenarioWriter().writeBinary(universe.getBodies(), path);
+
+		// the name of the second body ends after the names section
+		var bytes = Files.readAllBytes(path);
+		var namesSize = ByteBuffer.wrap(bytes).getInt(12);
+		ByteBuffer.wrap(bytes).putInt(ScenarioLoader.HEADER_SIZE + ScenarioLoader.RECORD_SIZE + 4, namesSize - 1);
+		Files.write(path, bytes);
+
+		assertThrows(IllegalArgumentException.class, () -> new ScenarioLoader(new UniverseModel()).load(path));
+	}
+
+	@Test
+	void testBinary() throws IOException {
+
+		var universe = new UniverseModel();
+		SolarSystemSimulation.addSolarSystem(universe);
+
+		for (var day = 0; day < 10; day++) {
+			universe.update(86_400);
+		}
+
+		var path = directory.resolve("solar_system.gsim");
+		new ScenarioWriter().writeBinary(universe.getBodies(), path);
+
+		var loadedUniverse = new UniverseModel();
+		var bodyCount = new ScenarioLoader(loadedUniverse).load(path);
+
+		var bodies = universe.getBodies();
+		var loadedBodies = loadedUniverse.getBodies();
+
+		assertEquals(bodies.size(), bodyCount);
+
+		for (var index = 0; index < bodyCount; index++) {
+
+			var body = bodies.get(index);
+			var loadedBody = loadedBodies.get(index);
+
+			assertEquals(body.toString(), loadedBody.toString());
+			assertEquals(body.getRadius(), loadedBody.getRadius());
+			assertEquals(body.getMass(), loadedBody.getMass());
+			assertEquals(body.getPaint(), loadedBody.getPaint());
+			assertEquals(body.getPosition(), loadedBody.getPosition());
+			assertEquals(body.getVelocity(), loadedBody.getVelocity());
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.net.http.HttpRequest.BodyPublishers.noBody;
+import static java.net.http.HttpRequest.BodyPublishers.ofString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link SimulationServer}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestSimulationServer {
+
+	private SimulationServer server;
+	private HttpClient client;
+
+	@BeforeEach
+	void start() throws IOException {
+
+		server = SimulationServer.start(0);
+		client = HttpClient.newHttpClient();
+	}
+
+	@AfterEach
+	void stop() {
+
+		client.close();
+		server.close();
+	}
+
+	/**
+	 * @param method HTTP method
+	 * @param path path and query
+	 * @param body request body
+	 * @return response
+	 * @throws IOException if the request fails
+	 * @throws InterruptedException if interrupted while waiting for the response
+	 */
+	private HttpResponse<String> send(String method, String path, String body)
+			throws IOException, InterruptedException {
+
+		var request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+				.method(method, body == null ? noBody() : ofString(body))
+				.build();
+
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Test
+	void testSession() throws IOException, InterruptedException {
+
+		var response = send("POST", "/sessions", null);
+		assertEquals(200, response.statusCode());
+		assertTrue(response.body().startsWith("{\"id\":1,\"time\":0.0,\"stepCount\":0,\"bodyCount\":10,"));
+
+		response = send("POST", "/sessions/1/step?count=24&deltaTime=3600", null);
+		assertEquals(200, response.statusCode());
+		assertTrue(response.body().contains("\"time\":86400.0,\"stepCount\":24,"));
+
+		response = send("POST", "/sessions/1/checkpoints", null);
+		assertEquals("{\"checkpoint\":0}", response.body());
+
+		var state = send("GET", "/sessions/1", null).body();
+		assertTrue(state.contains("{\"name\":\"Earth\",\"mass\":5.9722E24,\"x\":"));
+
+		send("POST", "/sessions/1/step?count=48", null);
+		assertEquals(72, server.getSession("1").getStepCount());
+
+		response = send("POST", "/sessions/1/checkpoints/0/restore", null);
+		assertEquals(200, response.statusCode());
+		assertEquals(state, send("GET", "/sessions/1", null).body());
+
+		assertEquals(404, send("POST", "/sessions/1/checkpoints/1/restore", null).statusCode());
+		assertEquals(404, send("GET", "/sessions/2", null).statusCode());
+		assertEquals(400, send("POST", "/sessions/1/step?count=many", null).statusCode());
+		assertEquals(405, send("PUT", "/sessions/1", null).statusCode());
+
+		assertEquals(200, send("DELETE", "/sessions/1", null).statusCode());
+		assertEquals(0, server.getSessionCount());
+	}
+
+	@Test
+	void testScenario() throws IOException, InterruptedException {
+
+		var scenario = """
+				body,Sun,696340000,1.9884E30,#FFFF00,0,0,0,0
+				orbit,Earth,6371000,5.9722E24,#0000FF,Sun,1.521E11,1.47095E11,prograde
+				""";
+
+		var response = send("POST", "/sessions?dimension=3", scenario);
+		assertEquals(200, response.statusCode());
+		assertTrue(response.body().contains("\"bodyCount\":2"));
+
+		var state = send("GET", "/sessions/1", null).body();
+		assertTrue(state.contains("\"z\":0.0"));
+
+		assertEquals(400, send("POST", "/sessions?dimension=4", null).statusCode());
+	}
+
+	@Test
+	void testRateLimit() throws IOException, InterruptedException {
+
+		var clock = new TestStepRateLimiter.ManualClock();
+		server.close();
+		server = SimulationServer.start(0, clock);
+
+		send("POST", "/sessions?rate=200", null);
+		send("POST", "/sessions/1/step?count=400", null);
+
+		// the first 200 steps are a burst, the next 200 steps take 1 second
+		assertEquals(1.0, clock.nanoTime() / 1.0E9, 1.0E-6);
+
+		var response = send("POST", "/sessions/1/run", null);
+		assertTrue(response.body().contains("\"running\":true"));
+
+		while (server.getSession("1").getStepCount() < 2_000) {
+			Thread.sleep(1);
+		}
+
+		response = send("POST", "/sessions/1/pause", null);
+		assertTrue(response.body().contains("\"running\":false"));
+
+		// a burst of 200 steps, then 200 steps per second, the last acquired slice being possibly interrupted
+		var stepCount = server.getSession("1").getStepCount();
+		var maximumStepCount = 200 + 200 * clock.nanoTime() / 1.0E9;
+		assertTrue(stepCount <= maximumStepCount && stepCount >= maximumStepCount - 201,
+				"step count: " + stepCount + ", maximum: " + maximumStepCount);
+	}
+
+	@Test
+	void testInvalidParameters() throws IOException, InterruptedException {
+
+		assertEquals(400, send("POST", "/sessions?rate=NaN", null).statusCode());
+		assertEquals(400, send("POST", "/sessions?rate=-1", null).statusCode());
+		assertEquals(400, send("POST", "/sessions?rate=Infinity", null).statusCode());
+		assertEquals(0, server.getSessionCount());
+
+		send("POST", "/sessions", null);
+
+		assertEquals(400, send("POST", "/sessions/1/step?deltaTime=NaN", null).statusCode());
+		assertEquals(400, send("POST", "/sessions/1/step?deltaTime=-3600", null).statusCode());
+		assertEquals(400, send("POST", "/sessions/1/run?deltaTime=0", null).statusCode());
+		assertEquals(0, server.getSession("1").getStepCount());
+		assertEquals(0.0, server.getSession("1").getUniverse().getTime());
+	}
+
+	@Test
+	void testLimits() throws IOException, InterruptedException {
+
+		var scenario = new byte[SimulationServer.MAXIMUM_SCENARIO_SIZE + 1];
+		assertThrows(IllegalArgumentException.class, () -> server.createSession(Map.of(), scenario));
+
+		for (var session = 0; session < SimulationServer.MAXIMUM_SESSION_COUNT; session++) {
+			server.createSession(Map.of(), new byte[0]);
+		}
+
+		assertEquals(409, send("POST", "/sessions", null).statusCode());
+		assertEquals(200, send("DELETE", "/sessions/1", null).statusCode());
+		assertEquals(200, send("POST", "/sessions", null).statusCode());
+	}
+
+	@Test
+	void testManySessions() throws Exception {
+
+		var sessionCount = 200;
+
+		for (var session = 0; session < sessionCount; session++) {
+			server.createSession(Map.of(), new byte[0]);
+		}
+
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			var responses = new ArrayList<Future<HttpResponse<String>>>();
+
+			for (var session = 1; session <= sessionCount; session++) {
+
+				var path = "/sessions/" + session + "/step?count=100";
+				responses.add(executor.submit(() -> send("POST", path, null)));
+			}
+
+			for (var response : responses) {
+				assertEquals(200, response.get().statusCode());
+			}
+		}
+
+		for (var session = 1; session <= sessionCount; session++) {
+			assertEquals(100, server.getSession(Integer.toString(session)).getStepCount());
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link SimulationSession}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestSimulationSession {
+
+	@Test
+	void testRunFailure() throws InterruptedException {
+
+		// a universe failing at its 10th update
+		var universe = new UniverseModel() {
+
+			private int updateCount = 0;
+
+			@Override
+			public void update(double deltaTime) {
+
+				if (++updateCount == 10) {
+					throw new IllegalStateException("update failure");
+				}
+
+				super.update(deltaTime);
+			}
+		};
+
+		SolarSystemSimulation.addSolarSystem(universe);
+
+		var session = new SimulationSession(1, universe, new StepRateLimiter(1_000_000, 4), new Semaphore(1));
+		session.run(3_600);
+
+		var deadline = System.nanoTime() + 5_000_000_000L;
+
+		while (session.isRunning() && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+
+		// the session stops running, and can run again
+		assertFalse(session.isRunning());
+		assertTrue(session.toJson(false).contains("\"running\":false"));
+		assertEquals(8, session.getStepCount());
+
+		session.run(3_600);
+		assertTrue(session.isRunning());
+		session.pause();
+		assertFalse(session.isRunning());
+	}
+}
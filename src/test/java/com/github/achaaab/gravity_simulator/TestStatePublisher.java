@@ -0,0 +1,224 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Selector;
+import java.nio.file.Path;
+
+import static javafx.scene.paint.Color.GRAY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link StatePublisher}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestStatePublisher {
+
+	private static final double DAY = 86_400;
+
+	/**
+	 * Waits until the publisher has accepted the given number of subscribers.
+	 *
+	 * @param publisher publisher
+	 * @param subscriberCount expected number of subscribers
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private static void awaitSubscribers(StatePublisher publisher, int subscriberCount) throws InterruptedException {
+
+		var deadline = System.nanoTime() + 5_000_000_000L;
+
+		while (publisher.getSubscriberCount() < subscriberCount && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+
+		assertEquals(subscriberCount, publisher.getSubscriberCount());
+	}
+
+	/**
+	 * @return loopback TCP address, on an ephemeral port
+	 */
+	private static SocketAddress getLoopbackAddress() {
+		return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+	}
+
+	@Test
+	void testPublish() throws IOException, InterruptedException {
+
+		var universe = new UniverseModel();
+		SolarSystemSimulation.addSolarSystem(universe);
+
+		try (var publisher = new StatePublisher(getLoopbackAddress(), 2, 16);
+				var subscriber0 = new StateSubscriber(publisher.getAddress());
+				var subscriber1 = new StateSubscriber(publisher.getAddress())) {
+
+			universe.addUpdateListener(publisher);
+			awaitSubscribers(publisher, 2);
+
+			for (var day = 0; day < 6; day++) {
+				universe.update(DAY);
+			}
+
+			assertEquals(3, publisher.getPublishedFrameCount());
+
+			for (var subscriber : new StateSubscriber[] { subscriber0, subscriber1 }) {
+
+				for (var frame = 1; frame <= 3; frame++) {
+
+					var stateFrame = subscriber.receive();
+					assertEquals(2L * frame, stateFrame.updateNumber());
+					assertEquals(2 * frame * DAY, stateFrame.time(), 1.0E-6);
+					assertEquals(10, stateFrame.bodyCount());
+					assertEquals(4, stateFrame.componentCount());
+				}
+			}
+		}
+
+		var earth = universe.getBodies().get(3);
+
+		try (var publisher = new StatePublisher(getLoopbackAddress(), 1, 16);
+				var subscriber = new StateSubscriber(publisher.getAddress())) {
+
+			universe.addUpdateListener(publisher);
+			awaitSubscribers(publisher, 1);
+			universe.update(DAY);
+
+			var stateFrame = subscriber.receive();
+			assertEquals(earth.getPosition().getX(), stateFrame.getState(3, 0));
+			assertEquals(earth.getPosition().getY(), stateFrame.getState(3, 1));
+			assertEquals(earth.getVelocity().getX(), stateFrame.getState(3, 2));
+			assertEquals(earth.getVelocity().getY(), stateFrame.getState(3, 3));
+		}
+	}
+
+	@Test
+	void testDropOldest() throws IOException, InterruptedException {
+
+		var universe = new UniverseModel();
+
+		for (var index = 0; index < 20_000; index++) {
+
+			var body = new Body("body " + index, 1, 1, GRAY);
+			body.setPosition(new Vector2(index, 0));
+			universe.addBody(body);
+		}
+
+		var updateCount = 200;
+
+		try (var publisher = new StatePublisher(getLoopbackAddress(), 1, 4);
+				var subscriber = new StateSubscriber(publisher.getAddress())) {
+
+			awaitSubscribers(publisher, 1);
+
+			// the subscriber does not read: about 100 MB are published
+			for (var update = 0; update < updateCount; update++) {
+				publisher.universeUpdated(universe);
+			}
+
+			assertEquals(updateCount, publisher.getPublishedFrameCount());
+			assertTrue(publisher.getDroppedFrameCount() > 0);
+
+			var lastUpdateNumber = 0L;
+
+			while (lastUpdateNumber < updateCount) {
+
+				var stateFrame = subscriber.receive();
+				assertTrue(stateFrame.updateNumber() > lastUpdateNumber);
+				assertEquals(20_000, stateFrame.bodyCount());
+				assertEquals(19_999, stateFrame.getState(19_999, 0));
+				lastUpdateNumber = stateFrame.updateNumber();
+			}
+		}
+	}
+
+	@Test
+	void testUnixDomainSocket(@TempDir Path directory) throws IOException, InterruptedException {
+
+		var universe = new UniverseModel3D();
+		SolarSystemSimulation.addSolarSystem(universe);
+
+		var address = UnixDomainSocketAddress.of(directory.resolve("simulation.sock"));
+
+		try (var publisher = new StatePublisher(address, 1, 16);
+				var subscriber = new StateSubscriber(publisher.getAddress())) {
+
+			universe.addUpdateListener(publisher);
+			awaitSubscribers(publisher, 1);
+			universe.update(DAY);
+
+			var stateFrame = subscriber.receive();
+			assertEquals(1, stateFrame.updateNumber());
+			assertEquals(6, stateFrame.componentCount());
+			assertEquals(60, stateFrame.states().length);
+		}
+	}
+
+	@Test
+	void testMaximumFrameSize() throws IOException, InterruptedException {
+
+		var universe = new UniverseModel();
+		SolarSystemSimulation.addSolarSystem(universe);
+
+		// 10 bodies: frames of 32 + 10 * 4 * 8 bytes
+		try (var publisher = new StatePublisher(getLoopbackAddress(), 1, 16);
+				var subscriber = new StateSubscriber(publisher.getAddress(), 351)) {
+
+			universe.addUpdateListener(publisher);
+			awaitSubscribers(publisher, 1);
+			universe.update(DAY);
+
+			assertThrows(StreamCorruptedException.class, subscriber::receive);
+		}
+	}
+
+	@Test
+	void testSenderFailure() throws ReflectiveOperationException, IOException, InterruptedException {
+
+		var universe = new UniverseModel();
+		SolarSystemSimulation.addSolarSystem(universe);
+
+		var publisher = new StatePublisher(getLoopbackAddress(), 1, 16);
+		universe.addUpdateListener(publisher);
+
+		try (var subscriber = new StateSubscriber(publisher.getAddress())) {
+
+			awaitSubscribers(publisher, 1);
+			universe.update(DAY);
+			assertEquals(1, subscriber.receive().updateNumber());
+
+			// the selector of the sender thread fails
+			var selectorField = StatePublisher.class.getDeclaredField("selector");
+			selectorField.setAccessible(true);
+			((Selector) selectorField.get(publisher)).close();
+
+			var deadline = System.nanoTime() + 5_000_000_000L;
+
+			while (publisher.getFailure() == null && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+
+			// depending on where the sender thread is, the selector or a key fails
+			assertNotNull(publisher.getFailure());
+			assertEquals(0, publisher.getSubscriberCount());
+			assertThrows(EOFException.class, subscriber::receive);
+
+			// nothing is published anymore
+			universe.update(DAY);
+			assertEquals(1, publisher.getPublishedFrameCount());
+		}
+
+		assertThrows(IOException.class, publisher::close);
+	}
+}
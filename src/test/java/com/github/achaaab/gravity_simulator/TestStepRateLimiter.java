@@ -0,0 +1,81 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * unit tests of {@link StepRateLimiter}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestStepRateLimiter {
+
+	@Test
+	void testRate() throws InterruptedException {
+
+		var clock = new ManualClock();
+		var limiter = new StepRateLimiter(100, 10, clock);
+
+		// the burst is acquired without waiting
+		limiter.acquire(10);
+		assertEquals(0, clock.nanoTime());
+
+		// then 100 steps per second
+		for (var slice = 0; slice < 10; slice++) {
+			limiter.acquire(10);
+		}
+
+		assertEquals(1.0, clock.nanoTime() / 1.0E9, 1.0E-6);
+
+		// tokens are earned while idle, up to the burst
+		clock.sleep(10_000_000_000L);
+		limiter.acquire(10);
+		assertEquals(11.0, clock.nanoTime() / 1.0E9, 1.0E-6);
+
+		assertThrows(IllegalArgumentException.class, () -> limiter.acquire(11));
+	}
+
+	@Test
+	void testInvalidArguments() {
+
+		assertThrows(IllegalArgumentException.class, () -> new StepRateLimiter(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new StepRateLimiter(-1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new StepRateLimiter(Double.NaN, 1));
+		assertThrows(IllegalArgumentException.class, () -> new StepRateLimiter(Double.POSITIVE_INFINITY, 1));
+		assertThrows(IllegalArgumentException.class, () -> new StepRateLimiter(1, 0.5));
+		assertThrows(IllegalArgumentException.class, () -> new StepRateLimiter(1, Double.NaN));
+	}
+
+	/**
+	 * clock advanced only by waiting, any wait taking 1 real millisecond, so that waiting threads still let other
+	 * threads run
+	 *
+	 * @author Jonathan Guéhenneux
+	 * @since 0.0.0
+	 */
+	static class ManualClock implements StepRateLimiter.Clock {
+
+		private final AtomicLong time = new AtomicLong();
+
+		@Override
+		public long nanoTime() {
+			return time.get();
+		}
+
+		@Override
+		public void sleep(long duration) throws InterruptedException {
+
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+
+			time.addAndGet(duration);
+			Thread.sleep(1);
+		}
+	}
+}
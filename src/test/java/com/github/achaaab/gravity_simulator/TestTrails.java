@@ -0,0 +1,83 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static javafx.scene.paint.Color.WHITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * unit tests of {@link Trails}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestTrails {
+
+	@Test
+	void testSample() {
+
+		var moving = new Body("moving", 1.0, 1.0, WHITE);
+		var fixed = new Body("fixed", 1.0, 1.0, WHITE);
+		var bodies = List.of(moving, fixed);
+
+		// 2 pixels at 0.1 pixel per meter: points closer than 20 meters are skipped
+		var trails = new Trails(4, 2.0, 1L << 20);
+
+		for (var x = 0; x < 100; x += 10) {
+
+			moving.setPosition(new Vector2(x, 0));
+			trails.sample(bodies, 0.1);
+		}
+
+		// points at 0, 20, 40, 60 and 80 meters, the first one was overwritten
+		assertEquals(4, trails.getPointCount(0));
+		assertEquals(1, trails.getPointCount(1));
+
+		for (var point = 0; point < 4; point++) {
+			assertEquals(new Vector2(20 + 20 * point, 0), trails.getPoint(0, point));
+		}
+
+		assertEquals(new Vector2(0, 0), trails.getPoint(1, 0));
+
+		trails.clear();
+		assertEquals(0, trails.getPointCount(0));
+
+		trails.sample(bodies, 0.1);
+		assertEquals(1, trails.getPointCount(0));
+		assertEquals(new Vector2(90, 0), trails.getPoint(0, 0));
+	}
+
+	@Test
+	void testMemoryBudget() {
+
+		var bodies = new ArrayList<Body>();
+
+		for (var index = 0; index < 1_000; index++) {
+			bodies.add(new Body("body" + index, 1.0, 1.0, WHITE));
+		}
+
+		// 10 points of 16 bytes per body
+		var trails = new Trails(256, 2.0, 1_000 * 10 * 16);
+		trails.sample(bodies, 1.0);
+		assertEquals(10, trails.getCapacity());
+		assertEquals(1, trails.getPointCount(999));
+
+		// not enough memory for a single point per body
+		bodies.addAll(bodies);
+		bodies.addAll(bodies);
+		bodies.addAll(bodies);
+		bodies.addAll(bodies);
+		trails.sample(bodies, 1.0);
+		assertEquals(0, trails.getCapacity());
+		assertEquals(0, trails.getPointCount(15_999));
+
+		// released trails are allocated again at the next sample
+		trails.release();
+		trails.sample(bodies.subList(0, 1_000), 1.0);
+		assertEquals(10, trails.getCapacity());
+		assertEquals(1, trails.getPointCount(0));
+	}
+}
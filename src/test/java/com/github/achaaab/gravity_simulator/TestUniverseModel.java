@@ -0,0 +1,115 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import static com.github.achaaab.gravity_simulator.UniverseModel.G;
+import static javafx.scene.paint.Color.WHITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link UniverseModel}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestUniverseModel {
+
+	private static final double SUN_MASS = 1.9884E30;
+	private static final double EARTH_MASS = 5.9722E24;
+	private static final double EARTH_APHELION = 1.521E11;
+	private static final double EARTH_PERIHELION = 1.47095E11;
+	private static final double DAY = 86_400;
+
+	/**
+	 * @return universe with the sun and the earth
+	 */
+	private static UniverseModel createSunEarth() {
+
+		var universe = new UniverseModel();
+
+		var sun = new Body("Sun", 1.0, SUN_MASS, WHITE);
+		var earth = new Body("Earth", 1.0, EARTH_MASS, WHITE);
+
+		universe.addBody(sun);
+		universe.addOrbitingBody(new EllipticOrbit(sun, earth, EARTH_APHELION, EARTH_PERIHELION, true));
+
+		return universe;
+	}
+
+	@Test
+	void testUpdate() {
+
+		var universe = new UniverseModel();
+
+		var body0 = new Body("body0", 1.0, 1.0E10, WHITE);
+		var body1 = new Body("body1", 1.0, 2.0E10, WHITE);
+		body1.setPosition(new Vector2(10.0, 0.0));
+
+		universe.addBody(body0);
+		universe.addBody(body1);
+		universe.update(2.0);
+
+		var force = G * 1.0E10 * 2.0E10 / 100.0;
+
+		assertEquals(1, universe.getInteractionCount());
+		assertEquals(2.0, universe.getTime());
+		assertEquals(2.0 * force / 1.0E10, body0.getVelocity().getX(), 1E-12);
+		assertEquals(-2.0 * force / 2.0E10, body1.getVelocity().getX(), 1E-12);
+		assertEquals(4.0 * force / 1.0E10, body0.getPosition().getX(), 1E-12);
+		assertEquals(0.0, body0.getPosition().getY());
+	}
+
+	@Test
+	void testDiagnostics() {
+
+		var universe = createSunEarth();
+		var diagnostics = new ConservationDiagnostics(1_000, 1.0E-3);
+		universe.setDiagnostics(diagnostics);
+
+		for (var day = 0; day < 365; day++) {
+			universe.update(DAY);
+		}
+
+		assertEquals(365, diagnostics.getSampleCount());
+		assertEquals(0.0, diagnostics.getTime(0));
+		assertEquals(364 * DAY, diagnostics.getTime(364));
+
+		var semiMajorAxis = (EARTH_APHELION + EARTH_PERIHELION) / 2;
+		var expectedEnergy = -G * SUN_MASS * EARTH_MASS / (2 * semiMajorAxis);
+		assertEquals(expectedEnergy, diagnostics.getTotalEnergy(0), Math.abs(expectedEnergy) * 1.0E-9);
+
+		assertTrue(diagnostics.getMomentumDrift(364) < 1.0E-12);
+		assertTrue(diagnostics.getAngularMomentumDrift(364) < 1.0E-9);
+		assertTrue(diagnostics.getEnergyDrift(364) < 1.0E-3);
+		assertFalse(diagnostics.isDrifting());
+		assertTrue(Double.isNaN(diagnostics.getDriftTime()));
+	}
+
+	@Test
+	void testDrift() {
+
+		var universe = createSunEarth();
+		var diagnostics = new ConservationDiagnostics(10, 1.0E-3);
+		universe.setDiagnostics(diagnostics);
+
+		// a 30 days time step is too coarse to conserve energy
+		for (var step = 0; step < 36; step++) {
+			universe.update(30 * DAY);
+		}
+
+		assertEquals(10, diagnostics.getSampleCount());
+		assertEquals(26 * 30 * DAY, diagnostics.getTime(0));
+		assertTrue(diagnostics.isDrifting());
+		assertTrue(diagnostics.getDriftTime() > 0);
+	}
+
+	@Test
+	void testDiagnosticsCapacity() {
+
+		assertThrows(IllegalArgumentException.class, () -> new ConservationDiagnostics(0, 1.0E-3));
+		assertThrows(IllegalArgumentException.class, () -> new ConservationDiagnostics(-1, 1.0E-3));
+	}
+}
@@ -0,0 +1,217 @@
+package com.github.achaaab.gravity_simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.abs;
+import static javafx.scene.paint.Color.BLUE;
+import static javafx.scene.paint.Color.GRAY;
+import static javafx.scene.paint.Color.YELLOW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * unit tests of {@link UniverseModel3D}
+ *
+ * @author Jonathan Guéhenneux
+ * @since 0.0.0
+ */
+class TestUniverseModel3D {
+
+	private static final double DAY = 86_400;
+
+	/**
+	 * Adds the sun, the earth and the moon, on inclined orbits.
+	 *
+	 * @param universe universe in which to add the bodies
+	 * @param inclination inclination of the orbits, in radians
+	 * @return added bodies
+	 */
+	private static List<Body> addSunEarthMoon(AbstractUniverseModel universe, double inclination) {
+
+		var sun = new Body("Sun", 696_340_000, 1.9884E30, YELLOW);
+		var earth = new Body("Earth", 6_371_000, 5.9722E24, BLUE);
+		var moon = new Body("Moon", 1_737_400, 7.342E22, GRAY);
+
+		universe.addBody(sun);
+		universe.addOrbitingBody(new EllipticOrbit(sun, earth, 1.521E11, 1.47095E11, true, inclination, 0));
+		universe.addOrbitingBody(new EllipticOrbit(earth, moon, 405_400_000, 362_600_000, true, inclination, 0));
+
+		return List.of(sun, earth, moon);
+	}
+
+	@Test
+	void testCoplanar() {
+
+		var universe2D = new UniverseModel();
+		var universe3D = new UniverseModel3D();
+		var bodies2D = addSunEarthMoon(universe2D, 0);
+		var bodies3D = addSunEarthMoon(universe3D, 0);
+
+		for (var day = 0; day < 100; day++) {
+
+			universe2D.update(DAY);
+			universe3D.update(DAY);
+		}
+
+		universe3D.project();
+
+		assertEquals(3, universe3D.getInteractionCount());
+		assertEquals(100 * DAY, universe3D.getTime(), 1.0E-6);
+
+		for (var index = 0; index < 3; index++) {
+
+			var position2D = bodies2D.get(index).getPosition();
+			var position3D = universe3D.getPosition(bodies3D.get(index));
+
+			assertEquals(position2D.getX(), position3D.getX(), 1.0E3);
+			assertEquals(position2D.getY(), position3D.getY(), 1.0E3);
+			assertEquals(0, position3D.getZ());
+			assertEquals(position3D.getX(), bodies3D.get(index).getPosition().getX());
+			assertEquals(position3D.getY(), bodies3D.get(index).getPosition().getY());
+		}
+	}
+
+	@Test
+	void testInclinedOrbit() {
+
+		var universe = new UniverseModel3D();
+		var bodies = addSunEarthMoon(universe, PI / 2);
+		var earth = bodies.get(1);
+
+		var position = universe.getPosition(earth);
+		assertEquals(1.521E11, position.getX(), 1.0);
+		assertEquals(0, position.getY(), 1.0);
+		assertEquals(0, position.getZ(), 1.0);
+
+		var velocity = universe.getVelocity(earth);
+		assertEquals(0, velocity.getY(), 1.0E-9);
+		assertTrue(velocity.getZ() < 0);
+
+		for (var day = 0; day < 90; day++) {
+			universe.update(DAY);
+		}
+
+		position = universe.getPosition(earth);
+		assertTrue(position.getZ() < -1.0E11);
+		assertTrue(abs(position.getY()) < 1.0E9);
+
+		// updates do not project
+		assertEquals(1.521E11, earth.getPosition().getX(), 1.0);
+		universe.project();
+
+		// seen from above, the orbit is a line, seen from the side, it is an ellipse
+		assertEquals(position.getY(), earth.getPosition().getY(), 1.0);
+		universe.setView(0, PI / 2);
+		assertEquals(-position.getZ(), earth.getPosition().getY(), 1.0);
+		assertEquals(position.getX(), earth.getPosition().getX(), 1.0);
+	}
+
+	@Test
+	void testCapacity() {
+
+		var universe = new UniverseModel3D();
+
+		// 9 bodies, more than the initial capacity, one of them at the origin like the unused entries
+		for (var index = 0; index < 9; index++) {
+
+			var body = new Body("body " + index, 1, 1.0E24, GRAY);
+			var position = new Vector3(index * 1.0E9, (index % 3) * 1.0E9, (index % 2) * 1.0E9);
+			universe.addBody(body, position, new Vector3());
+		}
+
+		for (var step = 0; step < 10; step++) {
+			universe.update(3_600);
+		}
+
+		assertEquals(36, universe.getInteractionCount());
+
+		var momentum = new Vector3();
+
+		for (var body : universe.getBodies()) {
+
+			var velocity = universe.getVelocity(body);
+			assertTrue(Double.isFinite(velocity.magnitude()));
+			momentum = momentum.plus(velocity.times(body.getMass()));
+		}
+
+		assertEquals(0, momentum.magnitude(), 1.0E14);
+	}
+
+	@Test
+	void testRewind() {
+
+		var universe = new UniverseModel3D();
+		var bodies = addSunEarthMoon(universe, 0.1);
+		var moon = bodies.get(2);
+
+		var recorder = new KeyframeRecorder(universe, 10 * DAY, 1L << 20);
+		var initialPosition = universe.getPosition(moon);
+
+		for (var day = 0; day < 30; day++) {
+			recorder.advance(DAY, DAY);
+		}
+
+		assertEquals(0, recorder.rewind(0));
+		assertEquals(initialPosition, universe.getPosition(moon));
+		assertEquals(0, universe.getTime());
+	}
+
+	@Test
+	void testOrbitingBodies() {
+
+		var universe = new UniverseModel3D();
+		var sun = new Body("Sun", 696_340_000, 1.9884E30, YELLOW);
+		var earth = new Body("Earth", 6_371_000, 5.9722E24, BLUE);
+
+		universe.addBody(sun, new Vector3(1.0E9, -2.0E9, 3.0E9), new Vector3(100, 200, 300));
+
+		// the projection of the sun differs from its position
+		universe.setView(PI / 4, PI / 3);
+
+		var orbits = new OrbitalElements(
+				new double[] { 1.5E11 },
+				new double[] { 0.0 },
+				new double[] { PI },
+				new double[] { PI },
+				new boolean[] { true });
+
+		universe.addOrbitingBodies(sun, new Body[] { earth }, orbits);
+
+		var position = universe.getPosition(earth);
+		var velocity = universe.getVelocity(earth);
+
+		assertEquals(1.0E9 + 1.5E11, position.getX(), 1.0E-3);
+		assertEquals(-2.0E9, position.getY(), 1.0E-3);
+		assertEquals(3.0E9, position.getZ());
+		assertEquals(300, velocity.getZ());
+		assertEquals(100, velocity.getX(), 1.0E-9);
+	}
+
+	@Test
+	void testSetPosition() {
+
+		var universe = new UniverseModel3D();
+		var bodies = addSunEarthMoon(universe, 0.1);
+		var earth = bodies.get(1);
+
+		universe.setView(0, PI / 2);
+		universe.setPosition(earth, new Vector3(1.0E11, 2.0E11, 3.0E11));
+		universe.setVelocity(earth, new Vector3(1.0E3, 2.0E3, 3.0E3));
+
+		assertEquals(1.0E11, universe.getPosition(earth).getX());
+		assertEquals(3.0E3, universe.getVelocity(earth).getZ());
+
+		// the projection follows the new state
+		assertEquals(1.0E11, earth.getPosition().getX(), 1.0E-3);
+		assertEquals(-3.0E11, earth.getPosition().getY(), 1.0E-3);
+		assertEquals(-3.0E3, earth.getVelocity().getY(), 1.0E-9);
+
+		assertThrows(IllegalArgumentException.class, () -> universe.getPosition(new Body("", 1, 1, GRAY)));
+		assertThrows(IllegalArgumentException.class,
+				() -> universe.setPosition(new Body("", 1, 1, GRAY), new Vector3()));
+	}
+}